@@ -0,0 +1,8 @@
+-- wrk 登入壓測腳本：以同一組帳密重複登入（需先註冊該帳號並關閉登入限流）
+function init(args)
+    local login_id = args[1] or "benchlogin"
+    local password = args[2] or "password123"
+    wrk.method = "POST"
+    wrk.headers["Content-Type"] = "application/json"
+    wrk.body = string.format('{"loginId":"%s","password":"%s"}', login_id, password)
+end
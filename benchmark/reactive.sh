@@ -0,0 +1,154 @@
+#!/bin/bash
+
+# Servlet（Tomcat + JPA）vs Reactive（WebFlux + R2DBC）吞吐量與記憶體比較
+# 兩種模式使用相同的 heap 上限，在各並發連線數下以 wrk 壓測註冊與登入，
+# 並於壓測期間每秒取樣行程 RSS、執行緒數與 heap 使用量，記錄峰值
+# 需求: wrk、可連線且已建立結構的 MySQL（local profile，結構見 docker/mysql/init/01-init.sql）
+# 用法: ./benchmark/reactive.sh [持續秒數]
+
+set -e
+
+# 顏色定義
+RED='\033[0;31m'
+GREEN='\033[0;32m'
+YELLOW='\033[1;33m'
+BLUE='\033[0;34m'
+NC='\033[0m' # No Color
+
+DURATION="${1:-30}"
+CONNECTIONS="${CONNECTIONS:-100 1000 5000 10000}"
+HEAP="${HEAP:-512m}"
+THREADS=8
+PORT=8080
+RESULT_DIR="benchmark-results"
+RESULT_FILE="$RESULT_DIR/reactive.csv"
+SCRIPT_DIR="$(cd "$(dirname "$0")" && pwd)"
+LOGIN_ID="reactivebench"
+PASSWORD="password123"
+# 每次執行使用不同的註冊前綴，避免與前次執行的資料重複
+RUN_ID=$(( $(date +%s) % 100000 ))
+
+echo -e "${BLUE}⚛️  Servlet vs Reactive 壓測${NC}"
+echo "=================================="
+
+if ! command -v wrk &> /dev/null; then
+    echo -e "${RED}❌ wrk 未安裝，請先安裝 wrk${NC}"
+    exit 1
+fi
+
+# 提高檔案描述符上限，10k 連線需要
+ulimit -n 65535 || echo -e "${YELLOW}⚠️  無法調高 ulimit -n，高連線數可能失敗${NC}"
+
+mkdir -p "$RESULT_DIR"
+echo "mode,scenario,connections,requests_per_sec,latency_p50,latency_p99,socket_errors,non_2xx,peak_rss_mb,peak_threads,peak_heap_mb" > "$RESULT_FILE"
+
+echo -e "${YELLOW}🔨 建置 servlet jar...${NC}"
+mvn -B -q clean package -DskipTests
+cp "$(ls target/*.jar | grep -v plain | head -n 1)" "$RESULT_DIR/servlet.jar"
+
+echo -e "${YELLOW}🔨 使用 reactive profile 建置...${NC}"
+mvn -B -q -Preactive clean package -DskipTests
+cp "$(ls target/*.jar | grep -v plain | head -n 1)" "$RESULT_DIR/reactive.jar"
+
+# 所有請求來自同一 IP，因此關閉登入限流
+APP_ARGS=(--server.port=$PORT
+    --spring.jpa.show-sql=false
+    --auth.rate-limit.enabled=false
+    --management.endpoints.web.exposure.include=health,metrics
+    --logging.level.com.example.springboot_mysql_login_ci_sonar=WARN)
+
+# 函數：啟動應用程式並等待就緒
+start_app() {
+    local jar=$1
+    local profiles=$2
+    local log_file=$3
+    java -Xms"$HEAP" -Xmx"$HEAP" -jar "$jar" --spring.profiles.active="$profiles" "${APP_ARGS[@]}" > "$log_file" 2>&1 &
+    APP_PID=$!
+    for _ in $(seq 1 120); do
+        if curl -sf "http://localhost:$PORT/api/auth/health" > /dev/null; then
+            return 0
+        fi
+        sleep 1
+    done
+    echo -e "${RED}❌ 應用程式啟動逾時，請查看 $log_file${NC}"
+    kill $APP_PID || true
+    exit 1
+}
+
+# 函數：目前 heap 使用量（MB）
+heap_used_mb() {
+    curl -s "http://localhost:$PORT/actuator/metrics/jvm.memory.used?tag=area:heap" \
+        | grep -o '"value":[0-9.E+-]*' | head -n 1 | awk -F: '{ printf "%d", $2 / 1048576 }'
+}
+
+# 函數：每秒取樣 RSS、執行緒數與 heap，壓測結束後由 stop_sampler 輸出峰值
+start_sampler() {
+    local sample_file=$1
+    : > "$sample_file"
+    (
+        while kill -0 $APP_PID 2>/dev/null; do
+            local rss threads
+            rss=$(awk '/^VmRSS/ { printf "%d", $2 / 1024 }' "/proc/$APP_PID/status")
+            threads=$(awk '/^Threads/ { print $2 }' "/proc/$APP_PID/status")
+            echo "$rss $threads $(heap_used_mb)" >> "$sample_file"
+            sleep 1
+        done
+    ) &
+    SAMPLER_PID=$!
+}
+
+stop_sampler() {
+    local sample_file=$1
+    kill $SAMPLER_PID 2>/dev/null || true
+    wait $SAMPLER_PID 2>/dev/null || true
+    awk '{ if ($1 > r) r = $1; if ($2 > t) t = $2; if ($3 > h) h = $3 } END { printf "%d,%d,%d", r, t, h }' "$sample_file"
+}
+
+# 函數：執行單一模式的壓測
+run_mode() {
+    local mode=$1
+    local jar=$2
+    local profiles=$3
+    local log_file="$RESULT_DIR/app-$mode.log"
+    local sample_file="$RESULT_DIR/samples-$mode.txt"
+
+    echo -e "${YELLOW}🚀 模式: $mode (profiles=$profiles, heap=$HEAP)${NC}"
+    start_app "$jar" "$profiles" "$log_file"
+    # 登入壓測帳號，已存在時回應 400 可忽略
+    curl -s -o /dev/null -H 'Content-Type: application/json' \
+        -d "{\"username\":\"$LOGIN_ID\",\"loginId\":\"$LOGIN_ID\",\"password\":\"$PASSWORD\"}" \
+        "http://localhost:$PORT/api/auth/signup" || true
+
+    for c in $CONNECTIONS; do
+        for scenario in signup login; do
+            echo -e "${BLUE}  ▶ $scenario, $c 連線, ${DURATION}s${NC}"
+            local script_args
+            if [ "$scenario" = "signup" ]; then
+                script_args=("${mode:0:1}${c}x${RUN_ID}")
+            else
+                script_args=("$LOGIN_ID" "$PASSWORD")
+            fi
+            start_sampler "$sample_file"
+            local output
+            output=$(wrk -t$THREADS -c"$c" -d"${DURATION}s" --latency \
+                -s "$SCRIPT_DIR/$scenario.lua" "http://localhost:$PORT" -- "${script_args[@]}")
+            local peaks rps p50 p99 errors non2xx
+            peaks=$(stop_sampler "$sample_file")
+            rps=$(echo "$output" | awk '/Requests\/sec/ {print $2}')
+            p50=$(echo "$output" | awk '$1 == "50%" {print $2}')
+            p99=$(echo "$output" | awk '$1 == "99%" {print $2}')
+            errors=$(echo "$output" | awk -F'[ ,]+' '/Socket errors/ {print $4+$6+$8+$10}')
+            non2xx=$(echo "$output" | awk '/Non-2xx/ {print $NF}')
+            echo "$mode,$scenario,$c,$rps,$p50,$p99,${errors:-0},${non2xx:-0},$peaks" >> "$RESULT_FILE"
+        done
+    done
+
+    kill $APP_PID
+    wait $APP_PID 2>/dev/null || true
+}
+
+run_mode "servlet" "$RESULT_DIR/servlet.jar" "local"
+run_mode "reactive" "$RESULT_DIR/reactive.jar" "local,reactive"
+
+echo -e "${GREEN}✅ 壓測完成，結果: $RESULT_FILE${NC}"
+column -s, -t < "$RESULT_FILE"
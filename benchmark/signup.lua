@@ -0,0 +1,19 @@
+-- wrk 註冊壓測腳本：每個請求產生唯一的 username / loginId
+local counter = 0
+local thread_id = 0
+
+function setup(thread)
+    thread:set("thread_id", thread_id)
+    thread_id = thread_id + 1
+end
+
+function init(args)
+    prefix = string.format("%s%d", args[1] or "b", thread_id)
+end
+
+request = function()
+    counter = counter + 1
+    local id = string.format("%s_%d", prefix, counter)
+    local body = string.format('{"username":"u%s","loginId":"l%s","password":"password123"}', id, id)
+    return wrk.format("POST", "/api/auth/signup", { ["Content-Type"] = "application/json" }, body)
+end
@@ -0,0 +1,143 @@
+#!/bin/bash
+
+# 啟動時間比較：一般 jar vs AOT + AppCDS + fast-startup profile
+# 量測從啟動 JVM 到第一次 /api/auth/login 成功（HTTP 200）的時間
+# 需求: Java 17+、可連線且已建立結構的 MySQL（local profile，結構見 docker/mysql/init/01-init.sql）
+# 用法: ./benchmark/startup.sh [每種模式執行次數]
+
+set -e
+
+# 顏色定義
+RED='\033[0;31m'
+GREEN='\033[0;32m'
+YELLOW='\033[1;33m'
+BLUE='\033[0;34m'
+NC='\033[0m' # No Color
+
+RUNS="${1:-5}"
+PORT=8080
+RESULT_DIR="benchmark-results"
+RESULT_FILE="$RESULT_DIR/startup.csv"
+WORK_DIR="target/startup"
+MAIN_CLASS="com.example.springboot_mysql_login_ci_sonar.SpringbootMysqlLoginCiSonarApplication"
+LOGIN_ID="startupbench"
+PASSWORD="startupbench1"
+TIMEOUT_SECONDS=120
+
+echo -e "${BLUE}⏱️  啟動時間比較（至第一次登入成功）${NC}"
+echo "=================================="
+
+mkdir -p "$RESULT_DIR"
+echo "mode,run,first_login_ms" > "$RESULT_FILE"
+
+echo -e "${YELLOW}🔨 建置一般 jar...${NC}"
+mvn -B -q clean package -DskipTests
+BASELINE_JAR="$RESULT_DIR/baseline.jar"
+cp "$(ls target/*.jar | grep -v plain | head -n 1)" "$BASELINE_JAR"
+
+echo -e "${YELLOW}🔨 使用 fast-startup profile 建置（AOT）...${NC}"
+mvn -B -q -Pfast-startup clean package -DskipTests
+FAST_JAR="$(pwd)/$(ls target/*.jar | grep -v plain | head -n 1)"
+# AppCDS 只封存 jar 內的類別，因此將 fat jar 解開為 application.jar + lib/*.jar 以一般 classpath 啟動
+rm -rf "$WORK_DIR" && mkdir -p "$WORK_DIR/extracted" "$WORK_DIR/fast"
+(cd "$WORK_DIR/extracted" && jar xf "$FAST_JAR")
+jar cf "$WORK_DIR/fast/application.jar" -C "$WORK_DIR/extracted/BOOT-INF/classes" .
+cp -r "$WORK_DIR/extracted/BOOT-INF/lib" "$WORK_DIR/fast/lib"
+FAST_CP="$WORK_DIR/fast/application.jar:$WORK_DIR/fast/lib/*"
+CDS_ARCHIVE="$WORK_DIR/fast/app.jsa"
+
+APP_ARGS=(--server.port=$PORT
+    --spring.jpa.show-sql=false
+    --logging.level.com.example.springboot_mysql_login_ci_sonar=WARN)
+
+# 函數：呼叫登入，回傳 HTTP 狀態碼
+login() {
+    curl -s -o /dev/null -w '%{http_code}' -H 'Content-Type: application/json' \
+        -d "{\"loginId\":\"$LOGIN_ID\",\"password\":\"$PASSWORD\"}" \
+        "http://localhost:$PORT/api/auth/login" || true
+}
+
+# 函數：註冊量測用帳號（已存在時忽略 409）
+signup() {
+    curl -s -o /dev/null -H 'Content-Type: application/json' \
+        -d "{\"username\":\"$LOGIN_ID\",\"loginId\":\"$LOGIN_ID\",\"password\":\"$PASSWORD\"}" \
+        "http://localhost:$PORT/api/auth/signup" || true
+}
+
+# 函數：等待第一次登入成功，輸出經過毫秒數
+wait_first_login() {
+    local start_ns=$1
+    local deadline=$((SECONDS + TIMEOUT_SECONDS))
+    while [ $SECONDS -lt $deadline ]; do
+        case "$(login)" in
+            200)
+                echo $(( ($(date +%s%N) - start_ns) / 1000000 ))
+                return 0
+                ;;
+            401)
+                signup
+                ;;
+            *)
+                sleep 0.02
+                ;;
+        esac
+    done
+    return 1
+}
+
+# 函數：停止應用程式（SIGTERM 讓 JVM 正常結束，訓練執行才會寫出 CDS 封存檔）
+stop_app() {
+    kill $APP_PID 2>/dev/null || true
+    wait $APP_PID 2>/dev/null || true
+}
+
+# 函數：執行單一模式，第一個參數為模式名稱，其餘為 java 參數
+run_mode() {
+    local mode=$1
+    shift
+    echo -e "${YELLOW}🚀 模式: $mode${NC}"
+    for run in $(seq 1 "$RUNS"); do
+        local log_file="$RESULT_DIR/app-startup-$mode-$run.log"
+        local start_ns elapsed
+        start_ns=$(date +%s%N)
+        java "$@" "${APP_ARGS[@]}" > "$log_file" 2>&1 &
+        APP_PID=$!
+        if ! elapsed=$(wait_first_login "$start_ns"); then
+            echo -e "${RED}❌ ${TIMEOUT_SECONDS}s 內未登入成功，請查看 $log_file${NC}"
+            stop_app
+            exit 1
+        fi
+        echo -e "${BLUE}  ▶ 第 $run 次: ${elapsed} ms${NC}"
+        echo "$mode,$run,$elapsed" >> "$RESULT_FILE"
+        stop_app
+    done
+}
+
+# 訓練執行：以實際的認證流程載入類別，結束時寫出 AppCDS 封存檔
+echo -e "${YELLOW}🎓 訓練執行，產生 AppCDS 封存檔...${NC}"
+java -XX:ArchiveClassesAtExit="$CDS_ARCHIVE" -Dspring.aot.enabled=true -cp "$FAST_CP" "$MAIN_CLASS" \
+    --spring.profiles.active=local,fast-startup "${APP_ARGS[@]}" > "$RESULT_DIR/app-startup-training.log" 2>&1 &
+APP_PID=$!
+if ! wait_first_login "$(date +%s%N)" > /dev/null; then
+    echo -e "${RED}❌ 訓練執行失敗，請查看 $RESULT_DIR/app-startup-training.log${NC}"
+    stop_app
+    exit 1
+fi
+for _ in $(seq 1 20); do
+    login > /dev/null
+    curl -s -o /dev/null "http://localhost:$PORT/api/auth/health"
+    curl -s -o /dev/null "http://localhost:$PORT/actuator/health/readiness"
+done
+stop_app
+if [ ! -f "$CDS_ARCHIVE" ]; then
+    echo -e "${RED}❌ 未產生 AppCDS 封存檔${NC}"
+    exit 1
+fi
+
+run_mode "baseline" -jar "$BASELINE_JAR" --spring.profiles.active=local
+run_mode "fast-startup" -XX:SharedArchiveFile="$CDS_ARCHIVE" -Dspring.aot.enabled=true -cp "$FAST_CP" "$MAIN_CLASS" \
+    --spring.profiles.active=local,fast-startup
+
+echo -e "${GREEN}✅ 量測完成，結果: $RESULT_FILE${NC}"
+column -s, -t < "$RESULT_FILE"
+awk -F, 'NR > 1 { sum[$1] += $3; n[$1]++ } END { for (m in sum) printf "%s 平均: %d ms\n", m, sum[m] / n[m] }' "$RESULT_FILE"
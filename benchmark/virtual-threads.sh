@@ -0,0 +1,102 @@
+#!/bin/bash
+
+# 平台執行緒 vs 虛擬執行緒 註冊吞吐量比較
+# 需求: Java 21、wrk、可連線的 MySQL（local profile）
+# 用法: ./benchmark/virtual-threads.sh [持續秒數]
+
+set -e
+
+# 顏色定義
+RED='\033[0;31m'
+GREEN='\033[0;32m'
+YELLOW='\033[1;33m'
+BLUE='\033[0;34m'
+NC='\033[0m' # No Color
+
+DURATION="${1:-30}"
+CONNECTIONS="1000 2000 5000 10000"
+THREADS=8
+PORT=8080
+RESULT_DIR="benchmark-results"
+RESULT_FILE="$RESULT_DIR/virtual-threads.csv"
+SCRIPT_DIR="$(cd "$(dirname "$0")" && pwd)"
+
+echo -e "${BLUE}🧵 平台執行緒 vs 虛擬執行緒 壓測${NC}"
+echo "=================================="
+
+if ! command -v wrk &> /dev/null; then
+    echo -e "${RED}❌ wrk 未安裝，請先安裝 wrk${NC}"
+    exit 1
+fi
+
+if ! java -version 2>&1 | grep -qE 'version "(2[1-9]|[3-9][0-9])'; then
+    echo -e "${RED}❌ 需要 Java 21+${NC}"
+    exit 1
+fi
+
+# 提高檔案描述符上限，10k 連線需要
+ulimit -n 65535 || echo -e "${YELLOW}⚠️  無法調高 ulimit -n，高連線數可能失敗${NC}"
+
+mkdir -p "$RESULT_DIR"
+echo "mode,connections,requests_per_sec,latency_p50,latency_p99,socket_errors,pinned_events" > "$RESULT_FILE"
+
+echo -e "${YELLOW}🔨 使用 java21 profile 建置...${NC}"
+mvn -B -q -Pjava21 clean package -DskipTests
+JAR=$(ls target/*.jar | grep -v plain | head -n 1)
+
+# 函數：啟動應用程式並等待就緒
+start_app() {
+    local profiles=$1
+    local log_file=$2
+    java -Djdk.tracePinnedThreads=short -jar "$JAR" \
+        --spring.profiles.active="$profiles" \
+        --server.port=$PORT \
+        --spring.jpa.show-sql=false \
+        --logging.level.com.example.springboot_mysql_login_ci_sonar=WARN > "$log_file" 2>&1 &
+    APP_PID=$!
+    for _ in $(seq 1 60); do
+        if curl -sf "http://localhost:$PORT/api/auth/health" > /dev/null; then
+            return 0
+        fi
+        sleep 1
+    done
+    echo -e "${RED}❌ 應用程式啟動逾時，請查看 $log_file${NC}"
+    kill $APP_PID || true
+    exit 1
+}
+
+# 函數：執行單一模式的壓測
+run_mode() {
+    local mode=$1
+    local profiles=$2
+    local log_file="$RESULT_DIR/app-$mode.log"
+
+    echo -e "${YELLOW}🚀 模式: $mode (profiles=$profiles)${NC}"
+    start_app "$profiles" "$log_file"
+
+    for c in $CONNECTIONS; do
+        echo -e "${BLUE}  ▶ $c 連線, ${DURATION}s${NC}"
+        # 記錄本輪開始前的日誌行數，pinned 只計算本輪新增的行
+        local log_offset
+        log_offset=$(wc -l < "$log_file")
+        local output
+        output=$(wrk -t$THREADS -c"$c" -d"${DURATION}s" --latency \
+            -s "$SCRIPT_DIR/signup.lua" "http://localhost:$PORT" -- "${mode}${c}")
+        local rps p50 p99 errors pinned
+        rps=$(echo "$output" | awk '/Requests\/sec/ {print $2}')
+        p50=$(echo "$output" | awk '$1 == "50%" {print $2}')
+        p99=$(echo "$output" | awk '$1 == "99%" {print $2}')
+        errors=$(echo "$output" | awk -F'[ ,]+' '/Socket errors/ {print $4+$6+$8+$10}')
+        pinned=$(tail -n +"$((log_offset + 1))" "$log_file" | grep -c "reason:MONITOR\|<== monitors" || true)
+        echo "$mode,$c,$rps,$p50,$p99,${errors:-0},$pinned" >> "$RESULT_FILE"
+    done
+
+    kill $APP_PID
+    wait $APP_PID 2>/dev/null || true
+}
+
+run_mode "platform" "local"
+run_mode "virtual" "local,virtual"
+
+echo -e "${GREEN}✅ 壓測完成，結果: $RESULT_FILE${NC}"
+column -s, -t < "$RESULT_FILE"
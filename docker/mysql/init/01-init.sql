@@ -8,20 +8,50 @@ USE user_login_db;
 CREATE TABLE IF NOT EXISTS users (
     id BIGINT AUTO_INCREMENT PRIMARY KEY,
     username VARCHAR(50) NOT NULL,
-    login_id VARCHAR(30) NOT NULL UNIQUE,
+    login_id VARCHAR(30) NOT NULL,
     password VARCHAR(255) NOT NULL,
     created_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
     updated_at DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
     enabled BOOLEAN NOT NULL DEFAULT TRUE,
-    INDEX idx_login_id (login_id),
-    INDEX idx_username (username)
+    -- 註冊流程依約束名稱判斷重複欄位，名稱需與 User 實體一致
+    CONSTRAINT uk_users_username UNIQUE (username),
+    CONSTRAINT uk_users_login_id UNIQUE (login_id)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
 
+-- ID 序列表（Hibernate 在 MySQL 上以此表模擬序列，每次配置 50 個 ID 以支援批次 INSERT）
+CREATE TABLE IF NOT EXISTS users_seq (
+    next_val BIGINT
+) ENGINE=InnoDB;
+
+-- 登入活動（最後登入時間與連續失敗次數，每位用戶一列，由背景執行緒批次寫入）
+CREATE TABLE IF NOT EXISTS user_login_activity (
+    user_id BIGINT NOT NULL PRIMARY KEY,
+    last_login_at DATETIME(6),
+    last_failed_at DATETIME(6),
+    failed_attempts INT NOT NULL
+) ENGINE=InnoDB;
+
+-- 登入歷史（每次登入嘗試一列）
+CREATE TABLE IF NOT EXISTS login_history (
+    id BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    success BOOLEAN NOT NULL,
+    reason VARCHAR(32),
+    occurred_at DATETIME(6) NOT NULL,
+    INDEX idx_login_history_user (user_id, occurred_at)
+) ENGINE=InnoDB;
+
 -- 插入測試數據（可選）
 INSERT IGNORE INTO users (username, login_id, password, enabled) VALUES
 ('管理員', 'admin', '$2a$10$N.zmdr9k7uOCQb376NoUnuTJ8iAt6Z5EHsM8lE9lBOsl7iKTVEFDi', TRUE),
 ('測試用戶', 'testuser', '$2a$10$N.zmdr9k7uOCQb376NoUnuTJ8iAt6Z5EHsM8lE9lBOsl7iKTVEFDi', TRUE);
 
+-- 序列起點需大於現有最大 ID + 配置大小，避免與既有 AUTO_INCREMENT 資料衝突
+-- （只在空的資料目錄執行；既有資料庫由應用程式啟動時的 UserIdSequenceMigration 調高）
+INSERT INTO users_seq (next_val)
+SELECT COALESCE(MAX(id), 0) + 51 FROM users
+WHERE NOT EXISTS (SELECT 1 FROM users_seq);
+
 -- 顯示建立的表
 SHOW TABLES;
 
@@ -0,0 +1,53 @@
+package com.example.springboot_mysql_login_ci_sonar.benchmark;
+
+import com.example.springboot_mysql_login_ci_sonar.config.RateLimitProperties;
+import com.example.springboot_mysql_login_ci_sonar.service.LoginRateLimiter;
+import com.example.springboot_mysql_login_ci_sonar.service.RateLimitExceededException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 登入限流基準測試：不同數量的登入 ID / IP 下的多執行緒吞吐量
+ * keys 超過 auth.rate-limit.maximum-keys（預設 100 萬）時會觸發淘汰
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@Threads(4)
+@State(Scope.Benchmark)
+public class LoginRateLimiterBenchmark {
+
+    @Param({"1000", "100000", "4000000"})
+    public int keys;
+
+    private LoginRateLimiter limiter;
+    private String[] loginIds;
+    private String[] ips;
+
+    @Setup
+    public void setUp() {
+        limiter = new LoginRateLimiter(new RateLimitProperties(), new SimpleMeterRegistry());
+        loginIds = new String[keys];
+        ips = new String[keys];
+        for (int i = 0; i < keys; i++) {
+            loginIds[i] = "user" + i;
+            ips[i] = "10." + (i >>> 16 & 0xff) + "." + (i >>> 8 & 0xff) + "." + (i & 0xff);
+        }
+    }
+
+    @Benchmark
+    public boolean check() {
+        int i = ThreadLocalRandom.current().nextInt(keys);
+        try {
+            limiter.check(loginIds[i], ips[i]);
+            return true;
+        } catch (RateLimitExceededException e) {
+            return false;
+        }
+    }
+}
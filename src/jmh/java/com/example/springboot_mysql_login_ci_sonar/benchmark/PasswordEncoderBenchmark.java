@@ -0,0 +1,39 @@
+package com.example.springboot_mysql_login_ci_sonar.benchmark;
+
+import com.example.springboot_mysql_login_ci_sonar.config.PasswordProperties;
+import com.example.springboot_mysql_login_ci_sonar.config.SecurityConfig;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 密碼比對基準測試（與 SecurityConfig 相同的委派式 BCrypt 編碼器）
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PasswordEncoderBenchmark {
+
+    @Param({"4", "10", "12"})
+    public int strength;
+
+    private PasswordEncoder passwordEncoder;
+    private String encodedPassword;
+
+    @Setup
+    public void setUp() {
+        PasswordProperties properties = new PasswordProperties();
+        properties.setStrength(strength);
+        passwordEncoder = new SecurityConfig().passwordEncoder(properties);
+        encodedPassword = passwordEncoder.encode("password123");
+    }
+
+    @Benchmark
+    public boolean matches() {
+        return passwordEncoder.matches("password123", encodedPassword);
+    }
+}
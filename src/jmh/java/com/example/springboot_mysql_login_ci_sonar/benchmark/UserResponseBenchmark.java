@@ -0,0 +1,55 @@
+package com.example.springboot_mysql_login_ci_sonar.benchmark;
+
+import com.example.springboot_mysql_login_ci_sonar.dto.ApiResponse;
+import com.example.springboot_mysql_login_ci_sonar.dto.UserResponse;
+import com.example.springboot_mysql_login_ci_sonar.entity.User;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * UserResponse 轉換與 ApiResponse JSON 序列化基準測試
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UserResponseBenchmark {
+
+    private User user;
+    private UserResponse userResponse;
+    private ObjectMapper objectMapper;
+
+    @Setup
+    public void setUp() {
+        user = new User(1L, "測試用戶", "testuser", "{bcrypt}$2a$10$N.zmdr9k7uOCQb376NoUnuTJ8iAt6Z5EHsM8lE9lBOsl7iKTVEFDi",
+            LocalDateTime.now(), LocalDateTime.now(), true);
+        userResponse = UserResponse.from(user);
+        // 與 Spring Boot 預設相同：註冊 JavaTimeModule，日期輸出為 ISO 字串
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+    }
+
+    @Benchmark
+    public UserResponse userResponseFrom() {
+        return UserResponse.from(user);
+    }
+
+    @Benchmark
+    public byte[] serializeApiResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(ApiResponse.success("登入成功", userResponse));
+    }
+
+    @Benchmark
+    public byte[] fromAndSerialize() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(ApiResponse.success("登入成功", UserResponse.from(user)));
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.springboot_mysql_login_ci_sonar.benchmark;
+
+import com.example.springboot_mysql_login_ci_sonar.SpringbootMysqlLoginCiSonarApplication;
+import com.example.springboot_mysql_login_ci_sonar.entity.User;
+import com.example.springboot_mysql_login_ci_sonar.service.UserService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * UserService 登入 / 註冊基準測試（H2 test profile）
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UserServiceBenchmark {
+
+    /** BCrypt 成本，預設與正式環境的下限相同 */
+    @Param({"10"})
+    public int strength;
+
+    /** 是否啟用用戶快取 */
+    @Param({"true", "false"})
+    public boolean userCache;
+
+    private final AtomicLong sequence = new AtomicLong();
+    private ConfigurableApplicationContext context;
+    private UserService userService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(SpringbootMysqlLoginCiSonarApplication.class)
+            .web(WebApplicationType.NONE)
+            .profiles("test")
+            .properties(
+                "auth.password.strength=" + strength,
+                "auth.user-cache.enabled=" + userCache,
+                "spring.jpa.show-sql=false",
+                "logging.level.root=WARN",
+                "logging.level.org.springframework.security=WARN",
+                "logging.level.com.example.springboot_mysql_login_ci_sonar=WARN")
+            .run();
+        userService = context.getBean(UserService.class);
+        userService.signup("基準用戶", "benchuser", "password123");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Optional<User> loginSuccess() {
+        return userService.login("benchuser", "password123");
+    }
+
+    @Benchmark
+    public Optional<User> loginWrongPassword() {
+        return userService.login("benchuser", "wrongpassword");
+    }
+
+    @Benchmark
+    public Optional<User> loginUnknownUser() {
+        return userService.login("nobody" + sequence.incrementAndGet(), "password123");
+    }
+
+    @Benchmark
+    public User signup() {
+        long id = sequence.incrementAndGet();
+        return userService.signup("基準" + id, "bench" + id, "password123");
+    }
+}
@@ -0,0 +1,340 @@
+package com.example.springboot_mysql_login_ci_sonar.loadtest;
+
+import com.example.springboot_mysql_login_ci_sonar.SpringbootMysqlLoginCiSonarApplication;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogWriter;
+import org.HdrHistogram.Recorder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Stream;
+
+/**
+ * 認證 API 壓測工具
+ * 以開放模型產生請求：每個請求都有預定的發送時間，延遲由預定時間起算，
+ * 服務變慢時不會因為等待回應而降低送出速率（避免 coordinated omission）。
+ * 結果輸出為 HdrHistogram 日誌（latency.hlog，每秒一個區間、依情境標記）及摘要（summary.csv）。
+ * 超過 maxInFlight 而未送出的請求沒有延遲可記錄，另列為 dropped，不混入錯誤數；有丟棄時延遲分位數會低估。
+ */
+public final class AuthLoadTest {
+
+    private static final String PASSWORD = "password123";
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final long HIGHEST_TRACKABLE_NANOS = TimeUnit.MINUTES.toNanos(2);
+    /** 與伺服器 auth.signup.batch-max-size 預設值相同 */
+    private static final int SEED_BATCH_SIZE = 1000;
+
+    private final LoadTestConfig config;
+    private final HttpClient httpClient;
+    private final Map<Scenario, Recorder> recorders = new EnumMap<>(Scenario.class);
+    private final Map<Scenario, Histogram> totals = new EnumMap<>(Scenario.class);
+    private final Map<Scenario, LongAdder> errors = new EnumMap<>(Scenario.class);
+    private final Map<Scenario, LongAdder> rejected = new EnumMap<>(Scenario.class);
+    private final Map<Scenario, LongAdder> dropped = new EnumMap<>(Scenario.class);
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong signupSequence = new AtomicLong();
+    private final Scenario[] weightedScenarios;
+    private final String runId = Long.toString(System.currentTimeMillis(), 36);
+    private String baseUrl;
+    private String adminPassword;
+    private volatile long measureStartNanos = Long.MAX_VALUE;
+
+    private AuthLoadTest(LoadTestConfig config) {
+        this.config = config;
+        this.adminPassword = config.adminPassword();
+        this.httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+        for (Scenario scenario : Scenario.values()) {
+            recorders.put(scenario, new Recorder(HIGHEST_TRACKABLE_NANOS, 3));
+            totals.put(scenario, new Histogram(HIGHEST_TRACKABLE_NANOS, 3));
+            errors.put(scenario, new LongAdder());
+            rejected.put(scenario, new LongAdder());
+            dropped.put(scenario, new LongAdder());
+        }
+        this.weightedScenarios = config.mix().entrySet().stream()
+            .flatMap(entry -> Stream.generate(entry::getKey).limit(entry.getValue()))
+            .toArray(Scenario[]::new);
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.parse(args);
+        ConfigurableApplicationContext context = null;
+        AuthLoadTest loadTest = new AuthLoadTest(config);
+        try {
+            if (config.baseUrl().isEmpty()) {
+                context = startApplication(config.adminLoginId());
+                loadTest.baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+                loadTest.registerEmbeddedAdmin();
+            } else {
+                loadTest.baseUrl = config.baseUrl();
+            }
+            loadTest.run();
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+        }
+    }
+
+    /**
+     * 以 test profile（H2）在隨機埠啟動應用；以命令列參數傳入才能覆寫 profile 設定檔。
+     * 所有請求來自同一 IP，因此關閉登入限流；adminLoginId 設為管理員以預建用戶
+     */
+    private static ConfigurableApplicationContext startApplication(String adminLoginId) {
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        return new SpringApplicationBuilder(SpringbootMysqlLoginCiSonarApplication.class)
+            .profiles("test")
+            .run(
+                "--server.port=0",
+                "--auth.rate-limit.enabled=false",
+                "--auth.token.admin-login-ids=" + adminLoginId,
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN",
+                "--logging.level.org.springframework.security=WARN",
+                "--logging.level.org.hibernate.SQL=WARN",
+                "--logging.level.com.example.springboot_mysql_login_ci_sonar=ERROR");
+    }
+
+    private void run() throws IOException, InterruptedException {
+        Files.createDirectories(config.output());
+        System.out.printf("壓測目標 %s: rate=%d/s, warmup=%s, duration=%s, arrival=%s, mix=%s%n",
+            baseUrl, config.rate(), config.warmup(), config.duration(),
+            config.poisson() ? "poisson" : "constant", config.mix());
+        seedUsers();
+
+        try (PrintStream hlog = new PrintStream(config.output().resolve("latency.hlog").toFile())) {
+            HistogramLogWriter logWriter = new HistogramLogWriter(hlog);
+            long startMillis = System.currentTimeMillis();
+            logWriter.outputLogFormatVersion();
+            logWriter.outputStartTime(startMillis);
+            logWriter.setBaseTime(startMillis);
+            logWriter.outputLegend();
+
+            measureStartNanos = System.nanoTime() + config.warmup().toNanos();
+            ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor();
+            reporter.scheduleAtFixedRate(() -> collectInterval(logWriter, System.nanoTime() >= measureStartNanos),
+                1, 1, TimeUnit.SECONDS);
+
+            dispatch(config.warmup().plus(config.duration()).toNanos());
+
+            // 等待尚未完成的請求
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+            while (inFlight.get() > 0 && System.nanoTime() < deadline) {
+                Thread.sleep(50);
+            }
+            reporter.shutdown();
+            reporter.awaitTermination(5, TimeUnit.SECONDS);
+            collectInterval(logWriter, true);
+        }
+        writeSummary();
+    }
+
+    /**
+     * 依預定時間送出請求；送出端落後時仍沿用原本的預定時間，排隊時間會反映在延遲中
+     */
+    private void dispatch(long totalNanos) {
+        double meanIntervalNanos = 1_000_000_000.0 / config.rate();
+        long start = System.nanoTime();
+        double offset = 0;
+        while (offset < totalNanos) {
+            long intendedStart = start + (long) offset;
+            long wait = intendedStart - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            send(pickScenario(), intendedStart);
+            offset += config.poisson()
+                ? -Math.log(1 - ThreadLocalRandom.current().nextDouble()) * meanIntervalNanos
+                : meanIntervalNanos;
+        }
+    }
+
+    private void send(Scenario scenario, long intendedStart) {
+        if (inFlight.incrementAndGet() > config.maxInFlight()) {
+            inFlight.decrementAndGet();
+            if (System.nanoTime() >= measureStartNanos) {
+                dropped.get(scenario).increment();
+            }
+            return;
+        }
+        httpClient.sendAsync(request(scenario), HttpResponse.BodyHandlers.discarding())
+            .whenComplete((response, failure) -> {
+                recorders.get(scenario).recordValue(Math.min(System.nanoTime() - intendedStart, HIGHEST_TRACKABLE_NANOS));
+                if (failure != null) {
+                    errors.get(scenario).increment();
+                } else if (response.statusCode() == 429 || response.statusCode() == 503) {
+                    rejected.get(scenario).increment();
+                } else if (response.statusCode() != scenario.expectedStatus()) {
+                    errors.get(scenario).increment();
+                }
+                inFlight.decrementAndGet();
+            });
+    }
+
+    private HttpRequest request(Scenario scenario) {
+        int user = ThreadLocalRandom.current().nextInt(config.users());
+        return switch (scenario) {
+            case SIGNUP -> {
+                long id = signupSequence.incrementAndGet();
+                yield post("/api/auth/signup", signupJson("lt" + runId + "_" + id));
+            }
+            case LOGIN_HIT -> post("/api/auth/login", loginJson(seedLoginId(user), PASSWORD));
+            case LOGIN_MISS -> post("/api/auth/login", loginJson("missing" + ThreadLocalRandom.current().nextLong(1L << 40), PASSWORD));
+            case LOGIN_WRONG -> post("/api/auth/login", loginJson(seedLoginId(user), "wrong-password"));
+            case HEALTH -> HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/health"))
+                .timeout(Duration.ofSeconds(60)).GET().build();
+        };
+    }
+
+    /**
+     * 內建應用：註冊管理員帳號（密碼與壓測用戶相同）
+     */
+    private void registerEmbeddedAdmin() throws IOException, InterruptedException {
+        HttpResponse<String> response = httpClient.send(post("/api/auth/signup", signupJson(config.adminLoginId())),
+            HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 201) {
+            throw new IllegalStateException("註冊壓測管理員失敗: " + response.statusCode() + " " + response.body());
+        }
+        adminPassword = PASSWORD;
+    }
+
+    private String adminToken() throws IOException, InterruptedException {
+        if (adminPassword.isEmpty()) {
+            throw new IllegalArgumentException("壓測既有服務時需指定 adminPassword（批次註冊限管理員）");
+        }
+        HttpResponse<String> response = httpClient.send(post("/api/auth/login", loginJson(config.adminLoginId(), adminPassword)),
+            HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("管理員登入失敗: " + response.statusCode() + " " + response.body());
+        }
+        return OBJECT_MAPPER.readTree(response.body()).path("data").path("accessToken").asText();
+    }
+
+    /**
+     * 依伺服器的批次上限分批預建登入用戶（批次註冊需管理員權杖）
+     */
+    private void seedUsers() throws IOException, InterruptedException {
+        String token = adminToken();
+        for (int from = 0; from < config.users(); from += SEED_BATCH_SIZE) {
+            int to = Math.min(from + SEED_BATCH_SIZE, config.users());
+            StringBuilder body = new StringBuilder("[");
+            for (int i = from; i < to; i++) {
+                if (i > from) {
+                    body.append(',');
+                }
+                body.append(signupJson(seedLoginId(i)));
+            }
+            body.append(']');
+            HttpRequest request = HttpRequest.newBuilder(post("/api/auth/signup/batch", body.toString()), (name, value) -> true)
+                .header("Authorization", "Bearer " + token)
+                .build();
+            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("預建用戶失敗: " + response.statusCode() + " " + response.body());
+            }
+        }
+        System.out.printf("已預建 %d 個登入用戶%n", config.users());
+    }
+
+    private String seedLoginId(int index) {
+        return "seed" + runId + "_" + index;
+    }
+
+    private Scenario pickScenario() {
+        return weightedScenarios[ThreadLocalRandom.current().nextInt(weightedScenarios.length)];
+    }
+
+    private HttpRequest post(String path, String json) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+            .timeout(Duration.ofSeconds(60))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(json))
+            .build();
+    }
+
+    private static String signupJson(String loginId) {
+        return "{\"username\":\"u_" + loginId + "\",\"loginId\":\"" + loginId + "\",\"password\":\"" + PASSWORD + "\"}";
+    }
+
+    private static String loginJson(String loginId, String password) {
+        return "{\"loginId\":\"" + loginId + "\",\"password\":\"" + password + "\"}";
+    }
+
+    private synchronized void collectInterval(HistogramLogWriter logWriter, boolean measuring) {
+        for (Scenario scenario : Scenario.values()) {
+            Histogram interval = recorders.get(scenario).getIntervalHistogram();
+            if (!measuring || interval.getTotalCount() == 0) {
+                continue;
+            }
+            interval.setTag(scenario.label());
+            logWriter.outputIntervalHistogram(interval);
+            totals.get(scenario).add(interval);
+        }
+    }
+
+    private void writeSummary() throws IOException {
+        double seconds = config.duration().toMillis() / 1000.0;
+        Histogram all = new Histogram(HIGHEST_TRACKABLE_NANOS, 3);
+        StringBuilder csv = new StringBuilder("scenario,count,throughput_per_sec,errors,rejected,dropped,p50_ms,p90_ms,p99_ms,p999_ms,max_ms\n");
+        System.out.printf("%n%-11s %9s %10s %7s %8s %8s %9s %9s %9s %9s %9s%n",
+            "scenario", "count", "req/s", "errors", "rejected", "dropped", "p50(ms)", "p90(ms)", "p99(ms)", "p99.9(ms)", "max(ms)");
+        for (Scenario scenario : Scenario.values()) {
+            Histogram histogram = totals.get(scenario);
+            if (histogram.getTotalCount() == 0 && errors.get(scenario).sum() == 0 && dropped.get(scenario).sum() == 0) {
+                continue;
+            }
+            all.add(histogram);
+            appendRow(csv, scenario.label(), histogram, seconds, errors.get(scenario).sum(), rejected.get(scenario).sum(),
+                dropped.get(scenario).sum());
+        }
+        long totalErrors = errors.values().stream().mapToLong(LongAdder::sum).sum();
+        long totalRejected = rejected.values().stream().mapToLong(LongAdder::sum).sum();
+        long totalDropped = dropped.values().stream().mapToLong(LongAdder::sum).sum();
+        appendRow(csv, "all", all, seconds, totalErrors, totalRejected, totalDropped);
+        Files.writeString(config.output().resolve("summary.csv"), csv);
+        if (totalDropped > 0) {
+            System.out.printf("%n警告: %d 個請求因超過 maxInFlight 未送出，延遲分位數不含這些請求而會低估；請提高 maxInFlight 或降低 rate%n",
+                totalDropped);
+        }
+        System.out.printf("%n結果: %s%n", config.output().toAbsolutePath());
+    }
+
+    private static void appendRow(StringBuilder csv, String label, Histogram histogram, double seconds,
+                                  long errorCount, long rejectedCount, long droppedCount) {
+        double throughput = histogram.getTotalCount() / seconds;
+        double p50 = millis(histogram.getValueAtPercentile(50));
+        double p90 = millis(histogram.getValueAtPercentile(90));
+        double p99 = millis(histogram.getValueAtPercentile(99));
+        double p999 = millis(histogram.getValueAtPercentile(99.9));
+        double max = millis(histogram.getMaxValue());
+        System.out.printf("%-11s %9d %10.1f %7d %8d %8d %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+            label, histogram.getTotalCount(), throughput, errorCount, rejectedCount, droppedCount, p50, p90, p99, p999, max);
+        csv.append(String.format("%s,%d,%.1f,%d,%d,%d,%.3f,%.3f,%.3f,%.3f,%.3f%n",
+            label, histogram.getTotalCount(), throughput, errorCount, rejectedCount, droppedCount, p50, p90, p99, p999, max));
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.springboot_mysql_login_ci_sonar.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 壓測參數，以 key=value 形式傳入
+ * <pre>
+ * rate=200             每秒請求數（所有情境合計）
+ * duration=60s         量測時間
+ * warmup=10s           暖機時間（不列入結果）
+ * arrival=poisson      到達模型：poisson（指數分佈間隔）或 constant（固定間隔）
+ * mix=signup:1,loginHit:6,loginMiss:2,loginWrong:1,health:2
+ * users=200            預先建立、供登入使用的用戶數
+ * maxInFlight=20000    同時未完成請求上限，超過即記為丟棄
+ * baseUrl=             指定既有服務位址；留空則以 H2 test profile 啟動應用程式
+ * adminLoginId=loadtest_admin  預建用戶（批次註冊限管理員）使用的管理員登入 ID
+ * adminPassword=       壓測既有服務時必填；內建應用自動註冊此管理員
+ * output=target/loadtest
+ * </pre>
+ */
+record LoadTestConfig(
+    int rate,
+    Duration duration,
+    Duration warmup,
+    boolean poisson,
+    Map<Scenario, Integer> mix,
+    int users,
+    int maxInFlight,
+    String baseUrl,
+    String adminLoginId,
+    String adminPassword,
+    Path output
+) {
+
+    static LoadTestConfig parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (eq <= 0) {
+                throw new IllegalArgumentException("參數格式應為 key=value: " + arg);
+            }
+            values.put(arg.substring(0, eq), arg.substring(eq + 1));
+        }
+        return new LoadTestConfig(
+            Integer.parseInt(values.getOrDefault("rate", "200")),
+            parseDuration(values.getOrDefault("duration", "60s")),
+            parseDuration(values.getOrDefault("warmup", "10s")),
+            !"constant".equals(values.getOrDefault("arrival", "poisson")),
+            parseMix(values.getOrDefault("mix", "signup:1,loginHit:6,loginMiss:2,loginWrong:1,health:2")),
+            Integer.parseInt(values.getOrDefault("users", "200")),
+            Integer.parseInt(values.getOrDefault("maxInFlight", "20000")),
+            values.getOrDefault("baseUrl", ""),
+            values.getOrDefault("adminLoginId", "loadtest_admin"),
+            values.getOrDefault("adminPassword", ""),
+            Path.of(values.getOrDefault("output", "target/loadtest"))
+        );
+    }
+
+    private static Duration parseDuration(String value) {
+        return Duration.parse("PT" + value.toUpperCase());
+    }
+
+    private static Map<Scenario, Integer> parseMix(String value) {
+        Map<Scenario, Integer> mix = new EnumMap<>(Scenario.class);
+        for (String entry : value.split(",")) {
+            String[] parts = entry.split(":");
+            mix.put(Scenario.fromName(parts[0].trim()), Integer.parseInt(parts[1].trim()));
+        }
+        return mix;
+    }
+}
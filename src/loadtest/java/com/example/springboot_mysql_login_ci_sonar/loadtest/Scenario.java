@@ -0,0 +1,38 @@
+package com.example.springboot_mysql_login_ci_sonar.loadtest;
+
+/**
+ * 壓測情境與預期的 HTTP 狀態碼
+ */
+enum Scenario {
+
+    SIGNUP("signup", 201),
+    LOGIN_HIT("loginHit", 200),
+    LOGIN_MISS("loginMiss", 401),
+    LOGIN_WRONG("loginWrong", 401),
+    HEALTH("health", 200);
+
+    private final String label;
+    private final int expectedStatus;
+
+    Scenario(String label, int expectedStatus) {
+        this.label = label;
+        this.expectedStatus = expectedStatus;
+    }
+
+    String label() {
+        return label;
+    }
+
+    int expectedStatus() {
+        return expectedStatus;
+    }
+
+    static Scenario fromName(String name) {
+        for (Scenario scenario : values()) {
+            if (scenario.label.equalsIgnoreCase(name)) {
+                return scenario;
+            }
+        }
+        throw new IllegalArgumentException("未知的壓測情境: " + name);
+    }
+}
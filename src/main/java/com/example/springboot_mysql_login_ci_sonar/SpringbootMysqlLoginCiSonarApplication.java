@@ -2,8 +2,14 @@ package com.example.springboot_mysql_login_ci_sonar;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
-@SpringBootApplication
+// reactive profile 建置時 classpath 含 R2DBC，ConnectionFactory 存在會讓 DataSource 自動配置退讓
+@SpringBootApplication(exclude = R2dbcAutoConfiguration.class)
+@ConfigurationPropertiesScan
+@EnableScheduling
 public class SpringbootMysqlLoginCiSonarApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,46 @@
+package com.example.springboot_mysql_login_ci_sonar.config;
+
+import com.example.springboot_mysql_login_ci_sonar.service.AccessTokenService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 以 Authorization: Bearer 權杖認證請求
+ * 權杖無效時不中斷請求，交由授權規則決定是否回應 401；登入 ID 列於 adminLoginIds 時授予 ROLE_ADMIN
+ */
+@RequiredArgsConstructor
+class AccessTokenFilter extends OncePerRequestFilter {
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private static final List<GrantedAuthority> ADMIN = List.of(new SimpleGrantedAuthority("ROLE_ADMIN"));
+
+    private final AccessTokenService accessTokenService;
+    private final Set<String> adminLoginIds;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (header != null && header.regionMatches(true, 0, BEARER_PREFIX, 0, BEARER_PREFIX.length())) {
+            accessTokenService.verify(header.substring(BEARER_PREFIX.length()).trim())
+                .ifPresent(claims -> SecurityContextHolder.getContext().setAuthentication(
+                    UsernamePasswordAuthenticationToken.authenticated(claims, null,
+                        adminLoginIds.contains(claims.loginId()) ? ADMIN : List.of())));
+        }
+        filterChain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,202 @@
+package com.example.springboot_mysql_login_ci_sonar.config;
+
+import com.zaxxer.hikari.HikariConfigMXBean;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hikari 連線池自動調整
+ * 依 Little's law 估計平均同時使用的連線數：間隔內連線被借用的總時間（hikaricp.connections.usage）÷ 間隔長度，
+ * 再加上等待連線的執行緒數並乘上 headroom 作為目標 maximumPoolSize，minimumIdle 跟隨平均使用量。
+ * 需求上升時立即放大；連續 shrinkAfter 個間隔低於目前大小才逐步縮小，避免來回調整。
+ */
+@Component
+@ConditionalOnProperty(prefix = "auth.pool-sizing", name = "enabled", havingValue = "true")
+@Slf4j
+public class AdaptivePoolSizer implements DisposableBean {
+
+    private final ObjectProvider<HikariDataSource> dataSources;
+    private final PoolSizingProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final ScheduledExecutorService scheduler;
+    private final List<PoolController> controllers = new ArrayList<>();
+
+    public AdaptivePoolSizer(ObjectProvider<HikariDataSource> dataSources, PoolSizingProperties properties,
+                             MeterRegistry meterRegistry) {
+        if (properties.getMinSize() < 1 || properties.getMaxSize() < properties.getMinSize()) {
+            throw new IllegalStateException("auth.pool-sizing.min-size / max-size 設定錯誤");
+        }
+        this.dataSources = dataSources;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "pool-sizer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 連線池於第一次取得連線時才啟動，等應用程式就緒後再開始調整
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        dataSources.orderedStream().forEach(dataSource -> {
+            if (dataSource.getHikariPoolMXBean() == null) {
+                log.warn("連線池尚未啟動，不自動調整: pool={}", dataSource.getPoolName());
+                return;
+            }
+            controllers.add(new PoolController(dataSource.getPoolName(), dataSource.getHikariPoolMXBean(),
+                dataSource.getHikariConfigMXBean(), properties, meterRegistry, System.nanoTime()));
+        });
+        long interval = properties.getInterval().toMillis();
+        scheduler.scheduleWithFixedDelay(this::adjustAll, interval, interval, TimeUnit.MILLISECONDS);
+        log.info("連線池自動調整已啟用: pools={}, size={}-{}", controllers.size(), properties.getMinSize(), properties.getMaxSize());
+    }
+
+    private void adjustAll() {
+        for (PoolController controller : controllers) {
+            try {
+                controller.adjust(System.nanoTime());
+            } catch (RuntimeException e) {
+                log.warn("連線池調整失敗: pool={}", controller.poolName, e);
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * 單一連線池的調整狀態
+     */
+    static final class PoolController {
+
+        private final String poolName;
+        private final HikariPoolMXBean pool;
+        private final HikariConfigMXBean config;
+        private final PoolSizingProperties properties;
+        private final MeterRegistry meterRegistry;
+        private final Counter grown;
+        private final Counter shrunk;
+        private Timer usage;
+        private long lastNanos;
+        private double lastUsageMillis;
+        private int belowTarget;
+        private volatile double demand;
+
+        PoolController(String poolName, HikariPoolMXBean pool, HikariConfigMXBean config,
+                       PoolSizingProperties properties, MeterRegistry meterRegistry, long startNanos) {
+            this.poolName = poolName;
+            this.pool = pool;
+            this.config = config;
+            this.properties = properties;
+            this.meterRegistry = meterRegistry;
+            this.grown = Counter.builder("auth.pool.resize")
+                .description("連線池自動調整次數")
+                .tags("pool", poolName, "direction", "up")
+                .register(meterRegistry);
+            this.shrunk = Counter.builder("auth.pool.resize")
+                .description("連線池自動調整次數")
+                .tags("pool", poolName, "direction", "down")
+                .register(meterRegistry);
+            Gauge.builder("auth.pool.demand", this, controller -> controller.demand)
+                .description("估計的平均同時使用連線數")
+                .tag("pool", poolName)
+                .register(meterRegistry);
+            Gauge.builder("auth.pool.target.max", config, HikariConfigMXBean::getMaximumPoolSize)
+                .description("目前的 maximumPoolSize")
+                .tag("pool", poolName)
+                .register(meterRegistry);
+            Gauge.builder("auth.pool.target.min.idle", config, HikariConfigMXBean::getMinimumIdle)
+                .description("目前的 minimumIdle")
+                .tag("pool", poolName)
+                .register(meterRegistry);
+            this.lastNanos = startNanos;
+            this.lastUsageMillis = usageMillis();
+        }
+
+        /**
+         * 取樣並調整一次
+         * @param nowNanos 目前時間（System.nanoTime）
+         */
+        void adjust(long nowNanos) {
+            double elapsedMillis = (nowNanos - lastNanos) / 1_000_000.0;
+            double usageMillis = usageMillis();
+            int active = pool.getActiveConnections();
+            int pending = pool.getThreadsAwaitingConnection();
+            // Little's law：平均同時使用數 = 間隔內總使用時間 ÷ 間隔；取樣當下的使用中連線數作為下限
+            double busy = elapsedMillis > 0 && !Double.isNaN(usageMillis) && !Double.isNaN(lastUsageMillis)
+                ? (usageMillis - lastUsageMillis) / elapsedMillis : 0;
+            demand = Math.max(busy, active);
+            lastNanos = nowNanos;
+            lastUsageMillis = usageMillis;
+
+            int current = config.getMaximumPoolSize();
+            int target = clamp((int) Math.ceil((demand + pending) * properties.getHeadroom()),
+                properties.getMinSize(), properties.getMaxSize());
+            int next = current;
+            if (target > current) {
+                next = target;
+                belowTarget = 0;
+            } else if (target < current) {
+                if (++belowTarget >= properties.getShrinkAfter()) {
+                    next = Math.max(target, current - properties.getShrinkStep());
+                    belowTarget = 0;
+                }
+            } else {
+                belowTarget = 0;
+            }
+
+            int minIdle = clamp((int) Math.ceil(demand), properties.getMinIdle(), next);
+            if (next > current) {
+                // 先放大上限再調整 minimumIdle，維持 minimumIdle <= maximumPoolSize
+                config.setMaximumPoolSize(next);
+                config.setMinimumIdle(minIdle);
+                grown.increment();
+                log.info("連線池放大: pool={}, {} -> {}, demand={}, pending={}", poolName, current, next,
+                    String.format("%.1f", demand), pending);
+            } else if (next < current) {
+                config.setMinimumIdle(minIdle);
+                config.setMaximumPoolSize(next);
+                shrunk.increment();
+                log.info("連線池縮小: pool={}, {} -> {}, demand={}", poolName, current, next, String.format("%.1f", demand));
+            } else if (minIdle != config.getMinimumIdle()) {
+                config.setMinimumIdle(minIdle);
+            }
+        }
+
+        /**
+         * Hikari 的連線使用時間累計（毫秒）；由 Spring Boot 綁定 Micrometer 後才存在
+         */
+        private double usageMillis() {
+            if (usage == null) {
+                usage = meterRegistry.find("hikaricp.connections.usage").tag("pool", poolName).timer();
+            }
+            return usage == null ? Double.NaN : usage.totalTime(TimeUnit.MILLISECONDS);
+        }
+
+        private static int clamp(int value, int min, int max) {
+            return Math.max(min, Math.min(max, value));
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.springboot_mysql_login_ci_sonar.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 認證事件日誌配置
+ */
+@Data
+@ConfigurationProperties(prefix = "auth.logging")
+public class AuthLogProperties {
+
+    /**
+     * 是否輸出認證事件（logger 名稱 auth.events）
+     */
+    private boolean enabled = true;
+
+    /**
+     * 成功事件的取樣比例（0–1），失敗事件一律輸出
+     */
+    private double successSampleRate = 1.0;
+
+    /**
+     * 是否由背景執行緒寫出，避免請求執行緒等待 appender
+     */
+    private boolean async = true;
+
+    /**
+     * 非同步佇列容量，已滿時丟棄並計入 auth.log.dropped
+     */
+    private int queueCapacity = 8192;
+}
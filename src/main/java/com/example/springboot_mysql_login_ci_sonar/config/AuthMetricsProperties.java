@@ -0,0 +1,17 @@
+package com.example.springboot_mysql_login_ci_sonar.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 認證各階段耗時指標配置
+ */
+@Data
+@ConfigurationProperties(prefix = "auth.metrics")
+public class AuthMetricsProperties {
+
+    /**
+     * 是否在認證 API 回應加上 Server-Timing 標頭（會對外揭露內部耗時，預設關閉）
+     */
+    private boolean serverTiming = false;
+}
@@ -0,0 +1,49 @@
+package com.example.springboot_mysql_login_ci_sonar.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+/**
+ * BCrypt 成本校準
+ * 由下限開始逐級量測驗證時間，取不超過目標時間的最高成本
+ */
+@Slf4j
+final class BCryptCostCalibrator {
+
+    private static final String SAMPLE_PASSWORD = "calibration-password";
+
+    private BCryptCostCalibrator() {
+    }
+
+    static int calibrate(PasswordProperties properties) {
+        if (properties.getStrength() > 0) {
+            return properties.getStrength();
+        }
+        long targetNanos = properties.getTargetVerifyTime().toNanos();
+        int chosen = properties.getMinStrength();
+        for (int strength = properties.getMinStrength(); strength <= properties.getMaxStrength(); strength++) {
+            long elapsed = measure(strength);
+            log.info("BCrypt 成本校準: strength={}, verify={}ms", strength, elapsed / 1_000_000);
+            if (elapsed > targetNanos) {
+                break;
+            }
+            chosen = strength;
+            // 成本每加 1 時間約加倍，下一級確定超標就不必再量測
+            if (elapsed * 2 > targetNanos) {
+                break;
+            }
+        }
+        log.info("BCrypt 成本校準完成: strength={}, target={}ms", chosen, properties.getTargetVerifyTime().toMillis());
+        return chosen;
+    }
+
+    private static long measure(int strength) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(strength);
+        String encoded = encoder.encode(SAMPLE_PASSWORD);
+        // 先暖機一次，取第二次的時間
+        encoder.matches(SAMPLE_PASSWORD, encoded);
+        long start = System.nanoTime();
+        encoder.matches(SAMPLE_PASSWORD, encoded);
+        return System.nanoTime() - start;
+    }
+}
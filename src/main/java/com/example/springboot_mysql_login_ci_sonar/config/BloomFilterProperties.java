@@ -0,0 +1,40 @@
+package com.example.springboot_mysql_login_ci_sonar.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * 用戶存在性 Bloom filter 配置
+ */
+@Data
+@ConfigurationProperties(prefix = "auth.bloom-filter")
+public class BloomFilterProperties {
+
+    /**
+     * 是否啟用；停用時所有查詢都視為「可能存在」。
+     * 其他實例新增的用戶在重建前會被判定不存在，只適合單一實例寫入 users 表的部署
+     */
+    private boolean enabled = false;
+
+    /**
+     * 預期鍵數量，實際用戶數超過時重建會自動放大
+     */
+    private long expectedInsertions = 1_000_000;
+
+    /**
+     * 目標誤判率
+     */
+    private double falsePositiveRate = 0.01;
+
+    /**
+     * 重建間隔，用來吸收其他來源寫入、未經本實例 add() 的用戶；每次重建都會全表掃描 users，不宜過短
+     */
+    private Duration rebuildInterval = Duration.ofHours(6);
+
+    /**
+     * 建立時每次讀取的筆數
+     */
+    private int loadPageSize = 10_000;
+}
@@ -0,0 +1,98 @@
+package com.example.springboot_mysql_login_ci_sonar.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 快取的資料庫健康檢查（取代預設的 db 健康檢查）
+ * 由背景執行緒定期取得連線並驗證，探測請求只讀取最近一次的結果與其經過時間，不會佔用連線池。
+ * 使用獨立執行緒而非共用的 @Scheduled 排程，避免被 Bloom filter 重建等長時間工作延遲。
+ */
+@Component("dbHealthIndicator")
+@Slf4j
+public class CachedDbHealthIndicator implements HealthIndicator, DisposableBean {
+
+    private final DataSource dataSource;
+    private final Duration staleThreshold;
+    private final int validationTimeoutSeconds;
+    private final Clock clock;
+    private final ScheduledExecutorService checker;
+    private volatile Result last;
+
+    @Autowired
+    public CachedDbHealthIndicator(DataSource dataSource, DbHealthProperties properties) {
+        this(dataSource, properties, Clock.systemUTC());
+    }
+
+    CachedDbHealthIndicator(DataSource dataSource, DbHealthProperties properties, Clock clock) {
+        this.dataSource = dataSource;
+        this.staleThreshold = properties.getStaleThreshold();
+        this.validationTimeoutSeconds = (int) Math.max(1, properties.getValidationTimeout().toSeconds());
+        this.clock = clock;
+        // 啟動時先同步檢查一次，避免 readiness 在第一次檢查前沒有結果
+        refresh();
+        this.checker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "db-health-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = properties.getRefreshInterval().toMillis();
+        checker.scheduleWithFixedDelay(this::refresh, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 取得連線並驗證，更新快取的結果
+     */
+    void refresh() {
+        long start = System.nanoTime();
+        Health health;
+        try (Connection connection = dataSource.getConnection()) {
+            health = connection.isValid(validationTimeoutSeconds)
+                ? Health.up().withDetail("database", connection.getMetaData().getDatabaseProductName()).build()
+                : Health.down().withDetail("error", "連線驗證失敗").build();
+        } catch (SQLException | RuntimeException e) {
+            health = Health.down().withDetail("error", e.getClass().getSimpleName() + ": " + e.getMessage()).build();
+        }
+        Result previous = last;
+        if (previous != null && !previous.health().getStatus().equals(health.getStatus())) {
+            log.warn("資料庫健康狀態變更: {} -> {}", previous.health().getStatus(), health.getStatus());
+        }
+        last = new Result(health, clock.instant(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @Override
+    public Health health() {
+        Result result = last;
+        Duration age = Duration.between(result.checkedAt(), clock.instant());
+        Health.Builder health = age.compareTo(staleThreshold) > 0
+            ? Health.down().withDetail("error", "健康檢查結果已過期")
+            : Health.status(result.health().getStatus()).withDetails(result.health().getDetails());
+        return health
+            .withDetail("checkedAt", result.checkedAt().toString())
+            .withDetail("ageMillis", age.toMillis())
+            .withDetail("validationMillis", result.validationMillis())
+            .build();
+    }
+
+    @Override
+    public void destroy() {
+        checker.shutdownNow();
+    }
+
+    private record Result(Health health, Instant checkedAt, long validationMillis) {
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.springboot_mysql_login_ci_sonar.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * 已驗證憑證快取配置
+ */
+@Data
+@ConfigurationProperties(prefix = "auth.credential-cache")
+public class CredentialCacheProperties {
+
+    /**
+     * 是否啟用（預設關閉，啟用後記憶體中會保留憑證的 HMAC）
+     */
+    private boolean enabled = false;
+
+    /**
+     * 最大筆數
+     */
+    private long maximumSize = 50_000;
+
+    /**
+     * 驗證結果的存活時間
+     */
+    private Duration ttl = Duration.ofMinutes(5);
+}
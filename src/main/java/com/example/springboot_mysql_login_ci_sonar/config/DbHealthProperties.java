@@ -0,0 +1,29 @@
+package com.example.springboot_mysql_login_ci_sonar.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * 資料庫健康檢查配置
+ */
+@Data
+@ConfigurationProperties(prefix = "auth.health.db")
+public class DbHealthProperties {
+
+    /**
+     * 背景檢查間隔
+     */
+    private Duration refreshInterval = Duration.ofSeconds(10);
+
+    /**
+     * 檢查結果超過此時間未更新即回報 DOWN（背景檢查卡住，例如連線池耗盡）
+     */
+    private Duration staleThreshold = Duration.ofSeconds(30);
+
+    /**
+     * 連線驗證逾時
+     */
+    private Duration validationTimeout = Duration.ofSeconds(2);
+}
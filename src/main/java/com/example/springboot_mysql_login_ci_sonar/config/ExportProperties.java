@@ -0,0 +1,17 @@
+package com.example.springboot_mysql_login_ci_sonar.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 用戶匯出配置
+ */
+@Data
+@ConfigurationProperties(prefix = "auth.export")
+public class ExportProperties {
+
+    /**
+     * 每次 keyset 查詢的筆數，也是寫出後 flush 的間隔
+     */
+    private int pageSize = 1_000;
+}
@@ -0,0 +1,38 @@
+package com.example.springboot_mysql_login_ci_sonar.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * 密碼雜湊執行緒池配置
+ */
+@Data
+@ConfigurationProperties(prefix = "auth.hashing")
+public class HashingProperties {
+
+    /**
+     * 執行緒數量，0 代表使用 CPU 核心數
+     */
+    private int poolSize = 0;
+
+    /**
+     * 等待佇列容量，佇列滿時直接拒絕
+     */
+    private int queueCapacity = 64;
+
+    /**
+     * 單次雜湊工作最長等待時間（含排隊時間）
+     */
+    private Duration maxWait = Duration.ofSeconds(2);
+
+    /**
+     * 過載時回傳給客戶端的 Retry-After
+     */
+    private Duration retryAfter = Duration.ofSeconds(1);
+
+    public int resolvedPoolSize() {
+        return poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.springboot_mysql_login_ci_sonar.config;
+
+import com.example.springboot_mysql_login_ci_sonar.service.UserFileFormat;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * 用戶批量匯入配置
+ */
+@Data
+@ConfigurationProperties(prefix = "auth.import")
+public class ImportProperties {
+
+    /**
+     * 匯入檔案；設定後於啟動時執行匯入
+     */
+    private Path file;
+
+    /**
+     * 檔案格式，未設定時依副檔名判斷
+     */
+    private UserFileFormat format;
+
+    /**
+     * 斷點檔，未設定時為 {@code <file>.checkpoint}
+     */
+    private Path checkpointFile;
+
+    /**
+     * 失敗資料輸出檔，未設定時為 {@code <file>.errors.csv}
+     */
+    private Path errorFile;
+
+    /**
+     * 每批筆數（一次重複檢查、一次交易寫入、一次斷點）
+     */
+    private int batchSize = 1_000;
+
+    /**
+     * 雜湊平行度，0 表示 CPU 核心數
+     */
+    private int parallelism = 0;
+
+    /**
+     * 讀取與寫入之間最多排隊的批次數，超過時暫停讀取
+     */
+    private int maxPendingBatches = 4;
+
+    /**
+     * 進度日誌間隔
+     */
+    private Duration progressInterval = Duration.ofSeconds(10);
+
+    /**
+     * 匯入完成後是否結束應用程式
+     */
+    private boolean exitOnCompletion = true;
+}
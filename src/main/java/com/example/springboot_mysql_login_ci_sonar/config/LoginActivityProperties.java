@@ -0,0 +1,59 @@
+package com.example.springboot_mysql_login_ci_sonar.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * 登入活動記錄配置
+ */
+@Data
+@ConfigurationProperties(prefix = "auth.login-activity")
+public class LoginActivityProperties {
+
+    /**
+     * 是否記錄最後登入時間、連續失敗次數與登入歷史
+     */
+    private boolean enabled = true;
+
+    /**
+     * 環形緩衝區容量（進位為 2 的次方）
+     */
+    private int bufferSize = 16_384;
+
+    /**
+     * 累積到此筆數即寫入一批
+     */
+    private int batchSize = 500;
+
+    /**
+     * 最早一筆未寫入事件的最長等待時間，到期即寫入
+     */
+    private Duration flushInterval = Duration.ofSeconds(1);
+
+    /**
+     * 寫入資料庫失敗時的處理方式（緩衝區已滿一律丟棄）
+     */
+    private OverflowPolicy overflowPolicy = OverflowPolicy.SPILL;
+
+    /**
+     * SPILL 時的溢出檔，背景執行緒空閒時重新寫入資料庫
+     * 預設放在系統暫存目錄下；正式環境應指向掛載的持久化目錄，否則重啟後未重寫的事件會遺失
+     */
+    private Path overflowFile = Path.of(System.getProperty("java.io.tmpdir"), "login-activity", "overflow.csv");
+
+    /**
+     * 溢出檔大小上限，超過時丟棄並計數
+     */
+    private DataSize overflowMaxSize = DataSize.ofMegabytes(64);
+
+    public enum OverflowPolicy {
+        /** 附加到本機溢出檔，之後重新寫入 */
+        SPILL,
+        /** 直接丟棄並計數 */
+        DROP
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.springboot_mysql_login_ci_sonar.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 相同登入請求合併配置
+ */
+@Data
+@ConfigurationProperties(prefix = "auth.login-coalescing")
+public class LoginCoalescingProperties {
+
+    /**
+     * 是否啟用
+     */
+    private boolean enabled = true;
+
+    /**
+     * 同時進行中的不同憑證上限，超過時新的登入不合併、各自驗證
+     */
+    private int maxInFlight = 10_000;
+}
@@ -0,0 +1,26 @@
+package com.example.springboot_mysql_login_ci_sonar.config;
+
+import org.springframework.boot.web.context.WebServerInitializedEvent;
+import org.springframework.context.ApplicationListener;
+
+/**
+ * 記錄獨立管理埠（management.server.port）實際監聽的埠號，供安全規則判斷請求是否來自內部管理埠
+ * 管理埠與應用程式埠相同時不會有 management 命名空間的伺服器，matches 一律回傳 false
+ */
+public class ManagementPort implements ApplicationListener<WebServerInitializedEvent> {
+
+    private static final String MANAGEMENT_NAMESPACE = "management";
+
+    private volatile int port = -1;
+
+    @Override
+    public void onApplicationEvent(WebServerInitializedEvent event) {
+        if (MANAGEMENT_NAMESPACE.equals(event.getApplicationContext().getServerNamespace())) {
+            port = event.getWebServer().getPort();
+        }
+    }
+
+    public boolean matches(int localPort) {
+        return port > 0 && port == localPort;
+    }
+}
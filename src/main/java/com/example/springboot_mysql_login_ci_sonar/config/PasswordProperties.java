@@ -0,0 +1,39 @@
+package com.example.springboot_mysql_login_ci_sonar.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * 密碼雜湊成本配置
+ */
+@Data
+@ConfigurationProperties(prefix = "auth.password")
+public class PasswordProperties {
+
+    /**
+     * 固定的 BCrypt 成本；0 代表啟動時依 targetVerifyTime 校準
+     */
+    private int strength = 0;
+
+    /**
+     * 校準目標：單次驗證時間不超過此值
+     */
+    private Duration targetVerifyTime = Duration.ofMillis(100);
+
+    /**
+     * 校準下限（BCrypt 預設為 10）
+     */
+    private int minStrength = 10;
+
+    /**
+     * 校準上限
+     */
+    private int maxStrength = 14;
+
+    /**
+     * 登入成功後是否在背景將過時的雜湊升級
+     */
+    private boolean rehashOnLogin = true;
+}
@@ -0,0 +1,54 @@
+package com.example.springboot_mysql_login_ci_sonar.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * 連線池自動調整配置
+ */
+@Data
+@ConfigurationProperties(prefix = "auth.pool-sizing")
+public class PoolSizingProperties {
+
+    /**
+     * 是否依負載自動調整 Hikari 連線池大小
+     */
+    private boolean enabled = false;
+
+    /**
+     * 取樣與調整間隔
+     */
+    private Duration interval = Duration.ofSeconds(5);
+
+    /**
+     * maximumPoolSize 下限
+     */
+    private int minSize = 2;
+
+    /**
+     * maximumPoolSize 上限（所有實例合計不能超過 MySQL max_connections）
+     */
+    private int maxSize = 30;
+
+    /**
+     * minimumIdle 下限
+     */
+    private int minIdle = 1;
+
+    /**
+     * 目標大小 = (平均使用中連線數 + 等待中執行緒數) × headroom
+     */
+    private double headroom = 1.25;
+
+    /**
+     * 目標連續低於目前大小幾個間隔後才縮小（遲滯，避免來回調整）
+     */
+    private int shrinkAfter = 6;
+
+    /**
+     * 每次縮小的最大連線數
+     */
+    private int shrinkStep = 2;
+}
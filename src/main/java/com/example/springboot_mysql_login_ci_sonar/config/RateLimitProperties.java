@@ -0,0 +1,52 @@
+package com.example.springboot_mysql_login_ci_sonar.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * 登入限流配置
+ */
+@Data
+@ConfigurationProperties(prefix = "auth.rate-limit")
+public class RateLimitProperties {
+
+    /**
+     * 是否啟用
+     */
+    private boolean enabled = true;
+
+    /**
+     * 每個登入 ID 的限制（預設每 6 秒補 1 次，最多累積 10 次）
+     */
+    private Limit loginId = new Limit(10, Duration.ofSeconds(6));
+
+    /**
+     * 每個來源 IP 的限制（預設每 100ms 補 1 次，最多累積 100 次）
+     */
+    private Limit ip = new Limit(100, Duration.ofMillis(100));
+
+    /**
+     * 每種鍵最多追蹤的數量，超過時淘汰較少使用的鍵
+     */
+    private long maximumKeys = 1_000_000;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Limit {
+
+        /**
+         * 可連續嘗試的次數（桶容量）
+         */
+        private int capacity;
+
+        /**
+         * 每補回 1 次所需的時間
+         */
+        private Duration refillPeriod;
+    }
+}
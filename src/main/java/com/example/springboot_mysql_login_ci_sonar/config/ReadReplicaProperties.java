@@ -0,0 +1,68 @@
+package com.example.springboot_mysql_login_ci_sonar.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 讀取副本配置
+ */
+@Data
+@ConfigurationProperties(prefix = "auth.read-replica")
+public class ReadReplicaProperties {
+
+    /**
+     * 是否啟用；啟用後唯讀交易改由副本處理
+     */
+    private boolean enabled = false;
+
+    /**
+     * 副本連線
+     */
+    private List<Replica> replicas = new ArrayList<>();
+
+    /**
+     * 副本選擇方式
+     */
+    private Selection selection = Selection.ROUND_ROBIN;
+
+    /**
+     * 健康檢查間隔
+     */
+    private Duration checkInterval = Duration.ofSeconds(5);
+
+    /**
+     * 查詢副本延遲（秒）的 SQL，例如 {@code SHOW REPLICA STATUS} 或心跳表查詢；未設定時只檢查連線
+     */
+    private String lagQuery;
+
+    /**
+     * 可容許的最大延遲，超過時改由主庫處理
+     */
+    private Duration maxLag = Duration.ofSeconds(5);
+
+    /**
+     * 註冊後此時間內對同一登入 ID 的讀取固定走主庫
+     */
+    private Duration stickyAfterWrite = Duration.ofSeconds(5);
+
+    public enum Selection {
+        ROUND_ROBIN,
+        LEAST_CONNECTIONS
+    }
+
+    @Data
+    public static class Replica {
+
+        private String url;
+
+        private String username;
+
+        private String password;
+
+        private int maximumPoolSize = 10;
+    }
+}
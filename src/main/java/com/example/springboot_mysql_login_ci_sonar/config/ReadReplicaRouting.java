@@ -0,0 +1,41 @@
+package com.example.springboot_mysql_login_ci_sonar.config;
+
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.Supplier;
+
+/**
+ * 讀取副本路由判斷
+ * 唯讀交易（含 SUPPORTS 的唯讀範圍）預設走副本，可在區塊內強制改走主庫
+ */
+public final class ReadReplicaRouting {
+
+    private static final ThreadLocal<Integer> PRIMARY_DEPTH = ThreadLocal.withInitial(() -> 0);
+
+    private ReadReplicaRouting() {
+    }
+
+    /**
+     * 在區塊內的查詢一律走主庫（例如需要讀到剛寫入的資料時）
+     */
+    public static <T> T onPrimary(Supplier<T> body) {
+        PRIMARY_DEPTH.set(PRIMARY_DEPTH.get() + 1);
+        try {
+            return body.get();
+        } finally {
+            int depth = PRIMARY_DEPTH.get() - 1;
+            if (depth == 0) {
+                PRIMARY_DEPTH.remove();
+            } else {
+                PRIMARY_DEPTH.set(depth);
+            }
+        }
+    }
+
+    /**
+     * @return true 代表目前取得的連線應來自副本
+     */
+    static boolean shouldUseReplica() {
+        return TransactionSynchronizationManager.isCurrentTransactionReadOnly() && PRIMARY_DEPTH.get() == 0;
+    }
+}
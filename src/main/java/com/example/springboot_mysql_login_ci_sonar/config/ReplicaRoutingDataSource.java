@@ -0,0 +1,205 @@
+package com.example.springboot_mysql_login_ci_sonar.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 主庫 / 讀取副本路由 DataSource
+ * 唯讀範圍內的連線依設定以輪詢或最少連線數挑選健康的副本，其餘一律走主庫。
+ * 副本連線失敗、健康檢查失敗或延遲超過上限時，標記為不可用並改走主庫，直到下一次健康檢查恢復。
+ * 需包在 LazyConnectionDataSourceProxy 內，才能在交易的唯讀屬性設定後才決定路由。
+ */
+@Slf4j
+class ReplicaRoutingDataSource extends AbstractDataSource implements Closeable {
+
+    private static final String SECONDS_BEHIND_COLUMN = "Seconds_Behind_Source";
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final ReadReplicaProperties.Selection selection;
+    private final String lagQuery;
+    private final long maxLagSeconds;
+    private final AtomicInteger next = new AtomicInteger();
+    private final ScheduledExecutorService healthChecker;
+
+    ReplicaRoutingDataSource(DataSource primary, List<? extends DataSource> replicaDataSources, ReadReplicaProperties properties) {
+        this.primary = primary;
+        this.replicas = new ArrayList<>(replicaDataSources.size());
+        for (int i = 0; i < replicaDataSources.size(); i++) {
+            replicas.add(new Replica("replica-" + i, replicaDataSources.get(i)));
+        }
+        this.selection = properties.getSelection();
+        this.lagQuery = properties.getLagQuery();
+        this.maxLagSeconds = properties.getMaxLag().toSeconds();
+        this.healthChecker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-health-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Duration interval = properties.getCheckInterval();
+        healthChecker.scheduleWithFixedDelay(this::checkReplicas, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (ReadReplicaRouting.shouldUseReplica()) {
+            Replica replica = select();
+            if (replica != null) {
+                try {
+                    return replica.dataSource.getConnection();
+                } catch (SQLException e) {
+                    markDown(replica, e.getMessage());
+                }
+            }
+        }
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return getConnection();
+    }
+
+    /**
+     * @return 可用的副本；全部不可用時回傳 null
+     */
+    Replica select() {
+        int size = replicas.size();
+        if (selection == ReadReplicaProperties.Selection.LEAST_CONNECTIONS) {
+            Replica best = null;
+            int bestActive = Integer.MAX_VALUE;
+            for (Replica replica : replicas) {
+                int active = replica.activeConnections();
+                if (replica.healthy && active < bestActive) {
+                    best = replica;
+                    bestActive = active;
+                }
+            }
+            return best;
+        }
+        int start = Math.floorMod(next.getAndIncrement(), Math.max(size, 1));
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.healthy) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 檢查所有副本的連線與延遲
+     */
+    void checkReplicas() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.dataSource.getConnection()) {
+                String problem = lagQuery == null || lagQuery.isBlank()
+                    ? (connection.isValid(2) ? null : "連線無效")
+                    : checkLag(connection);
+                if (problem == null) {
+                    markUp(replica);
+                } else {
+                    markDown(replica, problem);
+                }
+            } catch (SQLException | RuntimeException e) {
+                markDown(replica, e.getMessage());
+            }
+        }
+    }
+
+    private String checkLag(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(lagQuery)) {
+            if (!resultSet.next()) {
+                return "未回傳延遲（複寫未啟動）";
+            }
+            long lag = hasColumn(resultSet, SECONDS_BEHIND_COLUMN)
+                ? resultSet.getLong(SECONDS_BEHIND_COLUMN) : resultSet.getLong(1);
+            if (resultSet.wasNull()) {
+                return "延遲未知（複寫中斷）";
+            }
+            return lag > maxLagSeconds ? "延遲 " + lag + " 秒超過上限 " + maxLagSeconds + " 秒" : null;
+        }
+    }
+
+    private static boolean hasColumn(ResultSet resultSet, String column) throws SQLException {
+        for (int i = 1; i <= resultSet.getMetaData().getColumnCount(); i++) {
+            if (column.equalsIgnoreCase(resultSet.getMetaData().getColumnLabel(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void markDown(Replica replica, String reason) {
+        if (replica.healthy) {
+            replica.healthy = false;
+            log.warn("讀取副本不可用，改由主庫處理: {} ({})", replica.name, reason);
+        }
+    }
+
+    private void markUp(Replica replica) {
+        if (!replica.healthy) {
+            replica.healthy = true;
+            log.info("讀取副本已恢復: {}", replica.name);
+        }
+    }
+
+    List<Replica> getReplicas() {
+        return replicas;
+    }
+
+    @Override
+    public void close() {
+        healthChecker.shutdownNow();
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof Closeable closeable) {
+                try {
+                    closeable.close();
+                } catch (Exception e) {
+                    log.warn("關閉讀取副本連線池失敗: {}", replica.name, e);
+                }
+            }
+        }
+    }
+
+    static final class Replica {
+
+        final String name;
+        final DataSource dataSource;
+        volatile boolean healthy = true;
+
+        Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+
+        int activeConnections() {
+            if (dataSource instanceof HikariDataSource hikari) {
+                HikariPoolMXBean pool = hikari.getHikariPoolMXBean();
+                return pool == null ? 0 : pool.getActiveConnections();
+            }
+            return 0;
+        }
+
+        boolean isHealthy() {
+            return healthy;
+        }
+    }
+}
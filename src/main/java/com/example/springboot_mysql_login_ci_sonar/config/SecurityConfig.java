@@ -1,32 +1,69 @@
 package com.example.springboot_mysql_login_ci_sonar.config;
 
+import com.example.springboot_mysql_login_ci_sonar.service.AccessTokenService;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.http.HttpStatus;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
+import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Spring Security 配置
  */
 @Configuration
 @EnableWebSecurity
+@EnableConfigurationProperties({PasswordProperties.class, TokenProperties.class})
 public class SecurityConfig {
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(PasswordProperties passwordProperties) {
+        return createPasswordEncoder(passwordProperties);
+    }
+
+    /**
+     * 委派式密碼編碼器：新雜湊以 {bcrypt} 前綴及校準後的成本產生，
+     * 無前綴的舊雜湊仍以 BCrypt 驗證，並可由 upgradeEncoding 判斷是否需要重新雜湊（reactive 模式共用）
+     */
+    public static PasswordEncoder createPasswordEncoder(PasswordProperties passwordProperties) {
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(BCryptCostCalibrator.calibrate(passwordProperties));
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder("bcrypt", Map.of("bcrypt", bcrypt));
+        encoder.setDefaultPasswordEncoderForMatches(bcrypt);
+        return encoder;
+    }
+
+    @Bean
+    public ManagementPort managementPort() {
+        return new ManagementPort();
     }
 
+    /**
+     * 無 session：受保護的請求以 Bearer 權杖認證，未認證時回應 401；用戶匯出與批次註冊限管理員，一般用戶回應 403
+     * 獨立管理埠只在內部網路開放，其上的 actuator 端點（含 prometheus）不需認證；公開埠上的 prometheus 需要認證
+     */
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain filterChain(HttpSecurity http, AccessTokenService accessTokenService,
+                                           TokenProperties tokenProperties, ManagementPort managementPort) throws Exception {
         http
             .csrf(AbstractHttpConfigurer::disable)
+            .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+            .exceptionHandling(exceptions -> exceptions.authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED)))
+            .addFilterBefore(new AccessTokenFilter(accessTokenService, Set.copyOf(tokenProperties.getAdminLoginIds())), UsernamePasswordAuthenticationFilter.class)
             .authorizeHttpRequests(authz -> authz
-                .requestMatchers("/api/auth/signup", "/api/auth/login", "/api/auth/health", "/actuator/health").permitAll()
+                .requestMatchers(request -> managementPort.matches(request.getLocalPort())).permitAll()
+                .requestMatchers("/api/auth/signup", "/api/auth/login", "/api/auth/health", "/actuator/health", "/actuator/health/**").permitAll()
+                .requestMatchers("/api/users/export", "/api/auth/signup/batch").hasRole("ADMIN")
                 .anyRequest().authenticated()
             );
 
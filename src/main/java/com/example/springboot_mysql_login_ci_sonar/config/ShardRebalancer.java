@@ -0,0 +1,244 @@
+package com.example.springboot_mysql_login_ci_sonar.config;
+
+import com.example.springboot_mysql_login_ci_sonar.repository.UsernameDirectory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 分片重新平衡
+ * 新增分片後逐一掃描各分片，將依目前分片數不屬於所在分片的用戶複製到目標分片，再自原分片刪除（保留原 ID）。
+ * 用戶的登入活動與登入歷史在同一步驟搬移：與用戶資料在目標分片的同一個交易中寫入，
+ * 目標分片已有該用戶的活動列（搬移期間依新分片數寫入）時合併；原分片的資料在另一個交易中一併刪除。
+ * 中途失敗可直接重新執行：目標分片已有相同 ID 的資料時只刪除原分片的資料。
+ * 執行期間其他實例需設定 auth.sharding.previous-shard-count，依登入 ID 查不到時改查舊分片。
+ * 另提供以各分片現有用戶補齊用戶名稱目錄，在既有 users 表上啟用分片時使用。
+ */
+@Slf4j
+public class ShardRebalancer {
+
+    private static final String SELECT_KEYS = "SELECT id, login_id FROM users WHERE id > ? ORDER BY id LIMIT ?";
+    private static final String SELECT_NAMES = "SELECT id, username, login_id FROM users WHERE id > ? ORDER BY id LIMIT ?";
+    private static final String SELECT_USER =
+        "SELECT id, username, login_id, password, created_at, updated_at, enabled FROM users WHERE id = ?";
+    private static final String INSERT_USER =
+        "INSERT INTO users (id, username, login_id, password, created_at, updated_at, enabled) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String SELECT_ACTIVITY =
+        "SELECT last_login_at, last_failed_at, failed_attempts FROM user_login_activity WHERE user_id = ?";
+    private static final String INSERT_ACTIVITY =
+        "INSERT INTO user_login_activity (user_id, last_login_at, last_failed_at, failed_attempts) VALUES (?, ?, ?, ?)";
+    private static final String UPDATE_ACTIVITY =
+        "UPDATE user_login_activity SET last_login_at = ?, last_failed_at = ?, failed_attempts = ? WHERE user_id = ?";
+    private static final String SELECT_HISTORY =
+        "SELECT success, reason, occurred_at FROM login_history WHERE user_id = ? ORDER BY id";
+    private static final String INSERT_HISTORY =
+        "INSERT INTO login_history (user_id, success, reason, occurred_at) VALUES (?, ?, ?, ?)";
+
+    private final List<JdbcTemplate> shards;
+    private final List<TransactionTemplate> transactions;
+    private final int batchSize;
+
+    ShardRebalancer(ShardRoutingDataSource routing, int batchSize) {
+        this.shards = new ArrayList<>(routing.size());
+        this.transactions = new ArrayList<>(routing.size());
+        for (int i = 0; i < routing.size(); i++) {
+            shards.add(new JdbcTemplate(routing.shard(i)));
+            transactions.add(new TransactionTemplate(new DataSourceTransactionManager(routing.shard(i))));
+        }
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * 搬移所有不在正確分片上的用戶
+     * @return 掃描、搬移及因衝突保留在原分片的筆數
+     */
+    public Result rebalance() {
+        long start = System.currentTimeMillis();
+        long scanned = 0;
+        long moved = 0;
+        long conflicts = 0;
+        for (int source = 0; source < shards.size(); source++) {
+            long afterId = 0;
+            List<Map<String, Object>> page;
+            do {
+                page = shards.get(source).queryForList(SELECT_KEYS, afterId, batchSize);
+                for (Map<String, Object> keys : page) {
+                    long id = ((Number) keys.get("id")).longValue();
+                    int target = ShardRouting.shardFor((String) keys.get("login_id"), shards.size());
+                    if (target != source) {
+                        if (move(id, source, target)) {
+                            moved++;
+                        } else {
+                            conflicts++;
+                        }
+                    }
+                    afterId = id;
+                }
+                scanned += page.size();
+            } while (page.size() == batchSize);
+            log.info("分片重新平衡: shard-{} 掃描完成，累計 scanned={}, moved={}, conflicts={}", source, scanned, moved, conflicts);
+        }
+        Result result = new Result(scanned, moved, conflicts, System.currentTimeMillis() - start);
+        log.info("分片重新平衡完成: shards={}, scanned={}, moved={}, conflicts={}, elapsed={}ms",
+            shards.size(), result.scanned(), result.moved(), result.conflicts(), result.elapsedMillis());
+        return result;
+    }
+
+    /**
+     * 將各分片現有用戶的用戶名稱補進目錄；已存在的項目不變更，可重複執行。
+     * 目錄只由註冊寫入，在既有 users 表上啟用分片時舊用戶不在目錄中：findByUsername 查不到，
+     * 其他分片的新用戶也能註冊相同的用戶名稱
+     * @return 掃描、新增及用戶名稱已屬於其他登入 ID 的筆數
+     */
+    public BackfillResult backfillDirectory(UsernameDirectory directory) {
+        long start = System.currentTimeMillis();
+        long scanned = 0;
+        long added = 0;
+        long conflicts = 0;
+        for (int source = 0; source < shards.size(); source++) {
+            long afterId = 0;
+            List<Map<String, Object>> page;
+            do {
+                page = shards.get(source).queryForList(SELECT_NAMES, afterId, batchSize);
+                if (page.isEmpty()) {
+                    break;
+                }
+                Map<String, String> entries = new LinkedHashMap<>();
+                for (Map<String, Object> row : page) {
+                    entries.put((String) row.get("username"), (String) row.get("login_id"));
+                }
+                Map<String, String> existing = directory.findLoginIds(entries.keySet());
+                Map<String, String> missing = new LinkedHashMap<>();
+                for (Map.Entry<String, String> entry : entries.entrySet()) {
+                    String owner = existing.get(entry.getKey());
+                    if (owner == null) {
+                        missing.put(entry.getKey(), entry.getValue());
+                    } else if (!owner.equals(entry.getValue())) {
+                        conflicts++;
+                        logConflict(entry.getKey(), entry.getValue(), owner, source);
+                    }
+                }
+                try {
+                    directory.reserveAll(missing);
+                    added += missing.size();
+                } catch (DuplicateKeyException e) {
+                    // 期間有同名的新註冊，逐筆補上
+                    for (Map.Entry<String, String> entry : missing.entrySet()) {
+                        if (directory.reserve(entry.getKey(), entry.getValue())) {
+                            added++;
+                            continue;
+                        }
+                        String owner = directory.findLoginId(entry.getKey()).orElse(null);
+                        if (entry.getValue().equals(owner)) {
+                            added++;
+                        } else {
+                            conflicts++;
+                            logConflict(entry.getKey(), entry.getValue(), owner, source);
+                        }
+                    }
+                }
+                scanned += page.size();
+                afterId = ((Number) page.get(page.size() - 1).get("id")).longValue();
+            } while (page.size() == batchSize);
+        }
+        BackfillResult result = new BackfillResult(scanned, added, conflicts, System.currentTimeMillis() - start);
+        log.info("用戶名稱目錄補齊完成: shards={}, scanned={}, added={}, conflicts={}, elapsed={}ms",
+            shards.size(), result.scanned(), result.added(), result.conflicts(), result.elapsedMillis());
+        return result;
+    }
+
+    private static void logConflict(String username, String loginId, String owner, int shard) {
+        // 啟用目錄前已有不同分片的用戶註冊相同名稱，需人工處理
+        log.warn("用戶名稱目錄衝突，保留既有項目: username={}, loginId={} (shard-{}), 目錄中為 loginId={}",
+            username, loginId, shard, owner);
+    }
+
+    private boolean move(long id, int source, int target) {
+        JdbcTemplate from = shards.get(source);
+        JdbcTemplate to = shards.get(target);
+        List<Map<String, Object>> rows = from.queryForList(SELECT_USER, id);
+        if (rows.isEmpty()) {
+            return true;
+        }
+        Map<String, Object> user = rows.get(0);
+        List<Activity> activity = from.query(SELECT_ACTIVITY, Activity::map, id);
+        List<Object[]> history = from.query(SELECT_HISTORY,
+            (rs, rowNum) -> new Object[]{id, rs.getBoolean(1), rs.getString(2), rs.getTimestamp(3)}, id);
+        try {
+            transactions.get(target).executeWithoutResult(status -> {
+                to.update(INSERT_USER, user.get("id"), user.get("username"), user.get("login_id"), user.get("password"),
+                    user.get("created_at"), user.get("updated_at"), user.get("enabled"));
+                if (!activity.isEmpty()) {
+                    mergeActivity(to, id, activity.get(0));
+                }
+                for (int i = 0; i < history.size(); i += batchSize) {
+                    to.batchUpdate(INSERT_HISTORY, history.subList(i, Math.min(i + batchSize, history.size())));
+                }
+            });
+        } catch (DuplicateKeyException e) {
+            Long copied = to.queryForObject("SELECT COUNT(*) FROM users WHERE id = ?", Long.class, id);
+            if (copied == null || copied == 0) {
+                // 目標分片已有相同登入 ID 或用戶名稱的其他用戶，需人工處理
+                log.warn("分片重新平衡衝突，保留於原分片: id={}, loginId={}, shard-{} -> shard-{}",
+                    id, user.get("login_id"), source, target);
+                return false;
+            }
+        }
+        transactions.get(source).executeWithoutResult(status -> {
+            from.update("DELETE FROM login_history WHERE user_id = ?", id);
+            from.update("DELETE FROM user_login_activity WHERE user_id = ?", id);
+            from.update("DELETE FROM users WHERE id = ?", id);
+        });
+        return true;
+    }
+
+    /**
+     * 將原分片的活動列併入目標分片：時間取較新者，失敗次數只累加晚於合併後最後成功登入的部分
+     */
+    private static void mergeActivity(JdbcTemplate to, long id, Activity moved) {
+        List<Activity> existing = to.query(SELECT_ACTIVITY, Activity::map, id);
+        if (existing.isEmpty()) {
+            to.update(INSERT_ACTIVITY, id, moved.lastLoginAt(), moved.lastFailedAt(), moved.failedAttempts());
+            return;
+        }
+        Activity current = existing.get(0);
+        Timestamp lastLoginAt = latest(current.lastLoginAt(), moved.lastLoginAt());
+        int failedAttempts = current.failuresAfter(lastLoginAt) + moved.failuresAfter(lastLoginAt);
+        to.update(UPDATE_ACTIVITY, lastLoginAt, latest(current.lastFailedAt(), moved.lastFailedAt()), failedAttempts, id);
+    }
+
+    private static Timestamp latest(Timestamp a, Timestamp b) {
+        if (a == null) {
+            return b;
+        }
+        return b == null || a.after(b) ? a : b;
+    }
+
+    private record Activity(Timestamp lastLoginAt, Timestamp lastFailedAt, int failedAttempts) {
+
+        static Activity map(ResultSet rs, int rowNum) throws SQLException {
+            return new Activity(rs.getTimestamp(1), rs.getTimestamp(2), rs.getInt(3));
+        }
+
+        int failuresAfter(Timestamp lastLoginAt) {
+            return lastFailedAt != null && (lastLoginAt == null || lastFailedAt.after(lastLoginAt)) ? failedAttempts : 0;
+        }
+    }
+
+    public record Result(long scanned, long moved, long conflicts, long elapsedMillis) {
+    }
+
+    public record BackfillResult(long scanned, long added, long conflicts, long elapsedMillis) {
+    }
+}
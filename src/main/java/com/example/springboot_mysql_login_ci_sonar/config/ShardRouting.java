@@ -0,0 +1,86 @@
+package com.example.springboot_mysql_login_ci_sonar.config;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.function.Supplier;
+
+/**
+ * 分片路由
+ * 以登入 ID（不分大小寫）的 64 位元雜湊經 jump consistent hash 決定分片，
+ * 分片數由 n 增為 n+1 時只有約 1/(n+1) 的用戶需要搬移。雜湊結果決定資料位置，不可更改。
+ */
+public final class ShardRouting {
+
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+
+    private ShardRouting() {
+    }
+
+    /**
+     * 在區塊內取得的連線一律來自指定分片
+     * 連線在交易內第一次執行 SQL 時才決定，因此同一個交易只能存取一個分片
+     * @throws IllegalStateException 當外層已指定其他分片時
+     */
+    public static <T> T onShard(int shard, Supplier<T> body) {
+        Integer outer = CURRENT.get();
+        if (outer != null && outer != shard) {
+            throw new IllegalStateException("已在分片 " + outer + " 的範圍內，不能改用分片 " + shard);
+        }
+        CURRENT.set(shard);
+        try {
+            return body.get();
+        } finally {
+            if (outer == null) {
+                CURRENT.remove();
+            }
+        }
+    }
+
+    /**
+     * @return 目前指定的分片；未指定時為 null
+     */
+    static Integer currentShard() {
+        return CURRENT.get();
+    }
+
+    /**
+     * @param loginId 登入 ID
+     * @param shardCount 分片數
+     * @return 分片編號（0 ~ shardCount-1）
+     */
+    public static int shardFor(String loginId, int shardCount) {
+        if (shardCount <= 0) {
+            throw new IllegalArgumentException("分片數必須大於 0");
+        }
+        return jumpHash(hash(loginId.toLowerCase(Locale.ROOT)), shardCount);
+    }
+
+    /**
+     * Lamping & Veach, "A Fast, Minimal Memory, Consistent Hash Algorithm"
+     */
+    static int jumpHash(long key, int buckets) {
+        long bucket = -1;
+        long next = 0;
+        while (next < buckets) {
+            bucket = next;
+            key = key * 2862933555777941757L + 1;
+            next = (long) ((bucket + 1) * ((double) (1L << 31) / (double) ((key >>> 33) + 1)));
+        }
+        return (int) bucket;
+    }
+
+    private static long hash(String key) {
+        // FNV-1a 64 位元，再以 murmur3 fmix64 打散
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.springboot_mysql_login_ci_sonar.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * 分片路由 DataSource
+ * 依 ShardRouting 目前指定的分片取得連線；未指定時（例如 Hibernate 啟動時讀取 metadata、健康檢查）使用第 0 個分片。
+ * 需包在 LazyConnectionDataSourceProxy 內，才能在交易開始後、第一次執行 SQL 時才決定分片。
+ */
+@Slf4j
+class ShardRoutingDataSource extends AbstractDataSource implements Closeable {
+
+    private final List<? extends DataSource> shards;
+
+    ShardRoutingDataSource(List<? extends DataSource> shards) {
+        this.shards = List.copyOf(shards);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return shard(currentShard()).getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return getConnection();
+    }
+
+    private int currentShard() {
+        Integer shard = ShardRouting.currentShard();
+        return shard == null ? 0 : shard;
+    }
+
+    /**
+     * @throws IllegalStateException 當分片編號超出設定的分片數時
+     */
+    DataSource shard(int index) {
+        if (index < 0 || index >= shards.size()) {
+            throw new IllegalStateException("分片 " + index + " 不存在，目前共 " + shards.size() + " 個分片");
+        }
+        return shards.get(index);
+    }
+
+    int size() {
+        return shards.size();
+    }
+
+    @Override
+    public void close() {
+        for (int i = 0; i < shards.size(); i++) {
+            if (shards.get(i) instanceof Closeable closeable) {
+                try {
+                    closeable.close();
+                } catch (Exception e) {
+                    log.warn("關閉分片連線池失敗: shard-{}", i, e);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.springboot_mysql_login_ci_sonar.config;
+
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+
+/**
+ * 分片模式的資料表結構
+ * Hibernate 只看得到預設的第 0 個分片，因此由這裡在每個分片建立 users 表與 ID 序列。
+ * 各分片的序列起點相差 ID_RANGE，重新平衡搬移資料時保留原 ID 也不會與目標分片衝突。
+ */
+final class ShardSchema {
+
+    /** 每個分片可配置的 ID 數量 */
+    static final long ID_RANGE = 1L << 40;
+    /** 與 User 的 @SequenceGenerator allocationSize 一致，否則 Hibernate 啟動時的序列檢查會失敗 */
+    static final int ALLOCATION_SIZE = 50;
+
+    private static final String USERS_TABLE = """
+        CREATE TABLE IF NOT EXISTS users (
+            id BIGINT NOT NULL PRIMARY KEY,
+            username VARCHAR(50) NOT NULL,
+            login_id VARCHAR(30) NOT NULL,
+            password VARCHAR(255) NOT NULL,
+            created_at DATETIME(6) NOT NULL,
+            updated_at DATETIME(6),
+            enabled BOOLEAN NOT NULL,
+            CONSTRAINT uk_users_username UNIQUE (username),
+            CONSTRAINT uk_users_login_id UNIQUE (login_id)
+        )""";
+
+    private static final String LOGIN_ACTIVITY_TABLE = """
+        CREATE TABLE IF NOT EXISTS user_login_activity (
+            user_id BIGINT NOT NULL PRIMARY KEY,
+            last_login_at DATETIME(6),
+            last_failed_at DATETIME(6),
+            failed_attempts INT NOT NULL
+        )""";
+
+    private static final String LOGIN_HISTORY_TABLE = """
+        CREATE TABLE IF NOT EXISTS login_history (
+            id BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+            user_id BIGINT NOT NULL,
+            success BOOLEAN NOT NULL,
+            reason VARCHAR(32),
+            occurred_at DATETIME(6) NOT NULL
+        )""";
+
+    private static final String LOGIN_HISTORY_INDEX =
+        "CREATE INDEX idx_login_history_user ON login_history (user_id, occurred_at)";
+
+    private static final String DIRECTORY_TABLE = """
+        CREATE TABLE IF NOT EXISTS username_directory (
+            username VARCHAR(50) NOT NULL PRIMARY KEY,
+            login_id VARCHAR(30) NOT NULL
+        )""";
+
+    private ShardSchema() {
+    }
+
+    /**
+     * 建立分片的 users 表、users_seq 與登入活動表（已存在時不變更）
+     */
+    static void initializeShard(DataSource dataSource, int shard) {
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute(USERS_TABLE);
+        jdbc.execute(LOGIN_ACTIVITY_TABLE);
+        if (!tableExists(jdbc, "login_history")) {
+            // MySQL 不支援 CREATE INDEX IF NOT EXISTS，只在建立資料表時一併建立索引
+            jdbc.execute(LOGIN_HISTORY_TABLE);
+            jdbc.execute(LOGIN_HISTORY_INDEX);
+        }
+        long start = shard * ID_RANGE + 1;
+        String product = jdbc.execute((ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+        if ("H2".equals(product)) {
+            jdbc.execute("CREATE SEQUENCE IF NOT EXISTS users_seq START WITH " + start + " INCREMENT BY " + ALLOCATION_SIZE);
+        } else {
+            // MySQL 沒有序列，Hibernate 以單列表模擬
+            jdbc.execute("CREATE TABLE IF NOT EXISTS users_seq (next_val BIGINT)");
+            UserIdSequenceMigration.seed(jdbc, start, start + ID_RANGE);
+        }
+    }
+
+    /**
+     * 資料表是否存在（不含 view 與序列）
+     */
+    static boolean tableExists(JdbcTemplate jdbc, String table) {
+        return Boolean.TRUE.equals(jdbc.execute((ConnectionCallback<Boolean>) connection -> {
+            try (ResultSet tables = connection.getMetaData().getTables(connection.getCatalog(), null, "%", new String[]{"TABLE"})) {
+                while (tables.next()) {
+                    if (table.equalsIgnoreCase(tables.getString("TABLE_NAME"))) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+        }));
+    }
+
+    /**
+     * 建立用戶名稱目錄表
+     */
+    static void initializeDirectory(DataSource dataSource) {
+        new JdbcTemplate(dataSource).execute(DIRECTORY_TABLE);
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.springboot_mysql_login_ci_sonar.config;
+
+import com.example.springboot_mysql_login_ci_sonar.repository.UsernameDirectory;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.id.enhanced.StandardOptimizerDescriptor;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 分片 DataSource 配置（auth.sharding.enabled=true 時啟用，不可與讀取副本同時啟用）
+ * spring.datasource.* 改為用戶名稱目錄的連線；應用程式使用的 DataSource 為延遲取得連線的分片路由代理
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "auth.sharding", name = "enabled", havingValue = "true")
+public class ShardingDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource directoryDataSource(DataSourceProperties dataSourceProperties) {
+        return dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    /**
+     * 目錄為空時（剛在既有 users 表上啟用分片）先以各分片的現有用戶補齊，再開始接受請求
+     */
+    @Bean
+    public UsernameDirectory usernameDirectory(HikariDataSource directoryDataSource, ShardingProperties properties,
+                                               ShardRebalancer shardRebalancer) {
+        if (properties.isInitializeSchema()) {
+            ShardSchema.initializeDirectory(directoryDataSource);
+        }
+        UsernameDirectory directory = new UsernameDirectory(directoryDataSource);
+        if (directory.isEmpty()) {
+            shardRebalancer.backfillDirectory(directory);
+        }
+        return directory;
+    }
+
+    @Bean(destroyMethod = "close")
+    ShardRoutingDataSource shardRoutingDataSource(ShardingProperties properties, ReadReplicaProperties readReplicaProperties,
+                                                  MeterRegistry meterRegistry) {
+        if (readReplicaProperties.isEnabled()) {
+            throw new IllegalStateException("auth.sharding 不可與 auth.read-replica 同時啟用");
+        }
+        List<ShardingProperties.Shard> shards = properties.getShards();
+        if (shards.isEmpty()) {
+            throw new IllegalStateException("已啟用 auth.sharding 但未設定 auth.sharding.shards");
+        }
+        if (properties.getPreviousShardCount() >= shards.size()) {
+            throw new IllegalStateException("auth.sharding.previous-shard-count 必須小於目前分片數 " + shards.size());
+        }
+        List<HikariDataSource> dataSources = new ArrayList<>();
+        for (int i = 0; i < shards.size(); i++) {
+            ShardingProperties.Shard shard = shards.get(i);
+            HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(shard.getUrl())
+                .username(shard.getUsername())
+                .password(shard.getPassword())
+                .build();
+            dataSource.setPoolName("shard-" + i);
+            dataSource.setMaximumPoolSize(shard.getMaximumPoolSize());
+            // 分片連線池不是 Bean，需自行註冊 hikaricp.* 指標（標籤 pool=shard-N）
+            dataSource.setMetricRegistry(meterRegistry);
+            if (properties.isInitializeSchema()) {
+                ShardSchema.initializeShard(dataSource, i);
+            }
+            dataSources.add(dataSource);
+        }
+        return new ShardRoutingDataSource(dataSources);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ShardRoutingDataSource shardRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(shardRoutingDataSource);
+    }
+
+    @Bean
+    public ShardRebalancer shardRebalancer(ShardRoutingDataSource shardRoutingDataSource, ShardingProperties properties) {
+        return new ShardRebalancer(shardRoutingDataSource, properties.getRebalance().getBatchSize());
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer shardingHibernateProperties() {
+        return hibernateProperties -> {
+            // 結構由 ShardSchema 在每個分片建立，Hibernate 的 DDL 只會作用在第 0 個分片
+            hibernateProperties.put(AvailableSettings.HBM2DDL_AUTO, "none");
+            // pooled 最佳化器在記憶體中快取 ID 區段且為所有分片共用，改為每次向目前分片的序列取號
+            hibernateProperties.put(AvailableSettings.PREFERRED_POOLED_OPTIMIZER, StandardOptimizerDescriptor.NONE.getExternalName());
+            // 每個交易結束即歸還連線，同一個 EntityManager（例如 open-in-view）的下一個交易才能改用其他分片
+            hibernateProperties.put(AvailableSettings.CONNECTION_HANDLING,
+                PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+        };
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.springboot_mysql_login_ci_sonar.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * users 表分片配置
+ */
+@Data
+@ConfigurationProperties(prefix = "auth.sharding")
+public class ShardingProperties {
+
+    /**
+     * 是否啟用；啟用後 users 依登入 ID 雜湊分散到各分片，spring.datasource.* 只存放用戶名稱目錄
+     */
+    private boolean enabled = false;
+
+    /**
+     * 分片連線，順序即分片編號；新增分片只能加在最後
+     */
+    private List<Shard> shards = new ArrayList<>();
+
+    /**
+     * 重新平衡期間設為新增前的分片數，依登入 ID 查不到時改查舊分片；0 代表未在搬移
+     */
+    private int previousShardCount = 0;
+
+    /**
+     * 啟動時建立各分片的 users 表、ID 序列與用戶名稱目錄表
+     */
+    private boolean initializeSchema = true;
+
+    /**
+     * 重新平衡工具
+     */
+    private Rebalance rebalance = new Rebalance();
+
+    @Data
+    public static class Shard {
+
+        private String url;
+
+        private String username;
+
+        private String password;
+
+        private int maximumPoolSize = 10;
+    }
+
+    @Data
+    public static class Rebalance {
+
+        /**
+         * 啟動時將不屬於所在分片的用戶搬到目前分片數對應的分片
+         */
+        private boolean enabled = false;
+
+        /**
+         * 每次讀取與搬移的筆數
+         */
+        private int batchSize = 500;
+
+        /**
+         * 完成後結束應用程式
+         */
+        private boolean exitOnCompletion = true;
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.springboot_mysql_login_ci_sonar.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 註冊流程配置
+ */
+@Data
+@ConfigurationProperties(prefix = "auth.signup")
+public class SignupProperties {
+
+    /**
+     * 批次註冊單次請求的最大筆數
+     */
+    private int batchMaxSize = 1000;
+}
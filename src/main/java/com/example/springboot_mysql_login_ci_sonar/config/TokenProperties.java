@@ -0,0 +1,56 @@
+package com.example.springboot_mysql_login_ci_sonar.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 存取權杖配置
+ */
+@Data
+@ConfigurationProperties(prefix = "auth.token")
+public class TokenProperties {
+
+    /**
+     * 簽章金鑰（金鑰 ID → Base64 編碼、至少 32 bytes 的密鑰）；全部用於驗證，只有 activeKeyId 用於簽發。
+     * 未設定時啟動時隨機產生，重啟或多實例間權杖不互通
+     */
+    private Map<String, String> keys = new LinkedHashMap<>();
+
+    /**
+     * 用於簽發新權杖的金鑰 ID
+     */
+    private String activeKeyId;
+
+    /**
+     * 權杖有效時間
+     */
+    private Duration ttl = Duration.ofMinutes(15);
+
+    /**
+     * 驗證到期時間時容許的時鐘誤差
+     */
+    private Duration clockSkew = Duration.ofSeconds(30);
+
+    /**
+     * 撤銷清單最大筆數（項目於權杖到期後自動移除，不因容量逐出）
+     * 達到上限時撤銷本實例目前所有已簽發的權杖，寧可讓用戶重新登入也不讓已撤銷的權杖復活
+     */
+    private long revocationMaximumSize = 100_000;
+
+    /**
+     * 單一用戶在權杖有效期間內加入撤銷清單的上限；超過時改為撤銷該用戶目前所有的權杖，
+     * 避免反覆登入登出塞滿撤銷清單而觸發全體撤銷
+     */
+    private int maxRevocationsPerUser = 10;
+
+    /**
+     * 具管理員角色（ROLE_ADMIN）的登入 ID，可使用用戶匯出等管理 API；未設定時沒有人可使用
+     */
+    private Set<String> adminLoginIds = new LinkedHashSet<>();
+}
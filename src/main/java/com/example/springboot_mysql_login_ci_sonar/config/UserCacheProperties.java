@@ -0,0 +1,29 @@
+package com.example.springboot_mysql_login_ci_sonar.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * 用戶快取配置
+ */
+@Data
+@ConfigurationProperties(prefix = "auth.user-cache")
+public class UserCacheProperties {
+
+    /**
+     * 是否啟用
+     */
+    private boolean enabled = true;
+
+    /**
+     * 每個索引（登入 ID / 用戶名稱）的最大筆數
+     */
+    private long maximumSize = 10_000;
+
+    /**
+     * 寫入後的存活時間，也是其他實例修改用戶後本實例最長的延遲
+     */
+    private Duration ttl = Duration.ofSeconds(60);
+}
@@ -0,0 +1,41 @@
+package com.example.springboot_mysql_login_ci_sonar.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * users_seq 起點遷移
+ * 既有資料庫的 users 由 AUTO_INCREMENT 配置 ID；ddl-auto=update 新建的 users_seq 從 1 開始，
+ * 新註冊會取得既有資料的 ID 而違反主鍵。啟動時（Hibernate 建立結構後、開始接受請求前）
+ * 將 next_val 提高到 MAX(id) + 配置大小以上；只會調高，可重複執行。
+ * 只處理以單列表模擬的序列（MySQL），H2 等原生序列不受影響；分片模式由 ShardSchema 對每個分片執行。
+ */
+@Component
+@DependsOn("entityManagerFactory")
+@ConditionalOnProperty(prefix = "auth.sharding", name = "enabled", havingValue = "false", matchIfMissing = true)
+@Slf4j
+public class UserIdSequenceMigration {
+
+    public UserIdSequenceMigration(JdbcTemplate jdbc) {
+        seed(jdbc, 1, Long.MAX_VALUE);
+    }
+
+    /**
+     * 讓 users_seq 之後配置的 ID 大於 [rangeStart, rangeEnd) 內現有的最大 ID，且不小於 rangeStart
+     */
+    static void seed(JdbcTemplate jdbc, long rangeStart, long rangeEnd) {
+        if (!ShardSchema.tableExists(jdbc, "users_seq")) {
+            return;
+        }
+        Long maxId = jdbc.queryForObject("SELECT MAX(id) FROM users WHERE id >= ? AND id < ?", Long.class, rangeStart, rangeEnd);
+        long nextVal = maxId == null ? rangeStart : Math.max(rangeStart, maxId + ShardSchema.ALLOCATION_SIZE + 1);
+        jdbc.update("INSERT INTO users_seq (next_val) SELECT ? FROM DUAL WHERE NOT EXISTS (SELECT 1 FROM users_seq)", nextVal);
+        int raised = jdbc.update("UPDATE users_seq SET next_val = ? WHERE next_val < ?", nextVal, nextVal);
+        if (raised > 0) {
+            log.info("users_seq 已調高至 {}（現有最大 ID {}）", nextVal, maxId);
+        }
+    }
+}
@@ -2,14 +2,24 @@ package com.example.springboot_mysql_login_ci_sonar.controller;
 
 import com.example.springboot_mysql_login_ci_sonar.dto.*;
 import com.example.springboot_mysql_login_ci_sonar.entity.User;
+import com.example.springboot_mysql_login_ci_sonar.service.AccessTokenClaims;
+import com.example.springboot_mysql_login_ci_sonar.service.AccessTokenService;
+import com.example.springboot_mysql_login_ci_sonar.service.HashingOverloadedException;
+import com.example.springboot_mysql_login_ci_sonar.service.LoginRateLimiter;
+import com.example.springboot_mysql_login_ci_sonar.service.RateLimitExceededException;
 import com.example.springboot_mysql_login_ci_sonar.service.UserService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 /**
  * 認證相關 API Controller
  */
@@ -21,6 +31,8 @@ import org.springframework.web.bind.annotation.*;
 public class AuthController {
 
     private final UserService userService;
+    private final AccessTokenService accessTokenService;
+    private final LoginRateLimiter loginRateLimiter;
 
     /**
      * 用戶註冊 API
@@ -28,7 +40,7 @@ public class AuthController {
      */
     @PostMapping("/signup")
     public ResponseEntity<ApiResponse<UserResponse>> signup(@Valid @RequestBody SignupRequest request) {
-        log.info("收到註冊請求: username={}, loginId={}", request.getUsername(), request.getLoginId());
+        log.debug("收到註冊請求: username={}, loginId={}", request.getUsername(), request.getLoginId());
 
         try {
             User user = userService.signup(
@@ -40,11 +52,11 @@ public class AuthController {
             UserResponse userResponse = UserResponse.from(user);
             ApiResponse<UserResponse> response = ApiResponse.success("註冊成功", userResponse);
 
-            log.info("註冊成功: userId={}", user.getId());
+            log.debug("註冊成功: userId={}", user.getId());
             return ResponseEntity.status(HttpStatus.CREATED).body(response);
 
         } catch (IllegalArgumentException e) {
-            log.warn("註冊失敗: {}", e.getMessage());
+            log.debug("註冊失敗: {}", e.getMessage());
             ApiResponse<UserResponse> response = ApiResponse.error(e.getMessage());
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
 
@@ -55,37 +67,107 @@ public class AuthController {
         }
     }
 
+    /**
+     * 批次註冊 API
+     * POST /api/auth/signup/batch
+     */
+    @PostMapping("/signup/batch")
+    public ResponseEntity<ApiResponse<List<BatchSignupResult>>> signupBatch(@RequestBody List<SignupRequest> requests) {
+        log.info("收到批次註冊請求: size={}", requests.size());
+
+        try {
+            List<BatchSignupResult> results = userService.signupBatch(requests);
+            long created = results.stream().filter(BatchSignupResult::isSuccess).count();
+            ApiResponse<List<BatchSignupResult>> response = ApiResponse.success(
+                "批次註冊完成: 成功 " + created + " 筆，失敗 " + (results.size() - created) + " 筆", results);
+            return ResponseEntity.ok(response);
+
+        } catch (IllegalArgumentException e) {
+            log.warn("批次註冊失敗: {}", e.getMessage());
+            ApiResponse<List<BatchSignupResult>> response = ApiResponse.error(e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+
+        } catch (HashingOverloadedException e) {
+            log.warn("批次註冊請求被拒絕: {}", e.getMessage());
+            ApiResponse<List<BatchSignupResult>> response = ApiResponse.error("系統繁忙，請稍後再試");
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                    .body(response);
+
+        } catch (Exception e) {
+            log.error("批次註冊過程中發生錯誤", e);
+            ApiResponse<List<BatchSignupResult>> response = ApiResponse.error("批次註冊失敗，請稍後再試");
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+
     /**
      * 用戶登入 API
      * POST /api/auth/login
      */
     @PostMapping("/login")
-    public ResponseEntity<ApiResponse<UserResponse>> login(@Valid @RequestBody LoginRequest request) {
-        log.info("收到登入請求: loginId={}", request.getLoginId());
+    public ResponseEntity<ApiResponse<LoginResponse>> login(@Valid @RequestBody LoginRequest request,
+                                                           HttpServletRequest httpRequest) {
+        log.debug("收到登入請求: loginId={}", request.getLoginId());
 
         try {
+            // 在查詢資料庫與 BCrypt 比對前先限流
+            loginRateLimiter.check(request.getLoginId(), httpRequest.getRemoteAddr());
             var userOpt = userService.login(request.getLoginId(), request.getPassword());
 
             if (userOpt.isPresent()) {
                 User user = userOpt.get();
-                UserResponse userResponse = UserResponse.from(user);
-                ApiResponse<UserResponse> response = ApiResponse.success("登入成功", userResponse);
+                LoginResponse loginResponse = LoginResponse.from(user, accessTokenService.issue(user));
+                ApiResponse<LoginResponse> response = ApiResponse.success("登入成功", loginResponse);
 
-                log.info("登入成功: userId={}, username={}", user.getId(), user.getUsername());
+                log.debug("登入成功: userId={}, username={}", user.getId(), user.getUsername());
                 return ResponseEntity.ok(response);
             } else {
-                log.warn("登入失敗: 無效的登入憑證 loginId={}", request.getLoginId());
-                ApiResponse<UserResponse> response = ApiResponse.error("登入失敗，請檢查登入 ID 和密碼");
+                log.debug("登入失敗: 無效的登入憑證 loginId={}", request.getLoginId());
+                ApiResponse<LoginResponse> response = ApiResponse.error("登入失敗，請檢查登入 ID 和密碼");
                 return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(response);
             }
 
+        } catch (RateLimitExceededException e) {
+            ApiResponse<LoginResponse> response = ApiResponse.error("登入嘗試過於頻繁，請稍後再試");
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                    .body(response);
+
+        } catch (HashingOverloadedException e) {
+            log.warn("登入請求被拒絕: {}", e.getMessage());
+            ApiResponse<LoginResponse> response = ApiResponse.error("系統繁忙，請稍後再試");
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                    .body(response);
+
         } catch (Exception e) {
             log.error("登入過程中發生錯誤", e);
-            ApiResponse<UserResponse> response = ApiResponse.error("登入失敗，請稍後再試");
+            ApiResponse<LoginResponse> response = ApiResponse.error("登入失敗，請稍後再試");
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
         }
     }
 
+    /**
+     * 目前權杖的認證資訊 API（需 Bearer 權杖，不查資料庫）
+     * GET /api/auth/me
+     */
+    @GetMapping("/me")
+    public ResponseEntity<ApiResponse<AccessTokenClaims>> me(@AuthenticationPrincipal AccessTokenClaims claims) {
+        return ResponseEntity.ok(ApiResponse.success("權杖有效", claims));
+    }
+
+    /**
+     * 登出 API：撤銷目前的權杖
+     * POST /api/auth/logout
+     */
+    @PostMapping("/logout")
+    public ResponseEntity<ApiResponse<Void>> logout(@AuthenticationPrincipal AccessTokenClaims claims) {
+        accessTokenService.revoke(claims);
+        log.info("登出成功: userId={}", claims.userId());
+        return ResponseEntity.ok(ApiResponse.success("登出成功"));
+    }
+
     /**
      * 健康檢查 API
      * GET /api/auth/health
@@ -0,0 +1,36 @@
+package com.example.springboot_mysql_login_ci_sonar.controller;
+
+import com.example.springboot_mysql_login_ci_sonar.service.ServerTiming;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * 將認證 API 各階段耗時寫入 Server-Timing 回應標頭
+ * 於回應主體序列化前執行，標頭尚未送出
+ */
+@RestControllerAdvice(assignableTypes = AuthController.class)
+public class ServerTimingAdvice implements ResponseBodyAdvice<Object> {
+
+    static final String SERVER_TIMING = "Server-Timing";
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        ServerTiming timing = ServerTiming.current();
+        if (timing != null) {
+            response.getHeaders().add(SERVER_TIMING, timing.toHeaderValue());
+        }
+        return body;
+    }
+}
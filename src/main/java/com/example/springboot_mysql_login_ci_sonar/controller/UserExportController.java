@@ -0,0 +1,71 @@
+package com.example.springboot_mysql_login_ci_sonar.controller;
+
+import com.example.springboot_mysql_login_ci_sonar.dto.ApiResponse;
+import com.example.springboot_mysql_login_ci_sonar.service.UserExportService;
+import com.example.springboot_mysql_login_ci_sonar.service.UserFileFormat;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 用戶匯出 API Controller（需 Bearer 權杖）
+ */
+@RestController
+@RequestMapping("/api/users")
+@RequiredArgsConstructor
+@Slf4j
+public class UserExportController {
+
+    private final UserExportService userExportService;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * 串流匯出所有用戶
+     * GET /api/users/export?format=ndjson|csv
+     * 直接寫入回應串流（不使用非同步請求，避免大量資料受 async timeout 中斷）
+     */
+    @GetMapping("/export")
+    public void export(@RequestParam(defaultValue = "ndjson") String format,
+                       HttpServletResponse response) throws IOException {
+        UserFileFormat exportFormat;
+        try {
+            exportFormat = UserFileFormat.parse(format);
+        } catch (IllegalArgumentException e) {
+            response.setStatus(HttpStatus.BAD_REQUEST.value());
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+            objectMapper.writeValue(response.getOutputStream(), ApiResponse.error(e.getMessage()));
+            return;
+        }
+
+        response.setContentType(exportFormat.getContentType());
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+            "attachment; filename=\"users." + exportFormat.getExtension() + "\"");
+        // 關閉 Nginx 代理緩衝，讓每頁 flush 後立即送出
+        response.setHeader("X-Accel-Buffering", "no");
+
+        Writer writer = new OutputStreamWriter(response.getOutputStream(), StandardCharsets.UTF_8);
+        try {
+            userExportService.export(exportFormat, writer);
+        } catch (IOException e) {
+            // 回應已開始輸出，無法再改狀態碼；多半是用戶端中斷連線
+            log.info("用戶匯出中斷: {}", e.getMessage());
+            return;
+        }
+        writer.flush();
+    }
+}
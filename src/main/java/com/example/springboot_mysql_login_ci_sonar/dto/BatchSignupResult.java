@@ -0,0 +1,28 @@
+package com.example.springboot_mysql_login_ci_sonar.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 批次註冊單筆結果 DTO
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchSignupResult {
+
+    private int index;
+    private String loginId;
+    private boolean success;
+    private String message;
+    private Long userId;
+
+    public static BatchSignupResult success(int index, String loginId, Long userId) {
+        return new BatchSignupResult(index, loginId, true, "註冊成功", userId);
+    }
+
+    public static BatchSignupResult error(int index, String loginId, String message) {
+        return new BatchSignupResult(index, loginId, false, message, null);
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.springboot_mysql_login_ci_sonar.dto;
+
+import com.example.springboot_mysql_login_ci_sonar.entity.User;
+import com.example.springboot_mysql_login_ci_sonar.service.AccessToken;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+import java.time.Instant;
+
+/**
+ * 登入回應 DTO：用戶資料加上存取權杖
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+public class LoginResponse extends UserResponse {
+
+    private String accessToken;
+    private String tokenType;
+    private Instant expiresAt;
+
+    public static LoginResponse from(User user, AccessToken token) {
+        LoginResponse response = new LoginResponse();
+        response.setId(user.getId());
+        response.setUsername(user.getUsername());
+        response.setLoginId(user.getLoginId());
+        response.setCreatedAt(user.getCreatedAt());
+        response.setUpdatedAt(user.getUpdatedAt());
+        response.setEnabled(user.getEnabled());
+        response.setAccessToken(token.value());
+        response.setTokenType("Bearer");
+        response.setExpiresAt(token.expiresAt());
+        return response;
+    }
+}
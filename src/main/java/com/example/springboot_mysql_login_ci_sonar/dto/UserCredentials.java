@@ -0,0 +1,20 @@
+package com.example.springboot_mysql_login_ci_sonar.dto;
+
+import com.example.springboot_mysql_login_ci_sonar.entity.User;
+
+import java.time.LocalDateTime;
+
+/**
+ * 登入用的用戶投影
+ * 以建構式查詢直接產生，不進入持久化內容，沒有快照與 dirty checking
+ */
+public record UserCredentials(Long id, String username, String loginId, String password,
+                              LocalDateTime createdAt, LocalDateTime updatedAt, Boolean enabled) {
+
+    /**
+     * 轉為未受管理的 User
+     */
+    public User toUser() {
+        return new User(id, username, loginId, password, createdAt, updatedAt, enabled);
+    }
+}
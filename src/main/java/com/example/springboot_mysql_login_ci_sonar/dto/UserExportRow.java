@@ -0,0 +1,10 @@
+package com.example.springboot_mysql_login_ci_sonar.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * 用戶匯出投影（不含密碼）
+ */
+public record UserExportRow(Long id, String username, String loginId,
+                            LocalDateTime createdAt, LocalDateTime updatedAt, Boolean enabled) {
+}
@@ -0,0 +1,7 @@
+package com.example.springboot_mysql_login_ci_sonar.dto;
+
+/**
+ * 用戶鍵值投影（只含 ID、登入 ID 與用戶名稱）
+ */
+public record UserKeys(Long id, String loginId, String username) {
+}
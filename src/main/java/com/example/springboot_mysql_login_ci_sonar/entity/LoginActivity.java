@@ -0,0 +1,34 @@
+package com.example.springboot_mysql_login_ci_sonar.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 用戶登入活動（每位用戶一列）
+ * 與 users 表分開，登入頻繁更新時不影響用戶資料列與快取；由 LoginActivityRecorder 以 JDBC 批次寫入
+ */
+@Entity
+@Table(name = "user_login_activity")
+@Data
+@NoArgsConstructor
+public class LoginActivity {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "last_login_at")
+    private LocalDateTime lastLoginAt;
+
+    @Column(name = "last_failed_at")
+    private LocalDateTime lastFailedAt;
+
+    /**
+     * 最後一次成功登入之後的連續失敗次數
+     */
+    @Column(name = "failed_attempts", nullable = false)
+    private Integer failedAttempts = 0;
+}
@@ -0,0 +1,37 @@
+package com.example.springboot_mysql_login_ci_sonar.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 登入歷史（每次登入嘗試一列）
+ * 只新增不更新，由 LoginActivityRecorder 以 JDBC 批次寫入
+ */
+@Entity
+@Table(name = "login_history", indexes = @Index(name = "idx_login_history_user", columnList = "user_id, occurred_at"))
+@Data
+@NoArgsConstructor
+public class LoginHistory {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "success", nullable = false)
+    private Boolean success;
+
+    /**
+     * 失敗原因代碼，例如 bad_password、disabled
+     */
+    @Column(name = "reason", length = 32)
+    private String reason;
+
+    @Column(name = "occurred_at", nullable = false)
+    private LocalDateTime occurredAt;
+}
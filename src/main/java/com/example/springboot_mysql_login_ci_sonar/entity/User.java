@@ -13,24 +13,38 @@ import java.time.LocalDateTime;
  * User 實體類別
  */
 @Entity
-@Table(name = "users")
+@Table(name = "users", uniqueConstraints = {
+    @UniqueConstraint(name = User.UK_USERNAME, columnNames = "username"),
+    @UniqueConstraint(name = User.UK_LOGIN_ID, columnNames = "login_id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class User {
 
+    /** 用戶名稱唯一約束名稱（註冊時用來辨識重複欄位） */
+    public static final String UK_USERNAME = "uk_users_username";
+
+    /** 登入 ID 唯一約束名稱 */
+    public static final String UK_LOGIN_ID = "uk_users_login_id";
+
+    /**
+     * 使用序列（MySQL 以 users_seq 表模擬）並一次配置 50 個 ID，
+     * IDENTITY 會讓 Hibernate 無法批次 INSERT
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "用戶名稱不能為空")
     @Size(min = 2, max = 50, message = "用戶名稱長度必須在 2-50 字元之間")
-    @Column(name = "username", nullable = false, unique = true, length = 50)
+    @Column(name = "username", nullable = false, length = 50)
     private String username;
 
     @NotBlank(message = "登入 ID 不能為空")
     @Size(min = 3, max = 30, message = "登入 ID 長度必須在 3-30 字元之間")
-    @Column(name = "login_id", nullable = false, unique = true, length = 30)
+    @Column(name = "login_id", nullable = false, length = 30)
     private String loginId;
 
     @NotBlank(message = "密碼不能為空")
@@ -1,11 +1,19 @@
 package com.example.springboot_mysql_login_ci_sonar.repository;
 
+import com.example.springboot_mysql_login_ci_sonar.dto.UserCredentials;
+import com.example.springboot_mysql_login_ci_sonar.dto.UserExportRow;
+import com.example.springboot_mysql_login_ci_sonar.dto.UserKeys;
 import com.example.springboot_mysql_login_ci_sonar.entity.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -21,6 +29,16 @@ public interface UserRepository extends JpaRepository<User, Long> {
      */
     Optional<User> findByLoginId(String loginId);
 
+    /**
+     * 根據登入 ID 查詢登入所需欄位（DTO 投影，不建立受管理的實體）
+     * @param loginId 登入 ID
+     * @return Optional<UserCredentials>
+     */
+    @Query("SELECT new com.example.springboot_mysql_login_ci_sonar.dto.UserCredentials("
+            + "u.id, u.username, u.loginId, u.password, u.createdAt, u.updatedAt, u.enabled) "
+            + "FROM User u WHERE u.loginId = :loginId")
+    Optional<UserCredentials> findCredentialsByLoginId(@Param("loginId") String loginId);
+
     /**
      * 根據用戶名稱查找用戶
      * @param username 用戶名稱
@@ -42,6 +60,57 @@ public interface UserRepository extends JpaRepository<User, Long> {
      */
     boolean existsByUsername(String username);
 
+    /**
+     * 找出已存在的用戶名稱（批次註冊用，一次 IN 查詢）
+     * @param usernames 用戶名稱集合
+     * @return 已存在的用戶名稱
+     */
+    @Query("SELECT u.username FROM User u WHERE u.username IN :usernames")
+    List<String> findExistingUsernames(@Param("usernames") Collection<String> usernames);
+
+    /**
+     * 找出已存在的登入 ID（批次註冊用，一次 IN 查詢）
+     * @param loginIds 登入 ID 集合
+     * @return 已存在的登入 ID
+     */
+    @Query("SELECT u.loginId FROM User u WHERE u.loginId IN :loginIds")
+    List<String> findExistingLoginIds(@Param("loginIds") Collection<String> loginIds);
+
+    /**
+     * 以 keyset 分頁讀取 ID 大於 afterId 的用戶鍵值（依 ID 排序）
+     * @param afterId 上一頁最後一筆 ID
+     * @param pageable 只使用頁大小
+     * @return 用戶鍵值
+     */
+    @Query("SELECT new com.example.springboot_mysql_login_ci_sonar.dto.UserKeys(u.id, u.loginId, u.username) "
+            + "FROM User u WHERE u.id > :afterId ORDER BY u.id")
+    List<UserKeys> findKeysAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * 以 keyset 分頁讀取 ID 大於 afterId 的匯出資料（依 ID 排序）
+     * @param afterId 上一頁最後一筆 ID
+     * @param pageable 只使用頁大小
+     * @return 匯出資料
+     */
+    @Query("SELECT new com.example.springboot_mysql_login_ci_sonar.dto.UserExportRow("
+            + "u.id, u.username, u.loginId, u.createdAt, u.updatedAt, u.enabled) "
+            + "FROM User u WHERE u.id > :afterId ORDER BY u.id")
+    List<UserExportRow> findExportRowsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * 僅在密碼雜湊仍為舊值時更新（避免覆蓋同時發生的密碼變更）
+     * @param id 用戶 ID
+     * @param oldPassword 舊的密碼雜湊
+     * @param newPassword 新的密碼雜湊
+     * @return 更新筆數
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE User u SET u.password = :newPassword WHERE u.id = :id AND u.password = :oldPassword")
+    int updatePasswordIfUnchanged(@Param("id") Long id,
+                                  @Param("oldPassword") String oldPassword,
+                                  @Param("newPassword") String newPassword);
+
     /**
      * 根據登入 ID 和密碼查找用戶（用於登入驗證）
      * @param loginId 登入 ID
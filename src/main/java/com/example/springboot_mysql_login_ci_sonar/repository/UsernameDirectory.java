@@ -0,0 +1,91 @@
+package com.example.springboot_mysql_login_ci_sonar.repository;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * 用戶名稱目錄（分片模式）
+ * 記錄用戶名稱 → 登入 ID，以主鍵保證用戶名稱跨分片唯一；
+ * 分片由登入 ID 計算，因此重新平衡搬移資料時不需要更新目錄。
+ */
+public class UsernameDirectory {
+
+    private final JdbcTemplate jdbc;
+    private final NamedParameterJdbcTemplate named;
+
+    public UsernameDirectory(DataSource dataSource) {
+        this.jdbc = new JdbcTemplate(dataSource);
+        this.named = new NamedParameterJdbcTemplate(jdbc);
+    }
+
+    /**
+     * 預留用戶名稱
+     * @return false 代表用戶名稱已被使用
+     */
+    public boolean reserve(String username, String loginId) {
+        try {
+            jdbc.update("INSERT INTO username_directory (username, login_id) VALUES (?, ?)", username, loginId);
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    /**
+     * 釋放預留（只刪除同一登入 ID 的預留，不影響其他用戶）
+     */
+    public void release(String username, String loginId) {
+        jdbc.update("DELETE FROM username_directory WHERE username = ? AND login_id = ?", username, loginId);
+    }
+
+    /**
+     * @return 用戶名稱對應的登入 ID
+     */
+    public Optional<String> findLoginId(String username) {
+        return jdbc.queryForList("SELECT login_id FROM username_directory WHERE username = ?", String.class, username)
+            .stream().findFirst();
+    }
+
+    /**
+     * @return 用戶名稱 → 登入 ID（一次 IN 查詢，只含已存在的用戶名稱）
+     */
+    public Map<String, String> findLoginIds(Collection<String> usernames) {
+        Map<String, String> loginIds = new HashMap<>();
+        named.query("SELECT username, login_id FROM username_directory WHERE username IN (:usernames)",
+            Map.of("usernames", usernames), row -> {
+                loginIds.put(row.getString("username"), row.getString("login_id"));
+            });
+        return loginIds;
+    }
+
+    /**
+     * 批次新增（呼叫端需先排除已存在的用戶名稱）
+     * @throws DuplicateKeyException 當其中有用戶名稱已被使用時（例如並發註冊），整批不保證寫入
+     */
+    public void reserveAll(Map<String, String> usernameToLoginId) {
+        List<Object[]> rows = usernameToLoginId.entrySet().stream()
+            .map(entry -> new Object[]{entry.getKey(), entry.getValue()})
+            .toList();
+        jdbc.batchUpdate("INSERT INTO username_directory (username, login_id) VALUES (?, ?)", rows);
+    }
+
+    public boolean isEmpty() {
+        return jdbc.queryForList("SELECT username FROM username_directory LIMIT 1", String.class).isEmpty();
+    }
+
+    /**
+     * 找出已存在的用戶名稱（一次 IN 查詢）
+     */
+    public List<String> findExisting(Collection<String> usernames) {
+        return named.queryForList("SELECT username FROM username_directory WHERE username IN (:usernames)",
+            Map.of("usernames", usernames), String.class);
+    }
+}
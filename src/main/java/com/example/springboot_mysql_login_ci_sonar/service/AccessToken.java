@@ -0,0 +1,11 @@
+package com.example.springboot_mysql_login_ci_sonar.service;
+
+import java.time.Instant;
+
+/**
+ * 簽發的存取權杖
+ * @param value 權杖字串
+ * @param expiresAt 到期時間
+ */
+public record AccessToken(String value, Instant expiresAt) {
+}
@@ -0,0 +1,13 @@
+package com.example.springboot_mysql_login_ci_sonar.service;
+
+import java.time.Instant;
+
+/**
+ * 驗證通過的權杖內容，作為已認證請求的 principal
+ * @param userId 用戶 ID
+ * @param loginId 登入 ID
+ * @param tokenId 權杖 ID，用於撤銷
+ * @param expiresAt 到期時間
+ */
+public record AccessTokenClaims(Long userId, String loginId, String tokenId, Instant expiresAt) {
+}
@@ -0,0 +1,235 @@
+package com.example.springboot_mysql_login_ci_sonar.service;
+
+import com.example.springboot_mysql_login_ci_sonar.config.TokenProperties;
+import com.example.springboot_mysql_login_ci_sonar.entity.User;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Scheduler;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * 無狀態存取權杖
+ * 格式為 {@code <金鑰 ID>.<Base64URL 內容>.<Base64URL HMAC-SHA256>}，
+ * 內容包含用戶 ID、登入 ID、權杖 ID 與到期時間；驗證只需計算 HMAC，不查資料庫也不做 BCrypt。
+ * 輪替金鑰時先加入新金鑰、切換 activeKeyId，待舊權杖到期後再移除舊金鑰。
+ * 撤銷清單只保存在本機記憶體，多實例部署時僅對收到撤銷請求的實例生效，其他實例由權杖到期收斂。
+ * 撤銷項目只在權杖到期後移除，不因容量逐出；達到上限時改為撤銷本機目前所有已簽發的權杖（fail closed）。
+ * 單一用戶在權杖有效期間內撤銷超過上限後，改為撤銷該用戶目前所有的權杖而不再加入清單，
+ * 避免單一帳號反覆登入登出塞滿撤銷清單、讓所有用戶被登出。
+ */
+@Service
+@Slf4j
+public class AccessTokenService {
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final int MIN_SECRET_BYTES = 32;
+    private static final int TOKEN_ID_BYTES = 12;
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final Map<String, Mac> prototypes = new HashMap<>();
+    private final String activeKeyId;
+    private final Duration ttl;
+    private final Duration clockSkew;
+    private final Cache<String, Instant> revoked;
+    private final long revocationMaximumSize;
+    /** 到期時間（epoch 秒）不晚於此值的權杖一律視為已撤銷；撤銷清單滿時設定 */
+    private volatile long revokedExpiringBy = Long.MIN_VALUE;
+    private final Cache<Long, UserRevocations> userRevocations;
+    private final int maxRevocationsPerUser;
+    private final SecureRandom random = new SecureRandom();
+    private final Clock clock;
+
+    @Autowired
+    public AccessTokenService(TokenProperties properties) {
+        this(properties, Clock.systemUTC());
+    }
+
+    AccessTokenService(TokenProperties properties, Clock clock) {
+        this.clock = clock;
+        this.ttl = properties.getTtl();
+        this.clockSkew = properties.getClockSkew();
+        if (properties.getKeys().isEmpty()) {
+            byte[] secret = new byte[MIN_SECRET_BYTES];
+            random.nextBytes(secret);
+            this.activeKeyId = "ephemeral";
+            prototypes.put(activeKeyId, newPrototype(activeKeyId, secret));
+            log.warn("未設定 auth.token.keys，使用隨機產生的簽章金鑰；重啟後或其他實例無法驗證已簽發的權杖");
+        } else {
+            properties.getKeys().forEach((keyId, secret) -> {
+                if (keyId.contains(".")) {
+                    throw new IllegalStateException("權杖金鑰 ID 不能包含 '.': " + keyId);
+                }
+                prototypes.put(keyId, newPrototype(keyId, Base64.getDecoder().decode(secret)));
+            });
+            this.activeKeyId = properties.getActiveKeyId() != null
+                ? properties.getActiveKeyId() : properties.getKeys().keySet().iterator().next();
+            if (!prototypes.containsKey(activeKeyId)) {
+                throw new IllegalStateException("auth.token.active-key-id 不存在於 auth.token.keys: " + activeKeyId);
+            }
+        }
+        this.revocationMaximumSize = properties.getRevocationMaximumSize();
+        this.maxRevocationsPerUser = properties.getMaxRevocationsPerUser();
+        this.userRevocations = Caffeine.newBuilder()
+            .scheduler(Scheduler.systemScheduler())
+            .expireAfterWrite(ttl.plus(clockSkew))
+            .build();
+        this.revoked = Caffeine.newBuilder()
+            .scheduler(Scheduler.systemScheduler())
+            .expireAfter(new Expiry<String, Instant>() {
+                @Override
+                public long expireAfterCreate(String tokenId, Instant expiresAt, long currentTime) {
+                    return Math.max(0, Duration.between(clock.instant(), expiresAt.plus(clockSkew)).toNanos());
+                }
+
+                @Override
+                public long expireAfterUpdate(String tokenId, Instant expiresAt, long currentTime, long currentDuration) {
+                    return currentDuration;
+                }
+
+                @Override
+                public long expireAfterRead(String tokenId, Instant expiresAt, long currentTime, long currentDuration) {
+                    return currentDuration;
+                }
+            })
+            .build();
+    }
+
+    /**
+     * 為登入成功的用戶簽發權杖
+     */
+    public AccessToken issue(User user) {
+        Instant expiresAt = clock.instant().plus(ttl);
+        byte[] tokenId = new byte[TOKEN_ID_BYTES];
+        random.nextBytes(tokenId);
+        byte[] loginId = user.getLoginId().getBytes(StandardCharsets.UTF_8);
+        ByteBuffer payload = ByteBuffer.allocate(8 + 8 + TOKEN_ID_BYTES + loginId.length)
+            .putLong(user.getId())
+            .putLong(expiresAt.getEpochSecond())
+            .put(tokenId)
+            .put(loginId);
+        String signedPart = activeKeyId + "." + ENCODER.encodeToString(payload.array());
+        String token = signedPart + "." + ENCODER.encodeToString(sign(activeKeyId, signedPart));
+        return new AccessToken(token, Instant.ofEpochSecond(expiresAt.getEpochSecond()));
+    }
+
+    /**
+     * 驗證權杖
+     * @return 簽章正確、未到期且未撤銷時回傳權杖內容
+     */
+    public Optional<AccessTokenClaims> verify(String token) {
+        int firstDot = token.indexOf('.');
+        int lastDot = token.lastIndexOf('.');
+        if (firstDot <= 0 || lastDot == firstDot) {
+            return Optional.empty();
+        }
+        String keyId = token.substring(0, firstDot);
+        if (!prototypes.containsKey(keyId)) {
+            return Optional.empty();
+        }
+        String signedPart = token.substring(0, lastDot);
+        try {
+            byte[] signature = DECODER.decode(token.substring(lastDot + 1));
+            if (!MessageDigest.isEqual(signature, sign(keyId, signedPart))) {
+                return Optional.empty();
+            }
+            ByteBuffer payload = ByteBuffer.wrap(DECODER.decode(token.substring(firstDot + 1, lastDot)));
+            long userId = payload.getLong();
+            Instant expiresAt = Instant.ofEpochSecond(payload.getLong());
+            byte[] tokenIdBytes = new byte[TOKEN_ID_BYTES];
+            payload.get(tokenIdBytes);
+            byte[] loginId = new byte[payload.remaining()];
+            payload.get(loginId);
+
+            if (clock.instant().isAfter(expiresAt.plus(clockSkew)) || expiresAt.getEpochSecond() <= revokedExpiringBy) {
+                return Optional.empty();
+            }
+            UserRevocations userState = userRevocations.getIfPresent(userId);
+            if (userState != null && expiresAt.getEpochSecond() <= userState.expiringBy()) {
+                return Optional.empty();
+            }
+            String tokenId = ENCODER.encodeToString(tokenIdBytes);
+            if (revoked.getIfPresent(tokenId) != null) {
+                return Optional.empty();
+            }
+            return Optional.of(new AccessTokenClaims(userId, new String(loginId, StandardCharsets.UTF_8), tokenId, expiresAt));
+        } catch (IllegalArgumentException | BufferUnderflowException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * 撤銷權杖，直到其原本的到期時間
+     * 用戶撤銷次數超過上限時改為撤銷該用戶目前所有的權杖；
+     * 撤銷清單已滿時不逐出舊項目，而是讓目前所有已簽發的權杖失效，所有用戶需重新登入
+     */
+    public void revoke(AccessTokenClaims claims) {
+        long expiringBy = clock.instant().plus(ttl).getEpochSecond();
+        UserRevocations userState = userRevocations.asMap().merge(claims.userId(), new UserRevocations(1, Long.MIN_VALUE),
+            (current, first) -> current.count() < maxRevocationsPerUser
+                ? new UserRevocations(current.count() + 1, current.expiringBy())
+                : new UserRevocations(maxRevocationsPerUser + 1, expiringBy));
+        if (userState.count() > maxRevocationsPerUser) {
+            log.info("用戶撤銷次數超過上限 {}，撤銷其目前所有權杖: userId={}", maxRevocationsPerUser, claims.userId());
+            return;
+        }
+        if (revoked.estimatedSize() >= revocationMaximumSize) {
+            revoked.cleanUp();
+            if (revoked.estimatedSize() >= revocationMaximumSize) {
+                revokedExpiringBy = clock.instant().plus(ttl).getEpochSecond();
+                revoked.invalidateAll();
+                log.warn("權杖撤銷清單已達上限 {}，撤銷本實例目前所有已簽發的權杖", revocationMaximumSize);
+                return;
+            }
+        }
+        revoked.put(claims.tokenId(), claims.expiresAt());
+        log.info("權杖已撤銷: userId={}, tokenId={}", claims.userId(), claims.tokenId());
+    }
+
+    /**
+     * 用戶在權杖有效期間內的撤銷次數；超過上限後到期時間不晚於 expiringBy 的權杖一律視為已撤銷
+     */
+    private record UserRevocations(int count, long expiringBy) {
+    }
+
+    private byte[] sign(String keyId, String signedPart) {
+        try {
+            Mac mac = (Mac) prototypes.get(keyId).clone();
+            return mac.doFinal(signedPart.getBytes(StandardCharsets.US_ASCII));
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException(ALGORITHM + " 不支援 clone", e);
+        }
+    }
+
+    private static Mac newPrototype(String keyId, byte[] secret) {
+        if (secret.length < MIN_SECRET_BYTES) {
+            throw new IllegalStateException("權杖金鑰 " + keyId + " 長度不足 " + MIN_SECRET_BYTES + " bytes");
+        }
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(new SecretKeySpec(secret, ALGORITHM));
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("無法初始化 " + ALGORITHM, e);
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.springboot_mysql_login_ci_sonar.service;
+
+import com.example.springboot_mysql_login_ci_sonar.config.AuthLogProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 認證事件日誌
+ * 每個請求只輸出一筆固定格式的 key=value 事件（logger 名稱 auth.events），
+ * 成功事件依比例取樣、失敗事件全部保留。
+ * 請求執行緒只建立事件物件並放入有界佇列，由背景執行緒格式化及寫出；佇列已滿時直接丟棄並計數。
+ */
+@Component
+@Slf4j
+public class AuthEventLogger implements DisposableBean {
+
+    static final String LOGGER_NAME = "auth.events";
+    private static final Logger EVENTS = LoggerFactory.getLogger(LOGGER_NAME);
+    private static final int DRAIN_BATCH = 256;
+
+    private final boolean enabled;
+    private final double successSampleRate;
+    private final BlockingQueue<AuthEvent> queue;
+    private final Thread writer;
+    private final Counter dropped;
+    private final Counter sampledOut;
+
+    public AuthEventLogger(AuthLogProperties properties, MeterRegistry meterRegistry) {
+        this.enabled = properties.isEnabled();
+        this.successSampleRate = properties.getSuccessSampleRate();
+        this.dropped = Counter.builder("auth.log.dropped")
+            .description("非同步佇列已滿而丟棄的認證事件數")
+            .register(meterRegistry);
+        this.sampledOut = Counter.builder("auth.log.sampled.out")
+            .description("取樣未輸出的成功事件數")
+            .register(meterRegistry);
+        if (properties.isAsync()) {
+            this.queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+            Gauge.builder("auth.log.queue.size", queue, BlockingQueue::size)
+                .description("待寫出的認證事件數")
+                .register(meterRegistry);
+            this.writer = new Thread(this::drainLoop, "auth-event-writer");
+            this.writer.setDaemon(true);
+            this.writer.start();
+        } else {
+            this.queue = null;
+            this.writer = null;
+        }
+    }
+
+    /**
+     * 記錄成功事件（依 successSampleRate 取樣）
+     * @param event 事件名稱，例如 login、signup
+     */
+    public void success(String event, String loginId, Long userId) {
+        if (!enabled || !EVENTS.isInfoEnabled()) {
+            return;
+        }
+        if (successSampleRate < 1.0 && ThreadLocalRandom.current().nextDouble() >= successSampleRate) {
+            sampledOut.increment();
+            return;
+        }
+        submit(new AuthEvent(System.currentTimeMillis(), event, true, loginId, userId, null));
+    }
+
+    /**
+     * 記錄失敗事件（一律輸出）
+     * @param reason 失敗原因代碼，例如 user_not_found、bad_password
+     */
+    public void failure(String event, String loginId, String reason) {
+        if (!enabled || !EVENTS.isInfoEnabled()) {
+            return;
+        }
+        submit(new AuthEvent(System.currentTimeMillis(), event, false, loginId, null, reason));
+    }
+
+    private void submit(AuthEvent event) {
+        if (queue == null) {
+            write(event);
+        } else if (!queue.offer(event)) {
+            dropped.increment();
+        }
+    }
+
+    private void drainLoop() {
+        List<AuthEvent> batch = new ArrayList<>(DRAIN_BATCH);
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                batch.add(queue.take());
+                queue.drainTo(batch, DRAIN_BATCH - 1);
+                batch.forEach(AuthEventLogger::write);
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void write(AuthEvent event) {
+        if (event.success()) {
+            EVENTS.info("ts={} event={} outcome=success loginId={} userId={}",
+                event.timestamp(), event.event(), event.loginId(), event.userId());
+        } else {
+            EVENTS.info("ts={} event={} outcome=failure loginId={} reason={}",
+                event.timestamp(), event.event(), event.loginId(), event.reason());
+        }
+    }
+
+    /**
+     * 關閉時寫出佇列中剩餘的事件
+     */
+    @Override
+    public void destroy() throws InterruptedException {
+        if (writer == null) {
+            return;
+        }
+        writer.interrupt();
+        writer.join(1000);
+        List<AuthEvent> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        remaining.forEach(AuthEventLogger::write);
+        log.info("認證事件日誌已關閉: 寫出剩餘 {} 筆，累計丟棄 {} 筆", remaining.size(), (long) dropped.count());
+    }
+
+    private record AuthEvent(long timestamp, String event, boolean success, String loginId, Long userId, String reason) {
+    }
+}
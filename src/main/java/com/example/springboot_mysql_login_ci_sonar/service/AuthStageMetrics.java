@@ -0,0 +1,67 @@
+package com.example.springboot_mysql_login_ci_sonar.service;
+
+import com.example.springboot_mysql_login_ci_sonar.config.AuthMetricsProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * 認證流程各階段耗時
+ * 以 auth.stage 計時器（operation、stage 標籤，含百分位直方圖）記錄，
+ * 啟用 Server-Timing 時同時累加到目前請求，由 ServerTimingAdvice 寫入回應標頭。
+ */
+@Component
+@RequiredArgsConstructor
+public class AuthStageMetrics {
+
+    public static final String TIMER_NAME = "auth.stage";
+
+    private final MeterRegistry meterRegistry;
+    private final AuthMetricsProperties properties;
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    /**
+     * 執行並記錄一個階段的耗時（例外時仍會記錄）
+     * @param operation 操作，例如 login、signup
+     * @param stage 階段，例如 lookup、verify
+     */
+    public <T> T record(String operation, String stage, Supplier<T> body) {
+        long start = System.nanoTime();
+        try {
+            return body.get();
+        } finally {
+            stop(operation, stage, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * 執行並記錄一個沒有回傳值的階段
+     */
+    public void record(String operation, String stage, Runnable body) {
+        long start = System.nanoTime();
+        try {
+            body.run();
+        } finally {
+            stop(operation, stage, System.nanoTime() - start);
+        }
+    }
+
+    private void stop(String operation, String stage, long nanos) {
+        timers.computeIfAbsent(operation + '.' + stage, key -> Timer.builder(TIMER_NAME)
+                .description("認證流程各階段耗時")
+                .tag("operation", operation)
+                .tag("stage", stage)
+                .publishPercentileHistogram()
+                .register(meterRegistry))
+            .record(nanos, TimeUnit.NANOSECONDS);
+        if (properties.isServerTiming()) {
+            ServerTiming.add(stage, nanos);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.springboot_mysql_login_ci_sonar.service;
+
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+/**
+ * 憑證摘要
+ * 以 HMAC-SHA256(loginId, password) 代表一組憑證，供記憶體中的快取與去重當作鍵，不保留明文密碼。
+ * HMAC 金鑰每次啟動隨機產生，不會落地。
+ */
+@Component
+public class CredentialDigest {
+
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private final Mac prototype;
+
+    public CredentialDigest() {
+        byte[] secret = new byte[32];
+        new SecureRandom().nextBytes(secret);
+        try {
+            this.prototype = Mac.getInstance(ALGORITHM);
+            this.prototype.init(new SecretKeySpec(secret, ALGORITHM));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("無法初始化 " + ALGORITHM, e);
+        }
+    }
+
+    /**
+     * 計算憑證摘要（Base64）
+     */
+    public String of(String loginId, String password) {
+        byte[] loginIdBytes = loginId.getBytes(StandardCharsets.UTF_8);
+        byte[] passwordBytes = password.getBytes(StandardCharsets.UTF_8);
+        // 加上長度前綴，避免 ("ab","c") 與 ("a","bc") 產生相同輸入
+        ByteBuffer input = ByteBuffer.allocate(4 + loginIdBytes.length + passwordBytes.length)
+            .putInt(loginIdBytes.length)
+            .put(loginIdBytes)
+            .put(passwordBytes);
+        return Base64.getEncoder().encodeToString(newMac().doFinal(input.array()));
+    }
+
+    private Mac newMac() {
+        try {
+            return (Mac) prototype.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException(ALGORITHM + " 不支援 clone", e);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.springboot_mysql_login_ci_sonar.service;
+
+/**
+ * 密碼雜湊執行緒池過載時拋出的例外
+ */
+public class HashingOverloadedException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public HashingOverloadedException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.springboot_mysql_login_ci_sonar.service;
+
+/**
+ * 用戶匯入結果（本次執行，不含斷點前已處理的資料）
+ * @param imported 新增筆數
+ * @param skipped 上次中斷時寫入中的批次已寫入而略過的筆數
+ * @param failed 格式錯誤、驗證失敗或寫入衝突的筆數
+ * @param resumedAfterLine 由斷點續傳時已處理的最後行號，從頭開始時為 0
+ * @param elapsedMillis 耗時
+ */
+public record ImportResult(long imported, long skipped, long failed, long resumedAfterLine, long elapsedMillis) {
+
+    public double rowsPerSecond() {
+        return elapsedMillis == 0 ? 0 : (imported + skipped + failed) * 1000.0 / elapsedMillis;
+    }
+}
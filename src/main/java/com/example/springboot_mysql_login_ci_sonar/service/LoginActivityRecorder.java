@@ -0,0 +1,478 @@
+package com.example.springboot_mysql_login_ci_sonar.service;
+
+import com.example.springboot_mysql_login_ci_sonar.config.LoginActivityProperties;
+import com.example.springboot_mysql_login_ci_sonar.entity.User;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 登入活動記錄
+ * 登入流程只把事件放入無鎖環形緩衝區，由背景執行緒取出後寫入：
+ * 登入歷史逐筆批次 INSERT，最後登入時間與連續失敗次數依用戶合併成一筆 UPDATE / INSERT。
+ * 累積到 batchSize 或最早一筆事件等待超過 flushInterval 時寫入一批。
+ * 寫入失敗時依 overflowPolicy 由背景執行緒附加到本機溢出檔（空閒時重新寫入）或丟棄；
+ * 緩衝區已滿時直接丟棄並計數，登入執行緒不做任何檔案 I/O。
+ */
+@Component
+@Slf4j
+public class LoginActivityRecorder implements DisposableBean {
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private static final String INSERT_HISTORY =
+        "INSERT INTO login_history (user_id, success, reason, occurred_at) VALUES (?, ?, ?, ?)";
+    private static final String SELECT_EXISTING =
+        "SELECT user_id FROM user_login_activity WHERE user_id IN (:userIds)";
+    // 與寫入順序無關（溢出檔重新寫入的舊事件不會蓋掉較新的值）：時間只取較新者，
+    // 這批的成功比已記錄的最後失敗更新時才歸零，否則只累加比已記錄的最後成功更新的失敗。
+    // failed_attempts 放在最前面：MySQL 依序套用 SET，後面的欄位讀到的是已更新的值
+    private static final String UPDATE_ACTIVITY = "UPDATE user_login_activity SET "
+        + "failed_attempts = CASE "
+        + "WHEN ? = 1 AND (last_failed_at IS NULL OR ? > last_failed_at) THEN ? "
+        + "WHEN last_login_at IS NULL OR ? > last_login_at THEN failed_attempts + ? "
+        + "ELSE failed_attempts END, "
+        + "last_login_at = CASE WHEN last_login_at IS NULL OR ? > last_login_at THEN COALESCE(?, last_login_at) ELSE last_login_at END, "
+        + "last_failed_at = CASE WHEN last_failed_at IS NULL OR ? > last_failed_at THEN COALESCE(?, last_failed_at) ELSE last_failed_at END "
+        + "WHERE user_id = ?";
+    private static final String INSERT_ACTIVITY =
+        "INSERT INTO user_login_activity (user_id, last_login_at, last_failed_at, failed_attempts) VALUES (?, ?, ?, ?)";
+
+    private final boolean enabled;
+    private final int batchSize;
+    private final long flushIntervalMillis;
+    private final LoginActivityProperties.OverflowPolicy overflowPolicy;
+    private final Path overflowFile;
+    private final Path replayFile;
+    private final long overflowMaxBytes;
+    private final JdbcTemplate jdbc;
+    private final NamedParameterJdbcTemplate named;
+    private final TransactionTemplate transactions;
+    private final UserShards userShards;
+    private final RingBuffer<LoginEvent> buffer;
+    private final Counter written;
+    private final Counter spilled;
+    private final Counter dropped;
+    private final Timer flushTimer;
+    private final Thread writer;
+
+    private volatile boolean running = true;
+    private volatile long oldestPendingMillis;
+
+    public LoginActivityRecorder(LoginActivityProperties properties, JdbcTemplate jdbc,
+                                 PlatformTransactionManager transactionManager, UserShards userShards,
+                                 MeterRegistry meterRegistry) {
+        this.enabled = properties.isEnabled();
+        this.batchSize = properties.getBatchSize();
+        this.flushIntervalMillis = properties.getFlushInterval().toMillis();
+        this.overflowPolicy = properties.getOverflowPolicy();
+        this.overflowFile = properties.getOverflowFile();
+        this.replayFile = overflowFile.resolveSibling(overflowFile.getFileName() + ".replaying");
+        this.overflowMaxBytes = properties.getOverflowMaxSize().toBytes();
+        this.jdbc = jdbc;
+        this.named = new NamedParameterJdbcTemplate(jdbc);
+        this.transactions = new TransactionTemplate(transactionManager);
+        this.userShards = userShards;
+        this.buffer = new RingBuffer<>(properties.getBufferSize());
+        if (enabled && overflowPolicy == LoginActivityProperties.OverflowPolicy.SPILL) {
+            checkOverflowDirectory(overflowFile);
+        }
+
+        this.written = Counter.builder("auth.login.activity.written")
+            .description("已寫入資料庫的登入事件數")
+            .register(meterRegistry);
+        this.spilled = Counter.builder("auth.login.activity.spilled")
+            .description("附加到溢出檔的登入事件數")
+            .register(meterRegistry);
+        this.dropped = Counter.builder("auth.login.activity.dropped")
+            .description("丟棄的登入事件數")
+            .register(meterRegistry);
+        this.flushTimer = Timer.builder("auth.login.activity.flush")
+            .description("每批寫入耗時")
+            .register(meterRegistry);
+        Gauge.builder("auth.login.activity.buffer.size", buffer, RingBuffer::size)
+            .description("緩衝區中待取出的登入事件數")
+            .register(meterRegistry);
+        TimeGauge.builder("auth.login.activity.lag", this, TimeUnit.MILLISECONDS, LoginActivityRecorder::lagMillis)
+            .description("最早一筆未寫入事件的等待時間")
+            .register(meterRegistry);
+
+        if (enabled) {
+            this.writer = new Thread(this::writeLoop, "login-activity-writer");
+            this.writer.setDaemon(true);
+            this.writer.start();
+        } else {
+            this.writer = null;
+        }
+    }
+
+    /**
+     * 記錄成功登入
+     */
+    public void success(User user) {
+        record(new LoginEvent(System.currentTimeMillis(), user.getId(), user.getLoginId(), true, null));
+    }
+
+    /**
+     * 記錄已知用戶的失敗登入（登入 ID 不存在時沒有用戶可記錄）
+     * @param reason 失敗原因代碼，例如 bad_password、disabled
+     */
+    public void failure(User user, String reason) {
+        record(new LoginEvent(System.currentTimeMillis(), user.getId(), user.getLoginId(), false, reason));
+    }
+
+    private void record(LoginEvent event) {
+        if (enabled && !buffer.offer(event)) {
+            // 背景寫入已跟不上，在登入執行緒上寫溢出檔只會讓每個登入排隊等磁碟
+            dropped.increment();
+        }
+    }
+
+    private void writeLoop() {
+        List<LoginEvent> pending = new ArrayList<>(batchSize);
+        long nextReplayMillis = 0;
+        while (running) {
+            LoginEvent event;
+            while (pending.size() < batchSize && (event = buffer.poll()) != null) {
+                if (pending.isEmpty()) {
+                    oldestPendingMillis = event.occurredAt();
+                }
+                pending.add(event);
+            }
+
+            long now = System.currentTimeMillis();
+            if (!pending.isEmpty() && (pending.size() >= batchSize || now - pending.get(0).occurredAt() >= flushIntervalMillis)) {
+                flush(pending);
+                pending.clear();
+                oldestPendingMillis = 0;
+                continue;
+            }
+            if (pending.isEmpty() && now >= nextReplayMillis) {
+                replayOverflow();
+                nextReplayMillis = now + flushIntervalMillis;
+            }
+            LockSupport.parkNanos(IDLE_PARK_NANOS);
+        }
+
+        // 關閉時寫出緩衝區剩餘的事件
+        LoginEvent event;
+        while ((event = buffer.poll()) != null) {
+            pending.add(event);
+            if (pending.size() >= batchSize) {
+                flush(pending);
+                pending.clear();
+            }
+        }
+        if (!pending.isEmpty()) {
+            flush(pending);
+        }
+        oldestPendingMillis = 0;
+    }
+
+    /**
+     * 寫入一批事件，失敗的部分依溢出策略處理
+     */
+    private void flush(List<LoginEvent> events) {
+        List<LoginEvent> failed = write(events);
+        if (!failed.isEmpty()) {
+            overflow(failed);
+        }
+    }
+
+    /**
+     * 依分片分組，每個分片一個交易
+     * @return 寫入失敗的事件
+     */
+    private List<LoginEvent> write(List<LoginEvent> events) {
+        List<LoginEvent> failed = new ArrayList<>();
+        for (Map.Entry<Integer, List<LoginEvent>> group : userShards.groupByShard(events, LoginEvent::loginId).entrySet()) {
+            List<LoginEvent> shardEvents = group.getValue();
+            try {
+                flushTimer.record(() -> userShards.onShard(group.getKey(),
+                    () -> transactions.execute(status -> writeBatch(shardEvents))));
+                written.increment(shardEvents.size());
+            } catch (RuntimeException e) {
+                // 其他實例同時新增同一用戶的活動列時也會失敗，重新寫入時會改走 UPDATE
+                log.warn("登入活動寫入失敗: shard={}, events={}, error={}", group.getKey(), shardEvents.size(), e.getMessage());
+                failed.addAll(shardEvents);
+            }
+        }
+        return failed;
+    }
+
+    private Void writeBatch(List<LoginEvent> events) {
+        jdbc.batchUpdate(INSERT_HISTORY, events, events.size(), (ps, event) -> {
+            ps.setLong(1, event.userId());
+            ps.setBoolean(2, event.success());
+            ps.setString(3, event.reason());
+            ps.setObject(4, toDateTime(event.occurredAt()));
+        });
+
+        Map<Long, ActivityDelta> deltas = new LinkedHashMap<>();
+        for (LoginEvent event : events) {
+            deltas.computeIfAbsent(event.userId(), id -> new ActivityDelta()).apply(event);
+        }
+        Set<Long> existing = new HashSet<>(named.queryForList(SELECT_EXISTING, Map.of("userIds", deltas.keySet()), Long.class));
+
+        List<Object[]> updates = new ArrayList<>();
+        List<Object[]> inserts = new ArrayList<>();
+        deltas.forEach((userId, delta) -> {
+            LocalDateTime lastLoginAt = delta.lastLoginAt();
+            LocalDateTime lastFailedAt = delta.lastFailedAt();
+            int failures = delta.failuresAfterLastLogin();
+            if (existing.contains(userId)) {
+                updates.add(new Object[]{lastLoginAt != null ? 1 : 0, lastLoginAt, failures, lastFailedAt, failures,
+                    lastLoginAt, lastLoginAt, lastFailedAt, lastFailedAt, userId});
+            } else {
+                inserts.add(new Object[]{userId, lastLoginAt, lastFailedAt, failures});
+            }
+        });
+        if (!updates.isEmpty()) {
+            jdbc.batchUpdate(UPDATE_ACTIVITY, updates);
+        }
+        if (!inserts.isEmpty()) {
+            jdbc.batchUpdate(INSERT_ACTIVITY, inserts);
+        }
+        return null;
+    }
+
+    /**
+     * 寫入失敗（只在背景執行緒呼叫）：SPILL 附加到溢出檔，DROP 或溢出檔已達上限時丟棄
+     */
+    private void overflow(List<LoginEvent> events) {
+        if (overflowPolicy == LoginActivityProperties.OverflowPolicy.DROP) {
+            dropped.increment(events.size());
+            return;
+        }
+        try {
+            if (Files.exists(overflowFile) && Files.size(overflowFile) >= overflowMaxBytes) {
+                dropped.increment(events.size());
+                return;
+            }
+            appendOverflow(events);
+            spilled.increment(events.size());
+        } catch (IOException e) {
+            log.error("登入活動溢出檔寫入失敗: file={}, events={}", overflowFile, events.size(), e);
+            dropped.increment(events.size());
+        }
+    }
+
+    /**
+     * 啟動時確認溢出檔目錄可寫入，避免資料庫故障時才發現事件無處可放
+     */
+    private static void checkOverflowDirectory(Path overflowFile) {
+        Path directory = overflowFile.toAbsolutePath().getParent();
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new IllegalStateException("無法建立登入活動溢出檔目錄: " + directory, e);
+        }
+        if (!Files.isWritable(directory)) {
+            throw new IllegalStateException("登入活動溢出檔目錄不可寫入: " + directory);
+        }
+    }
+
+    private void appendOverflow(List<LoginEvent> events) throws IOException {
+        Path parent = overflowFile.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        try (Writer out = Files.newBufferedWriter(overflowFile, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            for (LoginEvent event : events) {
+                out.write(Long.toString(event.occurredAt()));
+                out.write(',');
+                out.write(Long.toString(event.userId()));
+                out.write(',');
+                Csv.writeField(out, event.loginId());
+                out.write(',');
+                out.write(Boolean.toString(event.success()));
+                out.write(',');
+                Csv.writeField(out, event.reason());
+                out.write('\n');
+            }
+        }
+    }
+
+    /**
+     * 將溢出檔改名後逐批重新寫入；上次中斷留下的改名檔優先處理，仍失敗的事件附加回溢出檔
+     */
+    private void replayOverflow() {
+        try {
+            if (!Files.exists(replayFile)) {
+                if (!Files.exists(overflowFile)) {
+                    return;
+                }
+                Files.move(overflowFile, replayFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            log.warn("登入活動溢出檔無法改名: file={}, error={}", overflowFile, e.getMessage());
+            return;
+        }
+
+        int replayed = 0;
+        List<LoginEvent> retry = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(replayFile, StandardCharsets.UTF_8)) {
+            List<LoginEvent> batch = new ArrayList<>(batchSize);
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    batch.add(parseOverflowLine(line));
+                } catch (RuntimeException e) {
+                    log.warn("略過無法解析的登入活動溢出資料: {}", line);
+                    continue;
+                }
+                if (batch.size() >= batchSize) {
+                    replayed += replayBatch(batch, retry);
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+            if (!batch.isEmpty()) {
+                replayed += replayBatch(batch, retry);
+            }
+        } catch (IOException e) {
+            // 已寫入的批次會在下次重新寫入時重複，歷史資料可能多出相同的列
+            log.error("登入活動溢出檔讀取失敗，保留至下次重新寫入: file={}", replayFile, e);
+            return;
+        }
+
+        try {
+            if (!retry.isEmpty()) {
+                appendOverflow(retry);
+            }
+            Files.delete(replayFile);
+        } catch (IOException e) {
+            log.error("登入活動溢出檔更新失敗: file={}", replayFile, e);
+            return;
+        }
+        log.info("登入活動溢出檔重新寫入: written={}, remaining={}", replayed, retry.size());
+    }
+
+    /**
+     * 已有失敗時後續批次不再嘗試，直接保留，避免資料庫無法使用時反覆逾時
+     */
+    private int replayBatch(List<LoginEvent> batch, List<LoginEvent> retry) {
+        if (!retry.isEmpty()) {
+            retry.addAll(batch);
+            return 0;
+        }
+        List<LoginEvent> failed = write(batch);
+        retry.addAll(failed);
+        return batch.size() - failed.size();
+    }
+
+    private static LoginEvent parseOverflowLine(String line) {
+        List<String> fields = Csv.parseLine(line);
+        String reason = fields.get(4);
+        return new LoginEvent(Long.parseLong(fields.get(0)), Long.parseLong(fields.get(1)), fields.get(2),
+            Boolean.parseBoolean(fields.get(3)), reason.isEmpty() ? null : reason);
+    }
+
+    private double lagMillis() {
+        long oldest = oldestPendingMillis;
+        return oldest == 0 ? 0 : Math.max(0, System.currentTimeMillis() - oldest);
+    }
+
+    private static LocalDateTime toDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+
+    /**
+     * 關閉時寫出緩衝區剩餘的事件
+     */
+    @Override
+    public void destroy() throws InterruptedException {
+        if (writer == null) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(writer);
+        writer.join(TimeUnit.SECONDS.toMillis(5));
+        log.info("登入活動記錄已關閉: 累計寫入 {} 筆，溢出 {} 筆，丟棄 {} 筆",
+            (long) written.count(), (long) spilled.count(), (long) dropped.count());
+    }
+
+    private record LoginEvent(long occurredAt, long userId, String loginId, boolean success, String reason) {
+    }
+
+    /**
+     * 同一用戶在一批事件中的合併結果（依事件時間計算，與事件順序無關）
+     */
+    private static final class ActivityDelta {
+
+        private long lastLoginAt;
+        private int lastLoginOrder = -1;
+        private long lastFailedAt;
+        private final List<long[]> failures = new ArrayList<>();
+        private int order;
+
+        /**
+         * 同一毫秒的事件依取出順序判斷先後
+         */
+        void apply(LoginEvent event) {
+            int eventOrder = order++;
+            if (event.success()) {
+                if (event.occurredAt() >= lastLoginAt) {
+                    lastLoginAt = event.occurredAt();
+                    lastLoginOrder = eventOrder;
+                }
+            } else {
+                lastFailedAt = Math.max(lastFailedAt, event.occurredAt());
+                failures.add(new long[]{event.occurredAt(), eventOrder});
+            }
+        }
+
+        LocalDateTime lastLoginAt() {
+            return lastLoginAt == 0 ? null : toDateTime(lastLoginAt);
+        }
+
+        LocalDateTime lastFailedAt() {
+            return lastFailedAt == 0 ? null : toDateTime(lastFailedAt);
+        }
+
+        /**
+         * 這批最後一次成功之後的失敗次數（沒有成功時為全部失敗次數）
+         */
+        int failuresAfterLastLogin() {
+            int count = 0;
+            for (long[] failure : failures) {
+                if (failure[0] > lastLoginAt || (failure[0] == lastLoginAt && failure[1] > lastLoginOrder)) {
+                    count++;
+                }
+            }
+            return count;
+        }
+    }
+}
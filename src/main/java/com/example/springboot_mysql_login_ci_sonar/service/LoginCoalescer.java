@@ -0,0 +1,116 @@
+package com.example.springboot_mysql_login_ci_sonar.service;
+
+import com.example.springboot_mysql_login_ci_sonar.config.LoginCoalescingProperties;
+import com.example.springboot_mysql_login_ci_sonar.entity.User;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * 相同登入請求合併（single-flight）
+ * 以 HMAC(loginId, password) 為鍵：同一組憑證已有驗證進行中時，後到的請求等待並共用同一次查詢與 BCrypt 結果。
+ * 驗證完成即移出，不保留結果；進行中的鍵數達上限時不合併。
+ */
+@Component
+public class LoginCoalescer {
+
+    private final boolean enabled;
+    private final int maxInFlight;
+    private final CredentialDigest digest;
+    private final ConcurrentHashMap<String, CompletableFuture<Attempt>> inFlight = new ConcurrentHashMap<>();
+    private final Counter joined;
+    private final Counter bypassed;
+
+    public LoginCoalescer(LoginCoalescingProperties properties, CredentialDigest digest, MeterRegistry meterRegistry) {
+        this.enabled = properties.isEnabled();
+        this.maxInFlight = properties.getMaxInFlight();
+        this.digest = digest;
+        this.joined = Counter.builder("auth.login.coalesced")
+            .description("共用進行中驗證結果的登入數")
+            .register(meterRegistry);
+        this.bypassed = Counter.builder("auth.login.coalescing.bypassed")
+            .description("進行中的鍵數已達上限而未合併的登入數")
+            .register(meterRegistry);
+        Gauge.builder("auth.login.in.flight", inFlight, ConcurrentHashMap::size)
+            .description("進行中的不同登入憑證數")
+            .register(meterRegistry);
+    }
+
+    /**
+     * 執行登入驗證；相同憑證的並發請求只會執行一次 task，例外也會傳給所有等待者
+     */
+    public Attempt execute(String loginId, String password, Supplier<Attempt> task) {
+        if (!enabled) {
+            return task.get();
+        }
+        if (inFlight.size() >= maxInFlight) {
+            bypassed.increment();
+            return task.get();
+        }
+
+        String key = digest.of(loginId, password);
+        CompletableFuture<Attempt> flight = new CompletableFuture<>();
+        CompletableFuture<Attempt> existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            joined.increment();
+            return await(existing);
+        }
+
+        try {
+            Attempt attempt = task.get();
+            inFlight.remove(key, flight);
+            flight.complete(attempt);
+            return attempt;
+        } catch (RuntimeException | Error e) {
+            inFlight.remove(key, flight);
+            flight.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    int inFlightCount() {
+        return inFlight.size();
+    }
+
+    private static Attempt await(CompletableFuture<Attempt> flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * 一次登入驗證的結果：失敗時 failureReason 為認證事件的原因，找得到用戶時 user 仍不為 null
+     */
+    public record Attempt(User user, String failureReason) {
+
+        public static Attempt success(User user) {
+            return new Attempt(user, null);
+        }
+
+        public static Attempt failure(String reason) {
+            return new Attempt(null, reason);
+        }
+
+        public static Attempt failure(User user, String reason) {
+            return new Attempt(user, reason);
+        }
+
+        public boolean succeeded() {
+            return failureReason == null;
+        }
+    }
+}
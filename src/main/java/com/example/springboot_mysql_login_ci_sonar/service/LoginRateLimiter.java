@@ -0,0 +1,86 @@
+package com.example.springboot_mysql_login_ci_sonar.service;
+
+import com.example.springboot_mysql_login_ci_sonar.config.RateLimitProperties;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 登入限流
+ * 依來源 IP 與登入 ID 各自限制嘗試次數，在查詢資料庫與 BCrypt 比對前拒絕過量請求。
+ * 計數只存在於本機記憶體，多實例部署時每個實例各自計算。
+ */
+@Component
+@Slf4j
+public class LoginRateLimiter {
+
+    private final boolean enabled;
+    private final TokenBucketLimiter byIp;
+    private final TokenBucketLimiter byLoginId;
+    private final Counter ipRejections;
+    private final Counter loginIdRejections;
+
+    @Autowired
+    public LoginRateLimiter(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this(properties, meterRegistry, Ticker.systemTicker());
+    }
+
+    LoginRateLimiter(RateLimitProperties properties, MeterRegistry meterRegistry, Ticker ticker) {
+        this.enabled = properties.isEnabled();
+        this.byIp = new TokenBucketLimiter(properties.getIp().getCapacity(), properties.getIp().getRefillPeriod(),
+            properties.getMaximumKeys(), ticker);
+        this.byLoginId = new TokenBucketLimiter(properties.getLoginId().getCapacity(), properties.getLoginId().getRefillPeriod(),
+            properties.getMaximumKeys(), ticker);
+        this.ipRejections = Counter.builder("auth.rate.limited")
+            .description("超過登入限流而被拒絕的請求數")
+            .tag("key", "ip")
+            .register(meterRegistry);
+        this.loginIdRejections = Counter.builder("auth.rate.limited")
+            .description("超過登入限流而被拒絕的請求數")
+            .tag("key", "loginId")
+            .register(meterRegistry);
+        Gauge.builder("auth.rate.keys", byIp, TokenBucketLimiter::estimatedSize)
+            .description("登入限流追蹤中的鍵數")
+            .tag("key", "ip")
+            .register(meterRegistry);
+        Gauge.builder("auth.rate.keys", byLoginId, TokenBucketLimiter::estimatedSize)
+            .description("登入限流追蹤中的鍵數")
+            .tag("key", "loginId")
+            .register(meterRegistry);
+    }
+
+    /**
+     * 記錄一次登入嘗試
+     * @param loginId 登入 ID（不分大小寫）
+     * @param clientIp 來源 IP
+     * @throws RateLimitExceededException 當來源 IP 或登入 ID 超過限制時
+     */
+    public void check(String loginId, String clientIp) {
+        if (!enabled) {
+            return;
+        }
+        long wait = byIp.tryAcquire(clientIp);
+        if (wait > 0) {
+            ipRejections.increment();
+            log.debug("登入限流: 來源 IP 嘗試過於頻繁 ip={}", clientIp);
+            throw new RateLimitExceededException("來源 IP 登入嘗試過於頻繁", retryAfterSeconds(wait));
+        }
+        wait = byLoginId.tryAcquire(loginId.toLowerCase(Locale.ROOT));
+        if (wait > 0) {
+            loginIdRejections.increment();
+            log.debug("登入限流: 登入 ID 嘗試過於頻繁 loginId={}", loginId);
+            throw new RateLimitExceededException("登入 ID 嘗試過於頻繁", retryAfterSeconds(wait));
+        }
+    }
+
+    private static long retryAfterSeconds(long waitNanos) {
+        return Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.springboot_mysql_login_ci_sonar.service;
+
+import com.example.springboot_mysql_login_ci_sonar.config.HashingProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * 密碼雜湊專用執行緒池
+ * 將 BCrypt 運算移出 Tomcat 請求執行緒，佇列滿或等待逾時即快速失敗
+ */
+@Component
+@Slf4j
+public class PasswordHashingExecutor implements DisposableBean {
+
+    private final ThreadPoolExecutor executor;
+    private final int poolSize;
+    private final long maxWaitMillis;
+    private final long retryAfterSeconds;
+
+    public PasswordHashingExecutor(HashingProperties properties) {
+        this.poolSize = properties.resolvedPoolSize();
+        this.executor = new ThreadPoolExecutor(
+            poolSize, poolSize,
+            0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(properties.getQueueCapacity()),
+            new HashingThreadFactory(),
+            new ThreadPoolExecutor.AbortPolicy()
+        );
+        this.maxWaitMillis = properties.getMaxWait().toMillis();
+        this.retryAfterSeconds = Math.max(1, properties.getRetryAfter().toSeconds());
+        log.info("密碼雜湊執行緒池已建立: poolSize={}, queueCapacity={}, maxWait={}ms",
+            poolSize, properties.getQueueCapacity(), maxWaitMillis);
+    }
+
+    /**
+     * 在雜湊執行緒池中執行工作並等待結果
+     * @param task 雜湊工作
+     * @return 工作結果
+     * @throws HashingOverloadedException 當佇列已滿或等待逾時
+     */
+    public <T> T execute(Supplier<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task::get);
+        } catch (RejectedExecutionException e) {
+            throw overloaded("密碼雜湊佇列已滿");
+        }
+
+        return await(future);
+    }
+
+    /**
+     * 平行執行多個雜湊工作，每次最多送出 poolSize 個，避免大批次塞滿佇列
+     * @param tasks 雜湊工作
+     * @return 依輸入順序排列的結果
+     * @throws HashingOverloadedException 當佇列已滿或等待逾時
+     */
+    public <T> List<T> executeAll(List<? extends Supplier<T>> tasks) {
+        List<T> results = new ArrayList<>(tasks.size());
+        for (int start = 0; start < tasks.size(); start += poolSize) {
+            List<Future<T>> window = new ArrayList<>(poolSize);
+            try {
+                for (Supplier<T> task : tasks.subList(start, Math.min(start + poolSize, tasks.size()))) {
+                    window.add(executor.submit(task::get));
+                }
+            } catch (RejectedExecutionException e) {
+                window.forEach(future -> future.cancel(true));
+                throw overloaded("密碼雜湊佇列已滿");
+            }
+            try {
+                for (Future<T> future : window) {
+                    results.add(await(future));
+                }
+            } catch (RuntimeException e) {
+                window.forEach(future -> future.cancel(true));
+                throw e;
+            }
+        }
+        return results;
+    }
+
+    private <T> T await(Future<T> future) {
+        try {
+            return future.get(maxWaitMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw overloaded("密碼雜湊等待逾時");
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw overloaded("密碼雜湊等待被中斷");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("密碼雜湊失敗", cause);
+        }
+    }
+
+    public int getQueueSize() {
+        return executor.getQueue().size();
+    }
+
+    public int getActiveCount() {
+        return executor.getActiveCount();
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    private HashingOverloadedException overloaded(String reason) {
+        log.warn("{}: active={}, queued={}", reason, executor.getActiveCount(), executor.getQueue().size());
+        return new HashingOverloadedException(reason, retryAfterSeconds);
+    }
+
+    private static class HashingThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "password-hashing-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.springboot_mysql_login_ci_sonar.service;
+
+import com.example.springboot_mysql_login_ci_sonar.config.PasswordProperties;
+import com.example.springboot_mysql_login_ci_sonar.entity.User;
+import com.example.springboot_mysql_login_ci_sonar.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 密碼雜湊升級服務
+ * 登入成功後若儲存的雜湊成本或演算法已過時，於背景以目前設定重新雜湊並寫回，
+ * 不延遲登入回應；佇列滿時直接略過，下次登入會再嘗試。
+ */
+@Component
+@Slf4j
+public class PasswordRehashService implements DisposableBean {
+
+    private static final int QUEUE_CAPACITY = 1000;
+
+    private final UserRepository userRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final UserCache userCache;
+    private final UserShards userShards;
+    private final boolean enabled;
+    private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
+    private final ThreadPoolExecutor executor;
+
+    public PasswordRehashService(UserRepository userRepository, PasswordEncoder passwordEncoder,
+                                 UserCache userCache, UserShards userShards, PasswordProperties properties) {
+        this.userRepository = userRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.userCache = userCache;
+        this.userShards = userShards;
+        this.enabled = properties.isRehashOnLogin();
+        this.executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(QUEUE_CAPACITY),
+            runnable -> {
+                Thread thread = new Thread(runnable, "password-rehash");
+                thread.setDaemon(true);
+                return thread;
+            });
+    }
+
+    /**
+     * 若雜湊需要升級則排入背景工作
+     * @param user 登入成功的用戶
+     * @param rawPassword 已驗證的明文密碼
+     */
+    public void rehashIfNeeded(User user, String rawPassword) {
+        String oldPassword = user.getPassword();
+        if (!enabled || !passwordEncoder.upgradeEncoding(oldPassword) || !inFlight.add(user.getId())) {
+            return;
+        }
+        try {
+            executor.execute(() -> rehash(user, rawPassword, oldPassword));
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(user.getId());
+            log.debug("密碼雜湊升級佇列已滿，略過: id={}", user.getId());
+        }
+    }
+
+    private void rehash(User user, String rawPassword, String oldPassword) {
+        try {
+            String newPassword = passwordEncoder.encode(rawPassword);
+            int updated = userShards.onLoginId(user.getLoginId(),
+                () -> userRepository.updatePasswordIfUnchanged(user.getId(), oldPassword, newPassword));
+            if (updated > 0) {
+                // 批次 UPDATE 不會觸發 Hibernate 事件，需自行讓快取失效
+                userCache.evict(user);
+                log.info("密碼雜湊已升級: id={}", user.getId());
+            }
+        } catch (RuntimeException e) {
+            log.warn("密碼雜湊升級失敗: id={}", user.getId(), e);
+        } finally {
+            inFlight.remove(user.getId());
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+}
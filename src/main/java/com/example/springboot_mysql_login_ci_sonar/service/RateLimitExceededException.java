@@ -0,0 +1,19 @@
+package com.example.springboot_mysql_login_ci_sonar.service;
+
+/**
+ * 超過登入限流時拋出的例外
+ * 暴力嘗試時會大量拋出，因此不記錄堆疊
+ */
+public class RateLimitExceededException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public RateLimitExceededException(String message, long retryAfterSeconds) {
+        super(message, null, false, false);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
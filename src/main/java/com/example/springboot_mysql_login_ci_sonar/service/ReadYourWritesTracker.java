@@ -0,0 +1,48 @@
+package com.example.springboot_mysql_login_ci_sonar.service;
+
+import com.example.springboot_mysql_login_ci_sonar.config.ReadReplicaProperties;
+import com.example.springboot_mysql_login_ci_sonar.config.ReadReplicaRouting;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Supplier;
+
+/**
+ * 寫入後讀取一致性
+ * 記錄最近註冊的登入 ID，在 stickyAfterWrite 時間內對它們的查詢固定走主庫，避免副本延遲而查不到。
+ * 只在本機生效；未啟用讀取副本時不記錄。
+ */
+@Component
+public class ReadYourWritesTracker {
+
+    private final boolean enabled;
+    private final Cache<String, Boolean> recentWrites;
+
+    public ReadYourWritesTracker(ReadReplicaProperties properties) {
+        this.enabled = properties.isEnabled();
+        this.recentWrites = Caffeine.newBuilder()
+            .maximumSize(100_000)
+            .expireAfterWrite(properties.getStickyAfterWrite())
+            .build();
+    }
+
+    /**
+     * 記錄剛寫入的登入 ID
+     */
+    public void markWritten(String loginId) {
+        if (enabled) {
+            recentWrites.put(loginId, Boolean.TRUE);
+        }
+    }
+
+    /**
+     * 查詢登入 ID；最近寫入過時改走主庫
+     */
+    public <T> T read(String loginId, Supplier<T> query) {
+        if (enabled && recentWrites.getIfPresent(loginId) != null) {
+            return ReadReplicaRouting.onPrimary(query);
+        }
+        return query.get();
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.springboot_mysql_login_ci_sonar.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 有界無鎖環形緩衝區（多生產者、單一消費者）
+ * 每個槽位以序號標示狀態：生產者以 CAS 取得寫入位置，寫入後推進序號發布；
+ * 消費者只讀取序號已發布的槽位。已滿時 offer 立即回傳 false，不阻塞呼叫端。
+ */
+final class RingBuffer<E> {
+
+    private final int capacity;
+    private final int mask;
+    private final AtomicReferenceArray<E> slots;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long head;
+
+    RingBuffer(int requestedCapacity) {
+        if (requestedCapacity < 2 || requestedCapacity > 1 << 30) {
+            throw new IllegalStateException("環形緩衝區容量必須介於 2 與 2^30 之間: " + requestedCapacity);
+        }
+        this.capacity = Integer.highestOneBit(requestedCapacity - 1) << 1;
+        this.mask = capacity - 1;
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * 放入元素（可由多個執行緒同時呼叫）
+     * @return false 代表緩衝區已滿
+     */
+    boolean offer(E element) {
+        long position = tail.get();
+        while (true) {
+            int index = (int) position & mask;
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    slots.lazySet(index, element);
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    /**
+     * 取出最舊的元素（只能由單一消費者執行緒呼叫）
+     * @return 緩衝區為空時回傳 null
+     */
+    E poll() {
+        long position = head;
+        int index = (int) position & mask;
+        if (sequences.get(index) != position + 1) {
+            return null;
+        }
+        E element = slots.get(index);
+        slots.lazySet(index, null);
+        sequences.set(index, position + capacity);
+        head = position + 1;
+        return element;
+    }
+
+    int size() {
+        return (int) Math.max(0, tail.get() - head);
+    }
+
+    int capacity() {
+        return capacity;
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.springboot_mysql_login_ci_sonar.service;
+
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.StringJoiner;
+
+/**
+ * 單一 HTTP 請求內各階段的累計耗時，用於產生 Server-Timing 回應標頭
+ * 保存於 request attribute，只在處理該請求的執行緒上累加
+ */
+public final class ServerTiming {
+
+    private static final String ATTRIBUTE = ServerTiming.class.getName();
+
+    private final Map<String, Long> durations = new LinkedHashMap<>();
+
+    private ServerTiming() {
+    }
+
+    /**
+     * 取得目前請求已記錄的耗時
+     * @return 目前請求的 ServerTiming，尚未記錄任何階段或不在 HTTP 請求中時回傳 null
+     */
+    public static ServerTiming current() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        return attributes == null ? null
+            : (ServerTiming) attributes.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+    }
+
+    /**
+     * 累加目前請求某階段的耗時，不在 HTTP 請求中時忽略
+     */
+    static void add(String stage, long nanos) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return;
+        }
+        ServerTiming timing = (ServerTiming) attributes.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (timing == null) {
+            timing = new ServerTiming();
+            attributes.setAttribute(ATTRIBUTE, timing, RequestAttributes.SCOPE_REQUEST);
+        }
+        timing.durations.merge(stage, nanos, Long::sum);
+    }
+
+    /**
+     * 轉為 Server-Timing 標頭值，例如 {@code lookup;dur=1.204, verify;dur=98.731}
+     */
+    public String toHeaderValue() {
+        StringJoiner joiner = new StringJoiner(", ");
+        durations.forEach((stage, nanos) ->
+            joiner.add(stage + ";dur=" + String.format(Locale.ROOT, "%.3f", nanos / 1_000_000.0)));
+        return joiner.toString();
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.springboot_mysql_login_ci_sonar.service;
+
+import com.example.springboot_mysql_login_ci_sonar.config.ShardRebalancer;
+import com.example.springboot_mysql_login_ci_sonar.config.ShardingProperties;
+import com.example.springboot_mysql_login_ci_sonar.repository.UsernameDirectory;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationContext;
+import org.springframework.stereotype.Component;
+
+/**
+ * 啟動時執行分片重新平衡（auth.sharding.rebalance.enabled=true 時才啟用）
+ * 先補齊用戶名稱目錄，再搬移不在正確分片上的用戶
+ */
+@Component
+@ConditionalOnProperty(prefix = "auth.sharding.rebalance", name = "enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class ShardRebalanceRunner implements ApplicationRunner {
+
+    private final ShardRebalancer rebalancer;
+    private final UsernameDirectory directory;
+    private final ShardingProperties properties;
+    private final ApplicationContext context;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        rebalancer.backfillDirectory(directory);
+        rebalancer.rebalance();
+
+        if (properties.getRebalance().isExitOnCompletion()) {
+            System.exit(SpringApplication.exit(context));
+        }
+    }
+}
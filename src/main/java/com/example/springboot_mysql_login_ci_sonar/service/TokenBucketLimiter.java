@@ -0,0 +1,59 @@
+package com.example.springboot_mysql_login_ci_sonar.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 以 GCRA（generic cell rate algorithm）實作的權杖桶
+ * 每個鍵只保存一個 AtomicLong（理論到達時間），以 CAS 更新不需加鎖。
+ * 鍵存放於 Caffeine：數量上限控制記憶體，閒置超過整桶補滿時間後移除（此時狀態等同新鍵，移除不影響結果）。
+ */
+class TokenBucketLimiter {
+
+    private final long emissionIntervalNanos;
+    private final long burstToleranceNanos;
+    private final Ticker ticker;
+    private final Cache<String, AtomicLong> buckets;
+
+    TokenBucketLimiter(int capacity, Duration refillPeriod, long maximumKeys, Ticker ticker) {
+        if (capacity < 1 || refillPeriod.isNegative() || refillPeriod.isZero()) {
+            throw new IllegalArgumentException("限流容量必須大於 0 且補充時間必須為正數");
+        }
+        this.emissionIntervalNanos = refillPeriod.toNanos();
+        this.burstToleranceNanos = emissionIntervalNanos * (capacity - 1);
+        this.ticker = ticker;
+        this.buckets = Caffeine.newBuilder()
+            .maximumSize(maximumKeys)
+            .expireAfterAccess(Duration.ofNanos(emissionIntervalNanos * capacity))
+            .ticker(ticker)
+            .build();
+    }
+
+    /**
+     * 嘗試消耗一次
+     * @return 0 代表允許；否則為需等待的奈秒數
+     */
+    long tryAcquire(String key) {
+        AtomicLong state = buckets.get(key, k -> new AtomicLong(Long.MIN_VALUE));
+        long now = ticker.read();
+        while (true) {
+            long tat = state.get();
+            long start = tat == Long.MIN_VALUE ? now : Math.max(tat, now);
+            long wait = start - now - burstToleranceNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (state.compareAndSet(tat, start + emissionIntervalNanos)) {
+                return 0;
+            }
+        }
+    }
+
+    long estimatedSize() {
+        return buckets.estimatedSize();
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.springboot_mysql_login_ci_sonar.service;
+
+import com.example.springboot_mysql_login_ci_sonar.config.UserCacheProperties;
+import com.example.springboot_mysql_login_ci_sonar.entity.User;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * 用戶讀穿快取
+ * 以 Caffeine（W-TinyLFU 淘汰策略）分別依登入 ID 與用戶名稱索引，
+ * 快取內容為副本，呼叫端修改回傳物件不會影響快取。
+ */
+@Component
+@Slf4j
+public class UserCache {
+
+    private final boolean enabled;
+    private final Cache<String, User> byLoginId;
+    private final Cache<String, User> byUsername;
+
+    public UserCache(UserCacheProperties properties, MeterRegistry meterRegistry) {
+        this.enabled = properties.isEnabled();
+        this.byLoginId = newCache(properties);
+        this.byUsername = newCache(properties);
+        CaffeineCacheMetrics.monitor(meterRegistry, byLoginId, "users.byLoginId");
+        CaffeineCacheMetrics.monitor(meterRegistry, byUsername, "users.byUsername");
+    }
+
+    /**
+     * 依登入 ID 讀取，未命中時由 loader 載入；查無資料不快取
+     */
+    public Optional<User> getByLoginId(String loginId, Supplier<Optional<User>> loader) {
+        return get(byLoginId, loginId, loader);
+    }
+
+    /**
+     * 依用戶名稱讀取，未命中時由 loader 載入；查無資料不快取
+     */
+    public Optional<User> getByUsername(String username, Supplier<Optional<User>> loader) {
+        return get(byUsername, username, loader);
+    }
+
+    /**
+     * 移除指定用戶的所有快取項目（登入 ID 與用戶名稱未變更時使用）
+     */
+    public void evict(User user) {
+        evict(user, user.getLoginId(), user.getUsername());
+    }
+
+    /**
+     * 依變更前後的登入 ID 與用戶名稱移除快取項目，並在交易提交後再移除一次，
+     * 避免提交前被其他執行緒以舊資料重新載入
+     */
+    public void evict(User user, String previousLoginId, String previousUsername) {
+        Set<String> loginIds = keys(previousLoginId, user.getLoginId());
+        Set<String> usernames = keys(previousUsername, user.getUsername());
+        evictNow(user.getId(), loginIds, usernames);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictNow(user.getId(), loginIds, usernames);
+                }
+            });
+        }
+    }
+
+    public void clear() {
+        byLoginId.invalidateAll();
+        byUsername.invalidateAll();
+    }
+
+    private Optional<User> get(Cache<String, User> cache, String key, Supplier<Optional<User>> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        User cached = cache.get(key, k -> loader.get().map(UserCache::copy).orElse(null));
+        if (cached == null) {
+            return Optional.empty();
+        }
+        // 另一個索引也一併填入
+        Cache<String, User> other = cache == byLoginId ? byUsername : byLoginId;
+        other.asMap().putIfAbsent(cache == byLoginId ? cached.getUsername() : cached.getLoginId(), cached);
+        return Optional.of(copy(cached));
+    }
+
+    private void evictNow(Long id, Set<String> loginIds, Set<String> usernames) {
+        // 依已知的鍵移除，並一併移除快取副本上另一個索引的鍵（兩個索引可能各自快取過不同版本）
+        for (String loginId : loginIds) {
+            User cached = byLoginId.asMap().remove(loginId);
+            if (cached != null) {
+                byUsername.invalidate(cached.getUsername());
+            }
+        }
+        for (String username : usernames) {
+            User cached = byUsername.asMap().remove(username);
+            if (cached != null) {
+                byLoginId.invalidate(cached.getLoginId());
+            }
+        }
+        log.debug("用戶快取已失效: id={}", id);
+    }
+
+    private static Set<String> keys(String previous, String current) {
+        Set<String> keys = new HashSet<>(2);
+        if (previous != null) {
+            keys.add(previous);
+        }
+        if (current != null) {
+            keys.add(current);
+        }
+        return keys;
+    }
+
+    private static Cache<String, User> newCache(UserCacheProperties properties) {
+        return Caffeine.newBuilder()
+            .maximumSize(properties.getMaximumSize())
+            .expireAfterWrite(properties.getTtl())
+            .recordStats()
+            .build();
+    }
+
+    private static User copy(User user) {
+        return new User(user.getId(), user.getUsername(), user.getLoginId(), user.getPassword(),
+            user.getCreatedAt(), user.getUpdatedAt(), user.getEnabled());
+    }
+}
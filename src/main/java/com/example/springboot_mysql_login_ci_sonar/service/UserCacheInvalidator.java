@@ -0,0 +1,66 @@
+package com.example.springboot_mysql_login_ci_sonar.service;
+
+import com.example.springboot_mysql_login_ci_sonar.entity.User;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+
+/**
+ * Hibernate 事件監聽器：用戶資料（啟用狀態、密碼、用戶名稱等）更新或刪除時讓快取失效
+ */
+@Component
+@RequiredArgsConstructor
+public class UserCacheInvalidator implements PostUpdateEventListener, PostDeleteEventListener {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final UserCache userCache;
+
+    @PostConstruct
+    void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+            .getServiceRegistry()
+            .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_UPDATE, this);
+        registry.appendListeners(EventType.POST_DELETE, this);
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (event.getEntity() instanceof User user) {
+            userCache.evict(user, previous(event, "loginId", user.getLoginId()), previous(event, "username", user.getUsername()));
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (event.getEntity() instanceof User user) {
+            userCache.evict(user);
+        }
+    }
+
+    /**
+     * 取得更新前的屬性值；沒有舊狀態（例如 merge 分離的實體）時回傳目前的值
+     */
+    private static String previous(PostUpdateEvent event, String property, String current) {
+        Object[] oldState = event.getOldState();
+        if (oldState == null) {
+            return current;
+        }
+        Object value = oldState[event.getPersister().getEntityMetamodel().getPropertyIndex(property)];
+        return value instanceof String previous ? previous : current;
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+}
@@ -0,0 +1,192 @@
+package com.example.springboot_mysql_login_ci_sonar.service;
+
+import com.example.springboot_mysql_login_ci_sonar.config.BloomFilterProperties;
+import com.example.springboot_mysql_login_ci_sonar.config.ReadReplicaRouting;
+import com.example.springboot_mysql_login_ci_sonar.dto.UserKeys;
+import com.example.springboot_mysql_login_ci_sonar.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * 用戶存在性負向索引
+ * 以 Bloom filter 記錄所有登入 ID 與用戶名稱，「確定不存在」時可跳過資料庫查詢。
+ * 啟動後於背景以 keyset 分頁讀取 users 表建立，並定期重建；建立完成前所有查詢都回傳「可能存在」。
+ * 只知道本實例註冊的用戶，其他實例（含 reactive 模式）新增的用戶在下次重建前會被誤判為不存在，
+ * 因此預設停用，只適合由單一實例寫入 users 表的部署。
+ */
+@Component
+@Slf4j
+public class UserExistenceFilter {
+
+    private final UserRepository userRepository;
+    private final UserShards userShards;
+    private final BloomFilterProperties properties;
+    private final Counter loginIdSkips;
+    private final Counter usernameSkips;
+
+    /** 保護 building 的設定與 current 的替換，add() 同時寫入兩者時不會遺漏 */
+    private final Object swapLock = new Object();
+
+    private volatile Filters current;
+    private volatile Filters building;
+
+    public UserExistenceFilter(UserRepository userRepository, UserShards userShards, BloomFilterProperties properties,
+                               MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.userShards = userShards;
+        this.properties = properties;
+        this.loginIdSkips = Counter.builder("auth.bloom.skipped")
+            .description("Bloom filter 判定不存在而略過的查詢數")
+            .tag("key", "loginId")
+            .register(meterRegistry);
+        this.usernameSkips = Counter.builder("auth.bloom.skipped")
+            .description("Bloom filter 判定不存在而略過的查詢數")
+            .tag("key", "username")
+            .register(meterRegistry);
+        Gauge.builder("auth.bloom.memory", this, filter -> filter.current == null ? 0 : filter.current.memoryBytes())
+            .description("Bloom filter 佔用記憶體")
+            .baseUnit("bytes")
+            .register(meterRegistry);
+        Gauge.builder("auth.bloom.false.positive.rate", this, filter -> filter.current == null ? 1 : filter.current.estimatedFalsePositiveRate())
+            .description("依位元填充率估算的誤判率")
+            .register(meterRegistry);
+        Gauge.builder("auth.bloom.keys", this, filter -> filter.current == null ? 0 : filter.current.size)
+            .description("建立時載入的用戶數")
+            .register(meterRegistry);
+    }
+
+    /**
+     * @return false 代表登入 ID 確定不存在
+     */
+    public boolean mightContainLoginId(String loginId) {
+        Filters filters = current;
+        if (filters == null || filters.loginIds.mightContain(loginId)) {
+            return true;
+        }
+        loginIdSkips.increment();
+        return false;
+    }
+
+    /**
+     * @return false 代表用戶名稱確定不存在
+     */
+    public boolean mightContainUsername(String username) {
+        Filters filters = current;
+        if (filters == null || filters.usernames.mightContain(username)) {
+            return true;
+        }
+        usernameSkips.increment();
+        return false;
+    }
+
+    /**
+     * 註冊成功（已提交）後加入新用戶；重建中的 filter 也一併加入，
+     * 涵蓋 ID 已被 keyset 游標略過、但在重建期間才提交的用戶
+     */
+    public void add(String loginId, String username) {
+        synchronized (swapLock) {
+            if (current != null) {
+                current.put(loginId, username);
+            }
+            if (building != null) {
+                building.put(loginId, username);
+            }
+        }
+    }
+
+    public boolean isReady() {
+        return current != null;
+    }
+
+    /**
+     * 由 users 表重建 filter，完成後以新的 filter 整批替換
+     * 固定讀主庫：副本延遲會漏掉剛註冊的用戶，替換後造成誤判不存在
+     */
+    @Scheduled(initialDelay = 0, fixedDelayString = "${auth.bloom-filter.rebuild-interval:PT6H}")
+    public void rebuild() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        ReadReplicaRouting.onPrimary(() -> {
+            load();
+            return null;
+        });
+    }
+
+    private void load() {
+        long start = System.currentTimeMillis();
+        long count = 0;
+        for (int shard = 0; shard < userShards.shardCount(); shard++) {
+            count += userShards.onShard(shard, userRepository::count);
+        }
+        Filters next = new Filters(Math.max(properties.getExpectedInsertions(), count * 2), properties.getFalsePositiveRate());
+        // 先設定 building 再開始讀取：之後提交的用戶由 add() 加入，之前提交的由讀取涵蓋
+        synchronized (swapLock) {
+            building = next;
+        }
+        try {
+            // 分片模式下逐一讀取每個分片
+            for (int shard = 0; shard < userShards.shardCount(); shard++) {
+                long afterId = 0;
+                List<UserKeys> page;
+                do {
+                    long after = afterId;
+                    page = userShards.onShard(shard,
+                        () -> userRepository.findKeysAfter(after, PageRequest.ofSize(properties.getLoadPageSize())));
+                    for (UserKeys keys : page) {
+                        next.put(keys.loginId(), keys.username());
+                        next.size++;
+                    }
+                    if (!page.isEmpty()) {
+                        afterId = page.get(page.size() - 1).id();
+                    }
+                } while (page.size() == properties.getLoadPageSize());
+            }
+            synchronized (swapLock) {
+                current = next;
+                building = null;
+            }
+            log.info("用戶 Bloom filter 建立完成: keys={}, bits={}, hashes={}, memory={}KB, elapsed={}ms",
+                next.size, next.loginIds.bitSize(), next.loginIds.hashCount(), next.memoryBytes() / 1024,
+                System.currentTimeMillis() - start);
+        } catch (RuntimeException e) {
+            log.error("用戶 Bloom filter 建立失敗，沿用既有 filter", e);
+        } finally {
+            synchronized (swapLock) {
+                building = null;
+            }
+        }
+    }
+
+    private static class Filters {
+
+        private final BloomFilter loginIds;
+        private final BloomFilter usernames;
+        private long size;
+
+        Filters(long expectedInsertions, double falsePositiveRate) {
+            this.loginIds = new BloomFilter(expectedInsertions, falsePositiveRate);
+            this.usernames = new BloomFilter(expectedInsertions, falsePositiveRate);
+        }
+
+        void put(String loginId, String username) {
+            loginIds.put(loginId);
+            usernames.put(username);
+        }
+
+        long memoryBytes() {
+            return loginIds.memoryBytes() + usernames.memoryBytes();
+        }
+
+        double estimatedFalsePositiveRate() {
+            return Math.max(loginIds.estimatedFalsePositiveRate(), usernames.estimatedFalsePositiveRate());
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.springboot_mysql_login_ci_sonar.service;
+
+import com.example.springboot_mysql_login_ci_sonar.config.ExportProperties;
+import com.example.springboot_mysql_login_ci_sonar.dto.UserExportRow;
+import com.example.springboot_mysql_login_ci_sonar.repository.UserRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+/**
+ * 用戶匯出
+ * 以 ID keyset 分頁逐頁讀取並寫出，每頁寫完即 flush；記憶體只保留一頁資料，與表大小無關。
+ * 本服務不開啟交易，每頁查詢各自短暫取得連線（唯讀，可走讀取副本），寫出期間不佔用資料庫連線。
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class UserExportService {
+
+    private static final String CSV_HEADER = "id,username,loginId,createdAt,updatedAt,enabled";
+
+    private final UserRepository userRepository;
+    private final UserShards userShards;
+    private final ObjectMapper objectMapper;
+    private final ExportProperties properties;
+
+    /**
+     * 將所有用戶依 ID 順序寫出（分片模式下逐一匯出每個分片，各分片內依 ID 排序）
+     * @param format 匯出格式
+     * @param writer 輸出目標（由呼叫端負責關閉）
+     * @return 寫出筆數
+     * @throws IOException 當寫出失敗（例如用戶端中斷連線）時
+     */
+    public long export(UserFileFormat format, Writer writer) throws IOException {
+        long start = System.currentTimeMillis();
+        int pageSize = properties.getPageSize();
+        JsonGenerator json = null;
+        if (format == UserFileFormat.NDJSON) {
+            json = objectMapper.getFactory().createGenerator(writer);
+            json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        } else {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+
+        long count = 0;
+        for (int shard = 0; shard < userShards.shardCount(); shard++) {
+            long afterId = 0;
+            List<UserExportRow> page;
+            do {
+                long after = afterId;
+                page = userShards.onShard(shard, () -> userRepository.findExportRowsAfter(after, PageRequest.ofSize(pageSize)));
+                for (UserExportRow row : page) {
+                    if (json != null) {
+                        objectMapper.writeValue(json, row);
+                        json.writeRaw('\n');
+                    } else {
+                        writeCsv(writer, row);
+                    }
+                }
+                if (json != null) {
+                    json.flush();
+                } else {
+                    writer.flush();
+                }
+                count += page.size();
+                if (!page.isEmpty()) {
+                    afterId = page.get(page.size() - 1).id();
+                }
+            } while (page.size() == pageSize);
+        }
+
+        log.info("用戶匯出完成: format={}, rows={}, elapsed={}ms", format, count, System.currentTimeMillis() - start);
+        return count;
+    }
+
+    private static void writeCsv(Writer writer, UserExportRow row) throws IOException {
+        writer.write(String.valueOf(row.id()));
+        writer.write(',');
+        Csv.writeField(writer, row.username());
+        writer.write(',');
+        Csv.writeField(writer, row.loginId());
+        writer.write(',');
+        writer.write(row.createdAt() == null ? "" : row.createdAt().toString());
+        writer.write(',');
+        writer.write(row.updatedAt() == null ? "" : row.updatedAt().toString());
+        writer.write(',');
+        writer.write(String.valueOf(row.enabled()));
+        writer.write('\n');
+    }
+}
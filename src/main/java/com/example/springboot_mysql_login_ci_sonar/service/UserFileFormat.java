@@ -0,0 +1,55 @@
+package com.example.springboot_mysql_login_ci_sonar.service;
+
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * 用戶匯出 / 匯入檔案格式
+ */
+public enum UserFileFormat {
+
+    NDJSON("application/x-ndjson", "ndjson"),
+    CSV("text/csv", "csv");
+
+    private final String contentType;
+    private final String extension;
+
+    UserFileFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    /**
+     * @throws IllegalArgumentException 當格式不支援時
+     */
+    public static UserFileFormat parse(String value) {
+        try {
+            return valueOf(value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("不支援的匯出格式: " + value, e);
+        }
+    }
+
+    /**
+     * 依副檔名判斷格式（.csv 為 CSV，.ndjson / .jsonl 為 NDJSON）
+     * @throws IllegalArgumentException 當副檔名無法判斷時
+     */
+    public static UserFileFormat fromFileName(Path file) {
+        String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        if (name.endsWith(".csv")) {
+            return CSV;
+        }
+        if (name.endsWith(".ndjson") || name.endsWith(".jsonl")) {
+            return NDJSON;
+        }
+        throw new IllegalArgumentException("無法由副檔名判斷檔案格式: " + file);
+    }
+}
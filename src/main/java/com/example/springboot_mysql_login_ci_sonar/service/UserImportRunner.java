@@ -0,0 +1,47 @@
+package com.example.springboot_mysql_login_ci_sonar.service;
+
+import com.example.springboot_mysql_login_ci_sonar.config.ImportProperties;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * 啟動時執行用戶匯入（設定 auth.import.file 時才啟用）
+ * 必須以 import profile（spring.main.web-application-type=none）執行，避免匯入中的實例同時對外提供登入
+ */
+@Component
+@ConditionalOnProperty(prefix = "auth.import", name = "file")
+@RequiredArgsConstructor
+public class UserImportRunner implements ApplicationRunner {
+
+    private final UserImportService importService;
+    private final ImportProperties properties;
+    private final ApplicationContext context;
+
+    @Override
+    public void run(ApplicationArguments args) throws IOException {
+        if (context instanceof WebServerApplicationContext) {
+            throw new IllegalStateException("用戶匯入需以 import profile 執行（spring.main.web-application-type=none），不可在提供 HTTP 服務的實例上執行");
+        }
+        Path file = properties.getFile();
+        UserFileFormat format = properties.getFormat() != null ? properties.getFormat() : UserFileFormat.fromFileName(file);
+        Path checkpointFile = properties.getCheckpointFile() != null
+            ? properties.getCheckpointFile() : file.resolveSibling(file.getFileName() + ".checkpoint");
+        Path errorFile = properties.getErrorFile() != null
+            ? properties.getErrorFile() : file.resolveSibling(file.getFileName() + ".errors.csv");
+
+        importService.importUsers(file, format, checkpointFile, errorFile);
+
+        if (properties.isExitOnCompletion()) {
+            System.exit(SpringApplication.exit(context));
+        }
+    }
+}
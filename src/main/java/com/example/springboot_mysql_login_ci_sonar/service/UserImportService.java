@@ -0,0 +1,473 @@
+package com.example.springboot_mysql_login_ci_sonar.service;
+
+import com.example.springboot_mysql_login_ci_sonar.config.ImportProperties;
+import com.example.springboot_mysql_login_ci_sonar.dto.SignupRequest;
+import com.example.springboot_mysql_login_ci_sonar.entity.User;
+import com.example.springboot_mysql_login_ci_sonar.repository.UserRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 用戶批量匯入
+ * 串流讀取 CSV / NDJSON 檔案並依 SignupRequest 的限制逐筆驗證，分批後以三段管線處理：
+ * 讀取執行緒驗證並排除已存在的用戶 → ForkJoinPool 以所有核心平行雜湊 → 寫入執行緒依序以 JDBC batch 寫入並更新斷點。
+ * 雜湊與寫入之間以有界佇列銜接，寫入跟不上時暫停讀取，記憶體只保留固定數量的批次。
+ * 重新執行時由斷點之後繼續。斷點同時記錄寫入中的批次範圍，中斷後重做該範圍時登入 ID 已存在的資料視為已匯入而略過；
+ * 範圍之外登入 ID 已存在的資料寫入失敗資料檔。
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class UserImportService {
+
+    private static final List<String> CSV_COLUMNS = List.of("username", "loginid", "password");
+    private static final String ERROR_HEADER = "line,loginId,reason";
+    private static final PendingBatch END = new PendingBatch(null, null, 0);
+
+    private final UserRepository userRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final UserExistenceFilter existenceFilter;
+    private final UserShards userShards;
+    private final ImportProperties properties;
+
+    /**
+     * 匯入檔案
+     * @param file 匯入檔案（CSV 第一行為欄位名稱 username,loginId,password）
+     * @param format 檔案格式
+     * @param checkpointFile 斷點檔，存在時由其記錄的行號之後繼續
+     * @param errorFile 失敗資料輸出檔（附加寫入）
+     * @return 本次執行的匯入結果
+     * @throws IOException 當讀取檔案失敗時
+     * @throws IllegalStateException 當寫入失敗而中止時（已寫入的批次保留，可由斷點重新執行）
+     */
+    public ImportResult importUsers(Path file, UserFileFormat format, Path checkpointFile, Path errorFile) throws IOException {
+        Checkpoint checkpoint = Checkpoint.read(checkpointFile);
+        if (checkpoint.line() > 0) {
+            log.info("由斷點繼續匯入: file={}, afterLine={}", file, checkpoint.line());
+        }
+        BatchWriter writer;
+        // 先讀取並驗證 CSV 標題、開啟輸出檔，再啟動寫入執行緒；標題錯誤時不留下任何輸出檔
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            int[] columns = null;
+            long lineNumber = 0;
+            if (format == UserFileFormat.CSV) {
+                String header = reader.readLine();
+                lineNumber++;
+                if (header == null) {
+                    return new ImportResult(0, 0, 0, checkpoint.line(), 0);
+                }
+                columns = csvColumns(header);
+            }
+            try (Writer errors = openErrorFile(errorFile)) {
+                writer = runPipeline(reader, format, columns, lineNumber, checkpoint, checkpointFile, errors);
+            }
+        }
+        if (writer.failure != null) {
+            throw new IllegalStateException("用戶匯入失敗，可由斷點重新執行: " + writer.failure.getMessage(), writer.failure);
+        }
+
+        ImportResult result = writer.result();
+        log.info("用戶匯入完成: file={}, imported={}, skipped={}, failed={}, elapsed={}ms, rows/s={}",
+            file, result.imported(), result.skipped(), result.failed(), result.elapsedMillis(),
+            Math.round(result.rowsPerSecond()));
+        return result;
+    }
+
+    /**
+     * 啟動寫入執行緒並由目前執行緒讀取、分批；返回前一定等待寫入執行緒結束
+     */
+    private BatchWriter runPipeline(BufferedReader reader, UserFileFormat format, int[] columns, long lineNumber,
+                                    Checkpoint checkpoint, Path checkpointFile, Writer errors) throws IOException {
+        int parallelism = properties.getParallelism() > 0 ? properties.getParallelism() : Runtime.getRuntime().availableProcessors();
+        ForkJoinPool hashPool = new ForkJoinPool(parallelism);
+        BlockingQueue<PendingBatch> pending = new ArrayBlockingQueue<>(properties.getMaxPendingBatches());
+        BatchWriter writer = new BatchWriter(pending, checkpointFile, errors, checkpoint);
+        Thread writerThread = new Thread(writer, "user-import-writer");
+        writerThread.start();
+        try {
+            readBatches(reader, format, columns, lineNumber, checkpoint, hashPool, pending, writer);
+            enqueue(pending, END, writer);
+            writerThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("用戶匯入被中斷", e);
+        } finally {
+            if (writerThread.isAlive()) {
+                writerThread.interrupt();
+                joinQuietly(writerThread);
+            }
+            hashPool.shutdownNow();
+        }
+        return writer;
+    }
+
+    private static void joinQuietly(Thread thread) {
+        boolean interrupted = false;
+        while (thread.isAlive()) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void readBatches(BufferedReader reader, UserFileFormat format, int[] columns, long lineNumber,
+                             Checkpoint checkpoint, ForkJoinPool hashPool, BlockingQueue<PendingBatch> pending,
+                             BatchWriter writer) throws IOException, InterruptedException {
+        int batchSize = properties.getBatchSize();
+        List<Row> rows = new ArrayList<>(batchSize);
+        List<RowError> errors = new ArrayList<>();
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (lineNumber <= checkpoint.line() || line.isBlank()) {
+                continue;
+            }
+            try {
+                SignupRequest request = parse(line, format, columns);
+                Set<ConstraintViolation<SignupRequest>> violations = validator.validate(request);
+                if (violations.isEmpty()) {
+                    rows.add(new Row(lineNumber, request));
+                } else {
+                    errors.add(new RowError(lineNumber, request.getLoginId(), violations.iterator().next().getMessage()));
+                }
+            } catch (JsonProcessingException | IllegalArgumentException e) {
+                errors.add(new RowError(lineNumber, null, "格式錯誤"));
+            }
+            if (rows.size() + errors.size() >= batchSize) {
+                if (!enqueue(pending, prepare(new Batch(lineNumber, rows, errors), checkpoint.writing(), hashPool), writer)) {
+                    return;
+                }
+                rows = new ArrayList<>(batchSize);
+                errors = new ArrayList<>();
+            }
+        }
+        if (!rows.isEmpty() || !errors.isEmpty()) {
+            enqueue(pending, prepare(new Batch(lineNumber, rows, errors), checkpoint.writing(), hashPool), writer);
+        }
+    }
+
+    /**
+     * 排除批次內與資料庫中的重複後，交由 ForkJoinPool 平行雜湊
+     * @param writtenThroughLine 上次執行中斷時寫入中的最後行號，此行之前已存在的登入 ID 視為本匯入已寫入
+     */
+    private PendingBatch prepare(Batch batch, long writtenThroughLine, ForkJoinPool hashPool) {
+        Set<String> loginIds = new HashSet<>();
+        Set<String> usernames = new HashSet<>();
+        for (Row row : batch.rows()) {
+            loginIds.add(row.request().getLoginId());
+            usernames.add(row.request().getUsername());
+        }
+        Set<String> existingLoginIds = loginIds.isEmpty() ? Set.of()
+            : userShards.findExistingLoginIds(loginIds, userRepository::findExistingLoginIds);
+        Set<String> existingUsernames = usernames.isEmpty() ? Set.of()
+            : userShards.findExistingUsernames(usernames, userRepository::findExistingUsernames);
+
+        Set<String> seenLoginIds = new HashSet<>();
+        Set<String> seenUsernames = new HashSet<>();
+        List<Row> accepted = new ArrayList<>(batch.rows().size());
+        long skipped = 0;
+        for (Row row : batch.rows()) {
+            SignupRequest request = row.request();
+            if (existingLoginIds.contains(request.getLoginId())) {
+                if (row.line() <= writtenThroughLine) {
+                    skipped++;
+                } else {
+                    batch.errors().add(new RowError(row.line(), request.getLoginId(), "登入 ID 已存在"));
+                }
+            } else if (existingUsernames.contains(request.getUsername())) {
+                batch.errors().add(new RowError(row.line(), request.getLoginId(), "用戶名稱已存在"));
+            } else if (!seenLoginIds.add(request.getLoginId())) {
+                batch.errors().add(new RowError(row.line(), request.getLoginId(), "檔案中登入 ID 重複"));
+            } else if (!seenUsernames.add(request.getUsername())) {
+                batch.errors().add(new RowError(row.line(), request.getLoginId(), "檔案中用戶名稱重複"));
+            } else {
+                accepted.add(row);
+            }
+        }
+        Batch prepared = new Batch(batch.lastLine(), accepted, batch.errors());
+        ForkJoinTask<List<User>> hashed = hashPool.submit(() -> accepted.parallelStream().map(this::toUser).toList());
+        return new PendingBatch(prepared, hashed, skipped);
+    }
+
+    private User toUser(Row row) {
+        User user = new User();
+        user.setUsername(row.request().getUsername());
+        user.setLoginId(row.request().getLoginId());
+        user.setPassword(passwordEncoder.encode(row.request().getPassword()));
+        user.setEnabled(true);
+        return user;
+    }
+
+    /**
+     * 放入待寫入佇列，佇列已滿時等待（背壓）
+     * @return 寫入執行緒已失敗時回傳 false
+     */
+    private static boolean enqueue(BlockingQueue<PendingBatch> pending, PendingBatch batch, BatchWriter writer)
+            throws InterruptedException {
+        while (!pending.offer(batch, 100, TimeUnit.MILLISECONDS)) {
+            if (writer.failure != null) {
+                return false;
+            }
+        }
+        return writer.failure == null;
+    }
+
+    private SignupRequest parse(String line, UserFileFormat format, int[] columns) throws JsonProcessingException {
+        if (format == UserFileFormat.NDJSON) {
+            SignupRequest request = objectMapper.readValue(line, SignupRequest.class);
+            if (request == null) {
+                throw new IllegalArgumentException("空白資料");
+            }
+            return request;
+        }
+        List<String> fields = Csv.parseLine(line);
+        for (int column : columns) {
+            if (column >= fields.size()) {
+                throw new IllegalArgumentException("欄位數不足");
+            }
+        }
+        SignupRequest request = new SignupRequest();
+        request.setUsername(fields.get(columns[0]));
+        request.setLoginId(fields.get(columns[1]));
+        request.setPassword(fields.get(columns[2]));
+        return request;
+    }
+
+    /**
+     * @return username、loginId、password 三個欄位的位置
+     * @throws IllegalArgumentException 當缺少欄位時
+     */
+    private static int[] csvColumns(String header) {
+        List<String> names = Csv.parseLine(header.replace("\uFEFF", "")).stream()
+            .map(name -> name.trim().replace("_", "").toLowerCase(Locale.ROOT))
+            .toList();
+        int[] columns = new int[CSV_COLUMNS.size()];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = names.indexOf(CSV_COLUMNS.get(i));
+            if (columns[i] < 0) {
+                throw new IllegalArgumentException("CSV 缺少欄位: " + CSV_COLUMNS.get(i));
+            }
+        }
+        return columns;
+    }
+
+    private static Writer openErrorFile(Path errorFile) throws IOException {
+        boolean newFile = !Files.exists(errorFile) || Files.size(errorFile) == 0;
+        Writer writer = Files.newBufferedWriter(errorFile, StandardCharsets.UTF_8,
+            StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        if (newFile) {
+            writer.write(ERROR_HEADER);
+            writer.write('\n');
+        }
+        return writer;
+    }
+
+    /**
+     * 寫入執行緒：依讀取順序等待雜湊完成、寫入、記錄失敗資料並更新斷點
+     */
+    private final class BatchWriter implements Runnable {
+
+        private final BlockingQueue<PendingBatch> pending;
+        private final Path checkpointFile;
+        private final Writer errors;
+        private final Checkpoint base;
+        private final long start = System.currentTimeMillis();
+        private long line;
+        private long imported;
+        private long skipped;
+        private long failed;
+        private long lastProgressLog = start;
+        private volatile Throwable failure;
+
+        BatchWriter(BlockingQueue<PendingBatch> pending, Path checkpointFile, Writer errors, Checkpoint base) {
+            this.pending = pending;
+            this.checkpointFile = checkpointFile;
+            this.errors = errors;
+            this.base = base;
+            this.line = base.line();
+        }
+
+        @Override
+        public void run() {
+            try {
+                PendingBatch next;
+                while ((next = pending.take()) != END) {
+                    List<User> users = next.hashed().join();
+                    for (RowError error : next.batch().errors()) {
+                        writeError(errors, error);
+                    }
+                    failed += next.batch().errors().size();
+                    skipped += next.skipped();
+                    if (!users.isEmpty()) {
+                        // 先記錄寫入中的範圍，中斷後重做時才能分辨已存在的資料是否為本匯入寫入
+                        checkpoint(next.batch().lastLine());
+                    }
+                    insert(next.batch().rows(), users, errors);
+                    errors.flush();
+                    line = next.batch().lastLine();
+                    checkpoint(line);
+                    logProgress();
+                }
+            } catch (InterruptedException e) {
+                failure = e;
+                Thread.currentThread().interrupt();
+            } catch (Throwable e) {
+                failure = e;
+                log.error("用戶匯入寫入失敗，停在第 {} 行之後", line, e);
+            }
+        }
+
+        private void insert(List<Row> rows, List<User> users, Writer errors) throws IOException {
+            // 分片模式下先預留用戶名稱，再依分片分組寫入；未啟用分片時只有一組
+            List<Integer> reserved = new ArrayList<>(users.size());
+            for (int i = 0; i < users.size(); i++) {
+                User user = users.get(i);
+                if (userShards.reserveUsername(user.getUsername(), user.getLoginId())) {
+                    reserved.add(i);
+                } else {
+                    writeError(errors, new RowError(rows.get(i).line(), user.getLoginId(), "用戶名稱已存在"));
+                    failed++;
+                }
+            }
+            for (List<Integer> group : userShards.groupByShard(reserved, i -> users.get(i).getLoginId()).values()) {
+                insertShard(group.stream().map(rows::get).toList(), group.stream().map(users::get).toList(), errors);
+            }
+        }
+
+        private void insertShard(List<Row> rows, List<User> users, Writer errors) throws IOException {
+            int shard = userShards.shardOf(users.get(0).getLoginId());
+            try {
+                userShards.onShard(shard, () -> userRepository.saveAll(users));
+                users.forEach(user -> existenceFilter.add(user.getLoginId(), user.getUsername()));
+                imported += users.size();
+            } catch (DataIntegrityViolationException e) {
+                // 與前一批次或其他來源同時寫入的資料衝突，改為逐筆寫入找出衝突的資料
+                log.debug("批次寫入衝突，改為逐筆寫入: {}", e.getMostSpecificCause().getMessage());
+                for (int i = 0; i < users.size(); i++) {
+                    User user = users.get(i);
+                    user.setId(null);
+                    try {
+                        userShards.onShard(shard, () -> userRepository.saveAndFlush(user));
+                        existenceFilter.add(user.getLoginId(), user.getUsername());
+                        imported++;
+                    } catch (DataIntegrityViolationException conflict) {
+                        userShards.releaseUsername(user.getUsername(), user.getLoginId());
+                        writeError(errors, new RowError(rows.get(i).line(), user.getLoginId(), "用戶名稱或登入 ID 已存在"));
+                        failed++;
+                    }
+                }
+            }
+        }
+
+        private void checkpoint(long writing) throws IOException {
+            new Checkpoint(line, writing, base.imported() + imported, base.skipped() + skipped, base.failed() + failed)
+                .write(checkpointFile);
+        }
+
+        private void writeError(Writer errors, RowError error) throws IOException {
+            errors.write(String.valueOf(error.line()));
+            errors.write(',');
+            Csv.writeField(errors, error.loginId());
+            errors.write(',');
+            Csv.writeField(errors, error.reason());
+            errors.write('\n');
+        }
+
+        private void logProgress() {
+            long now = System.currentTimeMillis();
+            if (now - lastProgressLog >= properties.getProgressInterval().toMillis()) {
+                lastProgressLog = now;
+                log.info("用戶匯入進度: line={}, imported={}, skipped={}, failed={}, rows/s={}",
+                    line, imported, skipped, failed, Math.round(result().rowsPerSecond()));
+            }
+        }
+
+        ImportResult result() {
+            return new ImportResult(imported, skipped, failed, base.line(), System.currentTimeMillis() - start);
+        }
+    }
+
+    private record Row(long line, SignupRequest request) {
+    }
+
+    private record RowError(long line, String loginId, String reason) {
+    }
+
+    private record Batch(long lastLine, List<Row> rows, List<RowError> errors) {
+    }
+
+    private record PendingBatch(Batch batch, ForkJoinTask<List<User>> hashed, long skipped) {
+    }
+
+    /**
+     * 斷點：已處理的最後行號、寫入中批次的最後行號與累計筆數，以暫存檔加原子搬移寫入
+     */
+    private record Checkpoint(long line, long writing, long imported, long skipped, long failed) {
+
+        static Checkpoint read(Path file) throws IOException {
+            if (!Files.exists(file)) {
+                return new Checkpoint(0, 0, 0, 0, 0);
+            }
+            Properties values = new Properties();
+            try (InputStream in = Files.newInputStream(file)) {
+                values.load(in);
+            }
+            long line = Long.parseLong(values.getProperty("line", "0"));
+            return new Checkpoint(line,
+                Math.max(line, Long.parseLong(values.getProperty("writing", "0"))),
+                Long.parseLong(values.getProperty("imported", "0")),
+                Long.parseLong(values.getProperty("skipped", "0")),
+                Long.parseLong(values.getProperty("failed", "0")));
+        }
+
+        void write(Path file) throws IOException {
+            Properties values = new Properties();
+            values.setProperty("line", String.valueOf(line));
+            values.setProperty("writing", String.valueOf(writing));
+            values.setProperty("imported", String.valueOf(imported));
+            values.setProperty("skipped", String.valueOf(skipped));
+            values.setProperty("failed", String.valueOf(failed));
+            Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                values.store(out, null);
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+    }
+}
@@ -1,14 +1,30 @@
 package com.example.springboot_mysql_login_ci_sonar.service;
 
+import com.example.springboot_mysql_login_ci_sonar.config.SignupProperties;
+import com.example.springboot_mysql_login_ci_sonar.dto.BatchSignupResult;
+import com.example.springboot_mysql_login_ci_sonar.dto.SignupRequest;
+import com.example.springboot_mysql_login_ci_sonar.dto.UserCredentials;
 import com.example.springboot_mysql_login_ci_sonar.entity.User;
 import com.example.springboot_mysql_login_ci_sonar.repository.UserRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
 
 /**
  * User 業務邏輯層
@@ -21,73 +37,295 @@ public class UserService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingExecutor hashingExecutor;
+    private final Validator validator;
+    private final SignupProperties signupProperties;
+    private final UserExistenceFilter existenceFilter;
+    private final UserCache userCache;
+    private final VerifiedCredentialCache credentialCache;
+    private final LoginCoalescer loginCoalescer;
+    private final PasswordRehashService rehashService;
+    private final AuthStageMetrics stageMetrics;
+    private final AuthEventLogger authEvents;
+    private final LoginActivityRecorder loginActivity;
+    private final ReadYourWritesTracker readYourWrites;
+    private final UserShards userShards;
 
     /**
      * 用戶註冊
+     * 本方法不開啟交易，寫入由 saveAndFlush 自身的交易完成；分片模式下查詢舊分片與寫入需使用不同連線
      * @param username 用戶名稱
      * @param loginId 登入 ID
      * @param password 密碼
      * @return User 註冊成功的用戶
      * @throws IllegalArgumentException 當用戶名稱或登入 ID 已存在時
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public User signup(String username, String loginId, String password) {
-        log.info("開始用戶註冊流程: username={}, loginId={}", username, loginId);
-
-        // 檢查用戶名稱是否已存在
-        if (userRepository.existsByUsername(username)) {
-            log.warn("用戶名稱已存在: {}", username);
-            throw new IllegalArgumentException("用戶名稱已存在");
-        }
-
-        // 檢查登入 ID 是否已存在
-        if (userRepository.existsByLoginId(loginId)) {
-            log.warn("登入 ID 已存在: {}", loginId);
-            throw new IllegalArgumentException("登入 ID 已存在");
-        }
+        log.debug("開始用戶註冊流程: username={}, loginId={}", username, loginId);
 
         // 建立新用戶
         User user = new User();
         user.setUsername(username);
         user.setLoginId(loginId);
-        user.setPassword(passwordEncoder.encode(password)); // 密碼加密
+        user.setPassword(stageMetrics.record("signup", "hash", () -> passwordEncoder.encode(password))); // 密碼加密
         user.setEnabled(true);
 
-        User savedUser = userRepository.save(user);
-        log.info("用戶註冊成功: id={}, username={}, loginId={}", savedUser.getId(), username, loginId);
-        
+        // 分片模式下先於用戶名稱目錄預留，確保用戶名稱跨分片唯一
+        if (!userShards.reserveUsername(username, loginId)) {
+            throw rejectDuplicate("用戶名稱已存在", username, loginId, null);
+        }
+        if (userShards.existsOnPreviousShard(loginId, () -> userRepository.existsByLoginId(loginId))) {
+            userShards.releaseUsername(username, loginId);
+            throw rejectDuplicate("登入 ID 已存在", username, loginId, null);
+        }
+
+        // 直接寫入所屬分片，由唯一約束擋下重複，省去 existsBy* 預先查詢
+        User savedUser;
+        try {
+            savedUser = stageMetrics.record("signup", "insert",
+                () -> userShards.onLoginId(loginId, () -> userRepository.saveAndFlush(user)));
+        } catch (DataIntegrityViolationException e) {
+            userShards.releaseUsername(username, loginId);
+            throw rejectDuplicate(duplicateKeyMessage(e), username, loginId, e);
+        }
+        existenceFilter.add(loginId, username);
+        readYourWrites.markWritten(loginId);
+        authEvents.success("signup", loginId, savedUser.getId());
+
         return savedUser;
     }
 
+    /**
+     * 批次註冊
+     * 以 IN 查詢一次檢查重複、平行雜湊密碼，再以 JDBC batch 寫入。
+     * 本方法不開啟交易，避免雜湊期間佔用資料庫連線；寫入由 saveAll 自身的交易完成。
+     * 某個分片組發生唯一約束衝突時該組改為逐筆寫入，衝突的資料以逐筆錯誤回報。
+     * @param requests 註冊請求
+     * @return 依輸入順序排列的逐筆結果
+     * @throws IllegalArgumentException 當筆數為空或超過上限時
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<BatchSignupResult> signupBatch(List<SignupRequest> requests) {
+        if (requests == null || requests.isEmpty()) {
+            throw new IllegalArgumentException("批次註冊資料不能為空");
+        }
+        if (requests.size() > signupProperties.getBatchMaxSize()) {
+            throw new IllegalArgumentException("批次註冊筆數不能超過 " + signupProperties.getBatchMaxSize());
+        }
+        log.info("開始批次註冊流程: size={}", requests.size());
+
+        BatchSignupResult[] results = new BatchSignupResult[requests.size()];
+
+        // 逐筆格式驗證
+        List<Integer> candidates = new ArrayList<>();
+        stageMetrics.record("signupBatch", "validate", () -> {
+            for (int i = 0; i < requests.size(); i++) {
+                SignupRequest request = requests.get(i);
+                if (request == null) {
+                    results[i] = BatchSignupResult.error(i, null, "註冊資料不能為空");
+                    continue;
+                }
+                Set<ConstraintViolation<SignupRequest>> violations = validator.validate(request);
+                if (violations.isEmpty()) {
+                    candidates.add(i);
+                } else {
+                    results[i] = BatchSignupResult.error(i, request.getLoginId(), violations.iterator().next().getMessage());
+                }
+            }
+        });
+
+        // 一次 IN 查詢檢查資料庫中的重複
+        Set<String> usernames = new HashSet<>();
+        Set<String> loginIds = new HashSet<>();
+        for (int i : candidates) {
+            usernames.add(requests.get(i).getUsername());
+            loginIds.add(requests.get(i).getLoginId());
+        }
+        Set<String> existingUsernames = usernames.isEmpty() ? Set.of()
+            : stageMetrics.record("signupBatch", "lookup",
+                () -> userShards.findExistingUsernames(usernames, userRepository::findExistingUsernames));
+        Set<String> existingLoginIds = loginIds.isEmpty() ? Set.of()
+            : stageMetrics.record("signupBatch", "lookup",
+                () -> userShards.findExistingLoginIds(loginIds, userRepository::findExistingLoginIds));
+
+        // 同時排除資料庫及批次內部的重複
+        Set<String> seenUsernames = new HashSet<>();
+        Set<String> seenLoginIds = new HashSet<>();
+        List<Integer> accepted = new ArrayList<>();
+        for (int i : candidates) {
+            SignupRequest request = requests.get(i);
+            if (existingUsernames.contains(request.getUsername()) || !seenUsernames.add(request.getUsername())) {
+                results[i] = BatchSignupResult.error(i, request.getLoginId(), "用戶名稱已存在");
+            } else if (existingLoginIds.contains(request.getLoginId()) || !seenLoginIds.add(request.getLoginId())) {
+                results[i] = BatchSignupResult.error(i, request.getLoginId(), "登入 ID 已存在");
+            } else if (!userShards.reserveUsername(request.getUsername(), request.getLoginId())) {
+                // 分片模式：查詢後才被其他請求使用的用戶名稱
+                results[i] = BatchSignupResult.error(i, request.getLoginId(), "用戶名稱已存在");
+            } else {
+                accepted.add(i);
+            }
+        }
+
+        if (!accepted.isEmpty()) {
+            // 平行雜湊密碼
+            List<Supplier<String>> hashTasks = new ArrayList<>(accepted.size());
+            for (int i : accepted) {
+                String rawPassword = requests.get(i).getPassword();
+                hashTasks.add(() -> passwordEncoder.encode(rawPassword));
+            }
+            List<String> encodedPasswords;
+            try {
+                encodedPasswords = stageMetrics.record("signupBatch", "hash", () -> hashingExecutor.executeAll(hashTasks));
+            } catch (RuntimeException e) {
+                accepted.forEach(i -> userShards.releaseUsername(requests.get(i).getUsername(), requests.get(i).getLoginId()));
+                throw e;
+            }
+
+            List<User> users = new ArrayList<>(accepted.size());
+            for (int k = 0; k < accepted.size(); k++) {
+                SignupRequest request = requests.get(accepted.get(k));
+                User user = new User();
+                user.setUsername(request.getUsername());
+                user.setLoginId(request.getLoginId());
+                user.setPassword(encodedPasswords.get(k));
+                user.setEnabled(true);
+                users.add(user);
+            }
+
+            // 每個分片一次 saveAll（各自的交易），未啟用分片時只有一組
+            List<Integer> positions = new ArrayList<>(accepted.size());
+            for (int k = 0; k < accepted.size(); k++) {
+                positions.add(k);
+            }
+            for (List<Integer> group : userShards.groupByShard(positions, k -> users.get(k).getLoginId()).values()) {
+                List<User> groupUsers = group.stream().map(users::get).toList();
+                try {
+                    List<User> savedUsers = stageMetrics.record("signupBatch", "insert",
+                        () -> userShards.onLoginId(groupUsers.get(0).getLoginId(), () -> userRepository.saveAll(groupUsers)));
+                    for (int j = 0; j < group.size(); j++) {
+                        markCreated(results, accepted.get(group.get(j)), savedUsers.get(j));
+                    }
+                } catch (DataIntegrityViolationException e) {
+                    // 與查詢後的其他註冊衝突，整組已回滾；改為逐筆寫入，只有衝突的資料列為失敗，其他分片組不受影響
+                    log.debug("批次註冊寫入衝突，改為逐筆寫入: {}", e.getMostSpecificCause().getMessage());
+                    for (int j = 0; j < group.size(); j++) {
+                        saveOne(results, accepted.get(group.get(j)), groupUsers.get(j));
+                    }
+                }
+            }
+        }
+
+        long created = Arrays.stream(results).filter(BatchSignupResult::isSuccess).count();
+        log.info("批次註冊完成: size={}, created={}", requests.size(), created);
+        return List.of(results);
+    }
+
+    private void saveOne(BatchSignupResult[] results, int index, User user) {
+        user.setId(null);
+        try {
+            markCreated(results, index, userShards.onLoginId(user.getLoginId(), () -> userRepository.saveAndFlush(user)));
+        } catch (DataIntegrityViolationException conflict) {
+            userShards.releaseUsername(user.getUsername(), user.getLoginId());
+            String message;
+            try {
+                message = duplicateKeyMessage(conflict);
+            } catch (DataIntegrityViolationException unknown) {
+                log.warn("批次註冊寫入失敗: loginId={}, error={}", user.getLoginId(), unknown.getMostSpecificCause().getMessage());
+                message = "註冊資料寫入衝突";
+            }
+            results[index] = BatchSignupResult.error(index, user.getLoginId(), message);
+        }
+    }
+
+    private void markCreated(BatchSignupResult[] results, int index, User saved) {
+        existenceFilter.add(saved.getLoginId(), saved.getUsername());
+        readYourWrites.markWritten(saved.getLoginId());
+        results[index] = BatchSignupResult.success(index, saved.getLoginId(), saved.getId());
+    }
+
     /**
      * 用戶登入驗證
+     * 不主動開啟交易，快取命中時不會佔用資料庫連線，BCrypt 驗證期間也不持有連線；
+     * 相同憑證的並發請求共用同一次查詢與驗證，認證事件與登入活動仍逐筆記錄
      * @param loginId 登入 ID
      * @param password 密碼
      * @return Optional<User> 登入成功的用戶
+     * @throws HashingOverloadedException 當密碼雜湊執行緒池過載時
      */
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public Optional<User> login(String loginId, String password) {
-        log.info("開始用戶登入驗證: loginId={}", loginId);
+        log.debug("開始用戶登入驗證: loginId={}", loginId);
 
-        Optional<User> userOpt = userRepository.findByLoginId(loginId);
-        if (userOpt.isEmpty()) {
-            log.warn("登入失敗: 找不到用戶 loginId={}", loginId);
+        if (!stageMetrics.record("login", "filter", () -> existenceFilter.mightContainLoginId(loginId))) {
+            authEvents.failure("login", loginId, "user_not_found");
             return Optional.empty();
         }
 
+        LoginCoalescer.Attempt attempt = loginCoalescer.execute(loginId, password, () -> authenticate(loginId, password));
+        if (!attempt.succeeded()) {
+            authEvents.failure("login", loginId, attempt.failureReason());
+            if (attempt.user() != null) {
+                loginActivity.failure(attempt.user(), attempt.failureReason());
+            }
+            return Optional.empty();
+        }
+
+        authEvents.success("login", loginId, attempt.user().getId());
+        loginActivity.success(attempt.user());
+        return Optional.of(attempt.user());
+    }
+
+    private LoginCoalescer.Attempt authenticate(String loginId, String password) {
+        // 以 DTO 投影查詢，唯讀登入不需要受管理實體的快照與 dirty checking
+        Optional<User> userOpt = stageMetrics.record("login", "lookup",
+            () -> userCache.getByLoginId(loginId, () -> readYourWrites.read(loginId,
+                () -> userShards.findByLoginId(loginId, () -> userRepository.findCredentialsByLoginId(loginId))
+                    .map(UserCredentials::toUser))));
+        if (userOpt.isEmpty()) {
+            return LoginCoalescer.Attempt.failure("user_not_found");
+        }
+
         User user = userOpt.get();
         if (!user.getEnabled()) {
-            log.warn("登入失敗: 用戶已停用 loginId={}", loginId);
-            return Optional.empty();
+            return LoginCoalescer.Attempt.failure(user, "disabled");
         }
 
-        // 驗證密碼
-        if (!passwordEncoder.matches(password, user.getPassword())) {
-            log.warn("登入失敗: 密碼錯誤 loginId={}", loginId);
-            return Optional.empty();
+        // 驗證密碼：短時間內驗證過的相同憑證直接通過，否則於雜湊專用執行緒池執行 BCrypt
+        String encodedPassword = user.getPassword();
+        String credentialKey = credentialCache.key(loginId, password);
+        if (!credentialCache.isVerified(credentialKey, encodedPassword)) {
+            if (!stageMetrics.record("login", "verify",
+                    () -> hashingExecutor.execute(() -> passwordEncoder.matches(password, encodedPassword)))) {
+                return LoginCoalescer.Attempt.failure(user, "bad_password");
+            }
+            credentialCache.put(credentialKey, encodedPassword);
+            rehashService.rehashIfNeeded(user, password);
         }
+        return LoginCoalescer.Attempt.success(user);
+    }
 
-        log.info("用戶登入成功: id={}, username={}, loginId={}", user.getId(), user.getUsername(), loginId);
-        return Optional.of(user);
+    private IllegalArgumentException rejectDuplicate(String message, String username, String loginId, Exception cause) {
+        authEvents.failure("signup", loginId, "duplicate");
+        log.debug("註冊失敗: {} username={}, loginId={}", message, username, loginId);
+        return new IllegalArgumentException(message, cause);
+    }
+
+    /**
+     * 依違反的唯一約束名稱轉換成對應的錯誤訊息
+     * @throws DataIntegrityViolationException 當違反的不是用戶名稱或登入 ID 唯一約束時
+     */
+    private String duplicateKeyMessage(DataIntegrityViolationException e) {
+        String constraint = e.getCause() instanceof ConstraintViolationException violation
+            ? violation.getConstraintName() : null;
+        String detail = (constraint != null ? constraint : e.getMostSpecificCause().getMessage()).toLowerCase(Locale.ROOT);
+        if (detail.contains(User.UK_USERNAME)) {
+            return "用戶名稱已存在";
+        }
+        if (detail.contains(User.UK_LOGIN_ID)) {
+            return "登入 ID 已存在";
+        }
+        throw e;
     }
 
     /**
@@ -95,9 +333,13 @@ public class UserService {
      * @param loginId 登入 ID
      * @return Optional<User>
      */
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public Optional<User> findByLoginId(String loginId) {
-        return userRepository.findByLoginId(loginId);
+        if (!existenceFilter.mightContainLoginId(loginId)) {
+            return Optional.empty();
+        }
+        return userCache.getByLoginId(loginId, () -> readYourWrites.read(loginId,
+            () -> userShards.findByLoginId(loginId, () -> userRepository.findByLoginId(loginId))));
     }
 
     /**
@@ -105,9 +347,13 @@ public class UserService {
      * @param username 用戶名稱
      * @return Optional<User>
      */
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public Optional<User> findByUsername(String username) {
-        return userRepository.findByUsername(username);
+        if (!existenceFilter.mightContainUsername(username)) {
+            return Optional.empty();
+        }
+        return userCache.getByUsername(username,
+            () -> userShards.findByUsername(username, () -> userRepository.findByUsername(username)));
     }
 
 }
@@ -0,0 +1,169 @@
+package com.example.springboot_mysql_login_ci_sonar.service;
+
+import com.example.springboot_mysql_login_ci_sonar.config.ShardRouting;
+import com.example.springboot_mysql_login_ci_sonar.config.ShardingProperties;
+import com.example.springboot_mysql_login_ci_sonar.repository.UsernameDirectory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * 用戶分片存取
+ * 依登入 ID 決定 UserRepository 查詢的分片，用戶名稱唯一性由用戶名稱目錄保證。
+ * 未啟用分片時所有方法直接執行查詢，呼叫端不需區分兩種模式。
+ */
+@Component
+public class UserShards {
+
+    private final boolean enabled;
+    private final int shardCount;
+    private final int previousShardCount;
+    private final UsernameDirectory directory;
+
+    @Autowired
+    public UserShards(ShardingProperties properties, ObjectProvider<UsernameDirectory> directory) {
+        this(properties, directory.getIfAvailable());
+    }
+
+    /**
+     * 未啟用分片時不需要用戶名稱目錄
+     */
+    UserShards(ShardingProperties properties) {
+        this(properties, (UsernameDirectory) null);
+    }
+
+    private UserShards(ShardingProperties properties, UsernameDirectory directory) {
+        this.enabled = properties.isEnabled();
+        this.shardCount = enabled ? properties.getShards().size() : 1;
+        this.previousShardCount = enabled ? properties.getPreviousShardCount() : 0;
+        this.directory = directory;
+    }
+
+    public int shardCount() {
+        return shardCount;
+    }
+
+    /**
+     * @return 登入 ID 目前所屬的分片
+     */
+    public int shardOf(String loginId) {
+        return enabled ? ShardRouting.shardFor(loginId, shardCount) : 0;
+    }
+
+    /**
+     * 在指定分片上執行（同一個交易只能存取一個分片）
+     */
+    public <T> T onShard(int shard, Supplier<T> body) {
+        return enabled ? ShardRouting.onShard(shard, body) : body.get();
+    }
+
+    /**
+     * 在登入 ID 所屬的分片上執行
+     */
+    public <T> T onLoginId(String loginId, Supplier<T> body) {
+        return onShard(shardOf(loginId), body);
+    }
+
+    /**
+     * 依登入 ID 查詢，只存取所屬分片；重新平衡期間查不到時再查舊分片
+     */
+    public <T> Optional<T> findByLoginId(String loginId, Supplier<Optional<T>> query) {
+        Optional<T> result = onLoginId(loginId, query);
+        int previous = previousShardOf(loginId);
+        return result.isEmpty() && previous >= 0 ? onShard(previous, query) : result;
+    }
+
+    /**
+     * 依用戶名稱查詢：分片模式下先由目錄取得登入 ID，再查詢所屬分片
+     */
+    public <T> Optional<T> findByUsername(String username, Supplier<Optional<T>> query) {
+        if (!enabled) {
+            return query.get();
+        }
+        return directory.findLoginId(username).flatMap(loginId -> findByLoginId(loginId, query));
+    }
+
+    /**
+     * 重新平衡期間，登入 ID 是否已存在於尚未搬移的舊分片
+     * @param query 在分片上執行的存在性查詢
+     */
+    public boolean existsOnPreviousShard(String loginId, Supplier<Boolean> query) {
+        int previous = previousShardOf(loginId);
+        return previous >= 0 && onShard(previous, query);
+    }
+
+    /**
+     * 找出已存在的登入 ID，每個分片一次 IN 查詢（重新平衡期間一併查詢舊分片）
+     * @param query 在分片上執行的 IN 查詢
+     */
+    public Set<String> findExistingLoginIds(Collection<String> loginIds, Function<Collection<String>, List<String>> query) {
+        if (!enabled) {
+            return new HashSet<>(query.apply(loginIds));
+        }
+        Map<Integer, List<String>> byShard = new TreeMap<>();
+        for (String loginId : loginIds) {
+            byShard.computeIfAbsent(shardOf(loginId), shard -> new ArrayList<>()).add(loginId);
+            int previous = previousShardOf(loginId);
+            if (previous >= 0) {
+                byShard.computeIfAbsent(previous, shard -> new ArrayList<>()).add(loginId);
+            }
+        }
+        Set<String> existing = new HashSet<>();
+        byShard.forEach((shard, ids) -> existing.addAll(onShard(shard, () -> query.apply(ids))));
+        return existing;
+    }
+
+    /**
+     * 找出已存在的用戶名稱：分片模式查詢目錄，否則執行 query
+     */
+    public Set<String> findExistingUsernames(Collection<String> usernames, Function<Collection<String>, List<String>> query) {
+        return new HashSet<>(enabled ? directory.findExisting(usernames) : query.apply(usernames));
+    }
+
+    /**
+     * 依所屬分片分組，組內保留原順序
+     */
+    public <T> Map<Integer, List<T>> groupByShard(Collection<T> items, Function<T, String> loginIdOf) {
+        Map<Integer, List<T>> groups = new TreeMap<>();
+        for (T item : items) {
+            groups.computeIfAbsent(shardOf(loginIdOf.apply(item)), shard -> new ArrayList<>()).add(item);
+        }
+        return groups;
+    }
+
+    /**
+     * 寫入前預留用戶名稱；未啟用分片時由 users 表的唯一約束處理，一律回傳 true
+     * @return false 代表用戶名稱已被使用
+     */
+    public boolean reserveUsername(String username, String loginId) {
+        return !enabled || directory.reserve(username, loginId);
+    }
+
+    /**
+     * 寫入失敗時釋放預留的用戶名稱
+     */
+    public void releaseUsername(String username, String loginId) {
+        if (enabled) {
+            directory.release(username, loginId);
+        }
+    }
+
+    private int previousShardOf(String loginId) {
+        if (!enabled || previousShardCount <= 0) {
+            return -1;
+        }
+        int previous = ShardRouting.shardFor(loginId, previousShardCount);
+        return previous == shardOf(loginId) ? -1 : previous;
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.springboot_mysql_login_ci_sonar.service;
+
+import com.example.springboot_mysql_login_ci_sonar.config.CredentialCacheProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+
+/**
+ * 已驗證憑證快取
+ * 以 HMAC(loginId, password) 為鍵、驗證當下的密碼雜湊為值；
+ * 短時間內以相同憑證重複登入時可略過 BCrypt 比對。
+ * 密碼雜湊變更後值不再相符即自動失效，停用帳號則在比對前就被拒絕。
+ */
+@Component
+public class VerifiedCredentialCache {
+
+    private final boolean enabled;
+    private final CredentialDigest digest;
+    private final Cache<String, String> verified;
+
+    public VerifiedCredentialCache(CredentialCacheProperties properties, CredentialDigest digest, MeterRegistry meterRegistry) {
+        this.enabled = properties.isEnabled();
+        this.digest = digest;
+        this.verified = Caffeine.newBuilder()
+            .maximumSize(properties.getMaximumSize())
+            .expireAfterWrite(properties.getTtl())
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, verified, "users.verifiedCredentials");
+    }
+
+    /**
+     * 計算憑證的快取鍵；停用時回傳 null
+     */
+    public String key(String loginId, String password) {
+        return enabled ? digest.of(loginId, password) : null;
+    }
+
+    /**
+     * @return true 代表同一組憑證在存活時間內已對同一個密碼雜湊驗證成功
+     */
+    public boolean isVerified(String key, String encodedPassword) {
+        return key != null && encodedPassword.equals(verified.getIfPresent(key));
+    }
+
+    /**
+     * 記錄驗證成功的憑證
+     */
+    public void put(String key, String encodedPassword) {
+        if (key != null) {
+            verified.put(key, encodedPassword);
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.springboot_mysql_login_ci_sonar.reactive;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalManagementPort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.Map;
+
+/**
+ * Reactive 模式整合測試（mvn -Preactive test）
+ * 以 H2 的 R2DBC 驅動驗證與 servlet 版相同的狀態碼與 ApiResponse 內容
+ */
+@SpringBootTest(classes = ReactiveAuthApplication.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.r2dbc.url=r2dbc:h2:mem:///reactive_testdb;DB_CLOSE_DELAY=-1",
+        "spring.r2dbc.username=sa",
+        "spring.sql.init.schema-locations=classpath:reactive-schema.sql",
+        "auth.rate-limit.login-id.capacity=3",
+        "management.server.port=0"
+})
+@ActiveProfiles({"test", "reactive"})
+@AutoConfigureWebTestClient
+class ReactiveAuthIntegrationTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @LocalManagementPort
+    private int managementPort;
+
+    @Test
+    void testSignupAndLogin() {
+        // When & Then：註冊
+        post("/api/auth/signup", Map.of("username", "反應式用戶", "loginId", "reactive1", "password", "password123"))
+            .expectStatus().isCreated()
+            .expectBody()
+            .jsonPath("$.success").isEqualTo(true)
+            .jsonPath("$.message").isEqualTo("註冊成功")
+            .jsonPath("$.data.id").isNumber()
+            .jsonPath("$.data.loginId").isEqualTo("reactive1")
+            .jsonPath("$.data.password").doesNotExist();
+
+        // When & Then：登入
+        post("/api/auth/login", Map.of("loginId", "reactive1", "password", "password123"))
+            .expectStatus().isOk()
+            .expectBody()
+            .jsonPath("$.success").isEqualTo(true)
+            .jsonPath("$.message").isEqualTo("登入成功")
+            .jsonPath("$.data.username").isEqualTo("反應式用戶")
+            .jsonPath("$.data.tokenType").isEqualTo("Bearer")
+            .jsonPath("$.data.accessToken").isNotEmpty();
+    }
+
+    @Test
+    void testSignupDuplicates() {
+        // Given
+        post("/api/auth/signup", Map.of("username", "重複用戶", "loginId", "reactive2", "password", "password123"))
+            .expectStatus().isCreated();
+
+        // When & Then
+        post("/api/auth/signup", Map.of("username", "重複用戶", "loginId", "reactive3", "password", "password123"))
+            .expectStatus().isBadRequest()
+            .expectBody()
+            .jsonPath("$.success").isEqualTo(false)
+            .jsonPath("$.message").isEqualTo("用戶名稱已存在");
+        post("/api/auth/signup", Map.of("username", "另一個用戶", "loginId", "reactive2", "password", "password123"))
+            .expectStatus().isBadRequest()
+            .expectBody()
+            .jsonPath("$.message").isEqualTo("登入 ID 已存在");
+    }
+
+    @Test
+    void testSignupValidation() {
+        // When & Then
+        post("/api/auth/signup", Map.of("username", "", "loginId", "ab", "password", "123"))
+            .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void testLoginFailures() {
+        // Given
+        post("/api/auth/signup", Map.of("username", "登入失敗用戶", "loginId", "reactive4", "password", "password123"))
+            .expectStatus().isCreated();
+
+        // When & Then：密碼錯誤與不存在的登入 ID 回應相同內容
+        post("/api/auth/login", Map.of("loginId", "reactive4", "password", "wrongpassword"))
+            .expectStatus().isUnauthorized()
+            .expectBody()
+            .jsonPath("$.success").isEqualTo(false)
+            .jsonPath("$.message").isEqualTo("登入失敗，請檢查登入 ID 和密碼");
+        post("/api/auth/login", Map.of("loginId", "missing", "password", "password123"))
+            .expectStatus().isUnauthorized();
+    }
+
+    @Test
+    void testLoginRateLimited() {
+        // Given：同一登入 ID 只允許 3 次嘗試
+        for (int i = 0; i < 3; i++) {
+            post("/api/auth/login", Map.of("loginId", "limited", "password", "password123"))
+                .expectStatus().isUnauthorized();
+        }
+
+        // When & Then
+        post("/api/auth/login", Map.of("loginId", "limited", "password", "password123"))
+            .expectStatus().isEqualTo(429)
+            .expectHeader().exists(HttpHeaders.RETRY_AFTER)
+            .expectBody()
+            .jsonPath("$.message").isEqualTo("登入嘗試過於頻繁，請稍後再試");
+    }
+
+    @Test
+    void testHealthAndProtectedPaths() {
+        // When & Then
+        webTestClient.get().uri("/api/auth/health").exchange()
+            .expectStatus().isOk()
+            .expectBody()
+            .jsonPath("$.data").doesNotExist()
+            .jsonPath("$.message").isEqualTo("認證服務正常運行");
+        webTestClient.get().uri("/api/auth/me").exchange()
+            .expectStatus().isUnauthorized();
+        webTestClient.get().uri("/actuator/prometheus").exchange()
+            .expectStatus().isUnauthorized();
+
+        // When & Then：actuator 位於獨立管理埠
+        WebTestClient management = WebTestClient.bindToServer().baseUrl("http://localhost:" + managementPort).build();
+        management.get().uri("/actuator/health/readiness").exchange()
+            .expectStatus().isOk();
+    }
+
+    private WebTestClient.ResponseSpec post(String path, Map<String, String> body) {
+        return webTestClient.post().uri(path)
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue(body)
+            .exchange();
+    }
+}
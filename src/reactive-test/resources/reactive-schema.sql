@@ -0,0 +1,14 @@
+-- reactive 整合測試用結構（H2），與 User 實體及 docker/mysql/init/01-init.sql 一致
+CREATE TABLE IF NOT EXISTS users (
+    id BIGINT PRIMARY KEY,
+    username VARCHAR(50) NOT NULL,
+    login_id VARCHAR(30) NOT NULL,
+    password VARCHAR(255) NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL,
+    updated_at TIMESTAMP(6),
+    enabled BOOLEAN NOT NULL,
+    CONSTRAINT uk_users_username UNIQUE (username),
+    CONSTRAINT uk_users_login_id UNIQUE (login_id)
+);
+
+CREATE SEQUENCE IF NOT EXISTS users_seq START WITH 1 INCREMENT BY 50;
@@ -0,0 +1,22 @@
+package com.example.springboot_mysql_login_ci_sonar.reactive;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+
+/**
+ * Reactive 模式進入點（mvn -Preactive 建置）
+ * 以 WebFlux + R2DBC 提供與 servlet 版相同的註冊 / 登入 API，只掃描 reactive 套件；
+ * 本套件的 Bean 只在 reactive web 應用中載入，servlet 版掃描到時會略過
+ */
+@SpringBootApplication
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveAuthApplication {
+
+    public static void main(String[] args) {
+        new SpringApplicationBuilder(ReactiveAuthApplication.class)
+            .web(WebApplicationType.REACTIVE)
+            .run(args);
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.springboot_mysql_login_ci_sonar.reactive;
+
+import com.example.springboot_mysql_login_ci_sonar.config.AuthLogProperties;
+import com.example.springboot_mysql_login_ci_sonar.config.HashingProperties;
+import com.example.springboot_mysql_login_ci_sonar.config.ManagementPort;
+import com.example.springboot_mysql_login_ci_sonar.config.PasswordProperties;
+import com.example.springboot_mysql_login_ci_sonar.config.RateLimitProperties;
+import com.example.springboot_mysql_login_ci_sonar.config.SecurityConfig;
+import com.example.springboot_mysql_login_ci_sonar.config.TokenProperties;
+import com.example.springboot_mysql_login_ci_sonar.service.AccessTokenService;
+import com.example.springboot_mysql_login_ci_sonar.service.AuthEventLogger;
+import com.example.springboot_mysql_login_ci_sonar.service.LoginRateLimiter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.r2dbc.spi.ConnectionFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpStatus;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.authentication.HttpStatusServerEntryPoint;
+import org.springframework.security.web.server.util.matcher.ServerWebExchangeMatcher;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.net.InetSocketAddress;
+
+/**
+ * Reactive 模式配置
+ * 沿用 servlet 版的設定屬性與權杖、限流、認證事件元件；BCrypt 改在有界的 Reactor Scheduler 執行
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@EnableConfigurationProperties({PasswordProperties.class, HashingProperties.class, TokenProperties.class,
+    RateLimitProperties.class, AuthLogProperties.class})
+public class ReactiveAuthConfig {
+
+    private static final int HASHING_THREAD_TTL_SECONDS = 60;
+
+    /**
+     * classpath 同時有 Tomcat，自動配置會優先選用 Tomcat，這裡明確改用 Netty 事件迴圈
+     */
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+
+    @Bean
+    public PasswordEncoder passwordEncoder(PasswordProperties passwordProperties) {
+        return SecurityConfig.createPasswordEncoder(passwordProperties);
+    }
+
+    /**
+     * 密碼雜湊專用 Scheduler：執行緒數與佇列上限沿用 auth.hashing.*，佇列滿時拒絕，事件迴圈不執行 BCrypt。
+     * boundedElastic 的佇列上限以每條執行緒計算，因此將 queue-capacity 平均分配
+     */
+    @Bean(destroyMethod = "dispose")
+    public Scheduler hashingScheduler(HashingProperties properties) {
+        int poolSize = properties.resolvedPoolSize();
+        int queuePerThread = Math.max(1, (properties.getQueueCapacity() + poolSize - 1) / poolSize);
+        return Schedulers.newBoundedElastic(poolSize, queuePerThread, "password-hashing", HASHING_THREAD_TTL_SECONDS, true);
+    }
+
+    @Bean
+    public DatabaseClient databaseClient(ConnectionFactory connectionFactory) {
+        return DatabaseClient.create(connectionFactory);
+    }
+
+    @Bean
+    public AccessTokenService accessTokenService(TokenProperties properties) {
+        return new AccessTokenService(properties);
+    }
+
+    @Bean
+    public LoginRateLimiter loginRateLimiter(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        return new LoginRateLimiter(properties, meterRegistry);
+    }
+
+    @Bean
+    public AuthEventLogger authEventLogger(AuthLogProperties properties, MeterRegistry meterRegistry) {
+        return new AuthEventLogger(properties, meterRegistry);
+    }
+
+    @Bean
+    public ManagementPort managementPort() {
+        return new ManagementPort();
+    }
+
+    /**
+     * 只開放註冊、登入、健康檢查與內部管理埠，其餘請求回應 401
+     */
+    @Bean
+    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http, ManagementPort managementPort) {
+        return http
+            .csrf(ServerHttpSecurity.CsrfSpec::disable)
+            .httpBasic(ServerHttpSecurity.HttpBasicSpec::disable)
+            .formLogin(ServerHttpSecurity.FormLoginSpec::disable)
+            .exceptionHandling(exceptions -> exceptions.authenticationEntryPoint(new HttpStatusServerEntryPoint(HttpStatus.UNAUTHORIZED)))
+            .authorizeExchange(exchanges -> exchanges
+                .matchers(exchange -> {
+                    InetSocketAddress local = exchange.getRequest().getLocalAddress();
+                    return local != null && managementPort.matches(local.getPort())
+                        ? ServerWebExchangeMatcher.MatchResult.match() : ServerWebExchangeMatcher.MatchResult.notMatch();
+                }).permitAll()
+                .pathMatchers("/api/auth/signup", "/api/auth/login", "/api/auth/health", "/actuator/health", "/actuator/health/**").permitAll()
+                .anyExchange().authenticated()
+            )
+            .build();
+    }
+}
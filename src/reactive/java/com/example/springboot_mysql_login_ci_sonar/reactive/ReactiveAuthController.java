@@ -0,0 +1,114 @@
+package com.example.springboot_mysql_login_ci_sonar.reactive;
+
+import com.example.springboot_mysql_login_ci_sonar.dto.ApiResponse;
+import com.example.springboot_mysql_login_ci_sonar.dto.LoginRequest;
+import com.example.springboot_mysql_login_ci_sonar.dto.LoginResponse;
+import com.example.springboot_mysql_login_ci_sonar.dto.SignupRequest;
+import com.example.springboot_mysql_login_ci_sonar.dto.UserResponse;
+import com.example.springboot_mysql_login_ci_sonar.service.AccessTokenService;
+import com.example.springboot_mysql_login_ci_sonar.service.HashingOverloadedException;
+import com.example.springboot_mysql_login_ci_sonar.service.LoginRateLimiter;
+import com.example.springboot_mysql_login_ci_sonar.service.RateLimitExceededException;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+
+/**
+ * 認證 API 的 reactive 版本：路徑、狀態碼與 ApiResponse 內容與 servlet 版 AuthController 相同
+ */
+@RestController
+@RequestMapping("/api/auth")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequiredArgsConstructor
+@Slf4j
+@CrossOrigin(origins = "*")
+public class ReactiveAuthController {
+
+    private final ReactiveUserService userService;
+    private final AccessTokenService accessTokenService;
+    private final LoginRateLimiter loginRateLimiter;
+
+    /**
+     * 用戶註冊 API
+     * POST /api/auth/signup
+     */
+    @PostMapping("/signup")
+    public Mono<ResponseEntity<ApiResponse<UserResponse>>> signup(@Valid @RequestBody SignupRequest request) {
+        log.debug("收到註冊請求: username={}, loginId={}", request.getUsername(), request.getLoginId());
+
+        return userService.signup(request.getUsername(), request.getLoginId(), request.getPassword())
+            .map(user -> ResponseEntity.status(HttpStatus.CREATED)
+                .body(ApiResponse.success("註冊成功", UserResponse.from(user))))
+            .onErrorResume(IllegalArgumentException.class, e -> {
+                log.debug("註冊失敗: {}", e.getMessage());
+                return Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ApiResponse.error(e.getMessage())));
+            })
+            .onErrorResume(HashingOverloadedException.class, e -> {
+                log.warn("註冊請求被拒絕: {}", e.getMessage());
+                return Mono.just(overloaded(e));
+            })
+            .onErrorResume(e -> {
+                log.error("註冊過程中發生錯誤", e);
+                return Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(ApiResponse.error("註冊失敗，請稍後再試")));
+            });
+    }
+
+    /**
+     * 用戶登入 API
+     * POST /api/auth/login
+     */
+    @PostMapping("/login")
+    public Mono<ResponseEntity<ApiResponse<LoginResponse>>> login(@Valid @RequestBody LoginRequest request,
+                                                                 ServerHttpRequest httpRequest) {
+        log.debug("收到登入請求: loginId={}", request.getLoginId());
+
+        // 在查詢資料庫與 BCrypt 比對前先限流
+        return Mono.fromRunnable(() -> loginRateLimiter.check(request.getLoginId(), clientIp(httpRequest)))
+            .then(userService.login(request.getLoginId(), request.getPassword()))
+            .map(user -> ResponseEntity.ok(ApiResponse.success("登入成功", LoginResponse.from(user, accessTokenService.issue(user)))))
+            .switchIfEmpty(Mono.fromSupplier(() -> {
+                log.debug("登入失敗: 無效的登入憑證 loginId={}", request.getLoginId());
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(ApiResponse.error("登入失敗，請檢查登入 ID 和密碼"));
+            }))
+            .onErrorResume(RateLimitExceededException.class, e -> Mono.just(ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(ApiResponse.error("登入嘗試過於頻繁，請稍後再試"))))
+            .onErrorResume(HashingOverloadedException.class, e -> {
+                log.warn("登入請求被拒絕: {}", e.getMessage());
+                return Mono.just(overloaded(e));
+            })
+            .onErrorResume(e -> {
+                log.error("登入過程中發生錯誤", e);
+                return Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(ApiResponse.error("登入失敗，請稍後再試")));
+            });
+    }
+
+    /**
+     * 健康檢查 API
+     * GET /api/auth/health
+     */
+    @GetMapping("/health")
+    public ResponseEntity<ApiResponse<String>> health() {
+        return ResponseEntity.ok(ApiResponse.success("認證服務正常運行"));
+    }
+
+    private static <T> ResponseEntity<ApiResponse<T>> overloaded(HashingOverloadedException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+            .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+            .body(ApiResponse.error("系統繁忙，請稍後再試"));
+    }
+
+    private static String clientIp(ServerHttpRequest request) {
+        InetSocketAddress address = request.getRemoteAddress();
+        return address == null ? "unknown" : address.getAddress().getHostAddress();
+    }
+}
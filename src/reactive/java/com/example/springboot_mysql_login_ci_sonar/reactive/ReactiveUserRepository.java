@@ -0,0 +1,96 @@
+package com.example.springboot_mysql_login_ci_sonar.reactive;
+
+import com.example.springboot_mysql_login_ci_sonar.dto.UserCredentials;
+import com.example.springboot_mysql_login_ci_sonar.entity.User;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.Readable;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+/**
+ * users 表的非阻塞存取（R2DBC）
+ * ID 與 JPA 版共用 users_seq：每次新增取一個序列值直接作為 ID，
+ * 序列每次遞增 50，與 Hibernate pooled 最佳化器取得的區段不會重疊
+ */
+@Repository
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveUserRepository {
+
+    private static final String SELECT_CREDENTIALS =
+        "SELECT id, username, login_id, password, created_at, updated_at, enabled FROM users WHERE login_id = :loginId";
+    private static final String INSERT_USER =
+        "INSERT INTO users (id, username, login_id, password, created_at, updated_at, enabled) "
+            + "VALUES (:id, :username, :loginId, :password, :createdAt, :updatedAt, :enabled)";
+    private static final int SEQUENCE_INCREMENT = 50;
+
+    private final DatabaseClient databaseClient;
+    private final boolean mysql;
+
+    public ReactiveUserRepository(DatabaseClient databaseClient, ConnectionFactory connectionFactory) {
+        this.databaseClient = databaseClient;
+        this.mysql = "MySQL".equalsIgnoreCase(connectionFactory.getMetadata().getName());
+    }
+
+    /**
+     * 以登入 ID 查詢登入所需欄位
+     */
+    public Mono<UserCredentials> findCredentialsByLoginId(String loginId) {
+        return databaseClient.sql(SELECT_CREDENTIALS)
+            .bind("loginId", loginId)
+            .map(ReactiveUserRepository::toCredentials)
+            .one();
+    }
+
+    /**
+     * 新增用戶並填入 ID 與建立時間；重複時以 DataIntegrityViolationException 結束
+     */
+    public Mono<User> insert(User user) {
+        return nextId().flatMap(id -> {
+            LocalDateTime now = LocalDateTime.now();
+            user.setId(id);
+            user.setCreatedAt(now);
+            user.setUpdatedAt(now);
+            return databaseClient.sql(INSERT_USER)
+                .bind("id", id)
+                .bind("username", user.getUsername())
+                .bind("loginId", user.getLoginId())
+                .bind("password", user.getPassword())
+                .bind("createdAt", now)
+                .bind("updatedAt", now)
+                .bind("enabled", user.getEnabled())
+                .fetch()
+                .rowsUpdated()
+                .thenReturn(user);
+        });
+    }
+
+    private Mono<Long> nextId() {
+        if (!mysql) {
+            return databaseClient.sql("SELECT NEXT VALUE FOR users_seq")
+                .map(row -> row.get(0, Long.class))
+                .one();
+        }
+        // MySQL 以單列表模擬序列：LAST_INSERT_ID(expr) 綁定在連線上，兩個語句必須使用同一條連線
+        return databaseClient.inConnection(connection ->
+            Mono.from(connection.createStatement(
+                    "UPDATE users_seq SET next_val = LAST_INSERT_ID(next_val + " + SEQUENCE_INCREMENT + ")").execute())
+                .flatMap(result -> Mono.from(result.getRowsUpdated()))
+                .then(Mono.from(connection.createStatement("SELECT LAST_INSERT_ID() - " + SEQUENCE_INCREMENT).execute()))
+                .flatMap(result -> Mono.from(result.map(row -> row.get(0, Long.class)))));
+    }
+
+    private static UserCredentials toCredentials(Readable row) {
+        return new UserCredentials(
+            row.get("id", Long.class),
+            row.get("username", String.class),
+            row.get("login_id", String.class),
+            row.get("password", String.class),
+            row.get("created_at", LocalDateTime.class),
+            row.get("updated_at", LocalDateTime.class),
+            row.get("enabled", Boolean.class));
+    }
+}
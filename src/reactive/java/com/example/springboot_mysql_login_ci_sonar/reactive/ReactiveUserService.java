@@ -0,0 +1,133 @@
+package com.example.springboot_mysql_login_ci_sonar.reactive;
+
+import com.example.springboot_mysql_login_ci_sonar.config.HashingProperties;
+import com.example.springboot_mysql_login_ci_sonar.dto.UserCredentials;
+import com.example.springboot_mysql_login_ci_sonar.entity.User;
+import com.example.springboot_mysql_login_ci_sonar.service.AuthEventLogger;
+import com.example.springboot_mysql_login_ci_sonar.service.HashingOverloadedException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Reactive 用戶服務
+ * 註冊與登入流程對應 servlet 版的 UserService：重複由唯一約束擋下，BCrypt 在雜湊 Scheduler 上執行，
+ * 佇列已滿或等待逾時以 HashingOverloadedException 結束
+ */
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@Slf4j
+public class ReactiveUserService {
+
+    private final ReactiveUserRepository userRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final Scheduler hashingScheduler;
+    private final AuthEventLogger authEvents;
+    private final Duration maxWait;
+    private final long retryAfterSeconds;
+
+    public ReactiveUserService(ReactiveUserRepository userRepository, PasswordEncoder passwordEncoder,
+                               Scheduler hashingScheduler, AuthEventLogger authEvents, HashingProperties hashingProperties) {
+        this.userRepository = userRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.hashingScheduler = hashingScheduler;
+        this.authEvents = authEvents;
+        this.maxWait = hashingProperties.getMaxWait();
+        this.retryAfterSeconds = Math.max(1, hashingProperties.getRetryAfter().toSeconds());
+    }
+
+    /**
+     * 用戶註冊
+     * @return 註冊成功的用戶；用戶名稱或登入 ID 已存在時以 IllegalArgumentException 結束
+     */
+    public Mono<User> signup(String username, String loginId, String password) {
+        return hash(() -> passwordEncoder.encode(password))
+            .flatMap(encodedPassword -> {
+                User user = new User();
+                user.setUsername(username);
+                user.setLoginId(loginId);
+                user.setPassword(encodedPassword);
+                user.setEnabled(true);
+                return userRepository.insert(user);
+            })
+            .onErrorMap(DataIntegrityViolationException.class, e -> {
+                String message = duplicateKeyMessage(e);
+                return message != null ? rejectDuplicate(message, username, loginId, e) : e;
+            })
+            .doOnNext(user -> authEvents.success("signup", loginId, user.getId()));
+    }
+
+    /**
+     * 用戶登入驗證
+     * @return 登入成功的用戶；登入 ID 不存在、帳號停用或密碼錯誤時為空
+     */
+    public Mono<User> login(String loginId, String password) {
+        return userRepository.findCredentialsByLoginId(loginId)
+            .map(UserCredentials::toUser)
+            .switchIfEmpty(Mono.defer(() -> {
+                authEvents.failure("login", loginId, "user_not_found");
+                return Mono.empty();
+            }))
+            .flatMap(user -> {
+                if (!user.getEnabled()) {
+                    authEvents.failure("login", loginId, "disabled");
+                    return Mono.empty();
+                }
+                return hash(() -> passwordEncoder.matches(password, user.getPassword()))
+                    .flatMap(matches -> {
+                        if (!matches) {
+                            authEvents.failure("login", loginId, "bad_password");
+                            return Mono.empty();
+                        }
+                        authEvents.success("login", loginId, user.getId());
+                        return Mono.just(user);
+                    });
+            });
+    }
+
+    /**
+     * 在雜湊 Scheduler 上執行；逾時會取消尚未開始的工作
+     */
+    private <T> Mono<T> hash(Supplier<T> task) {
+        return Mono.fromSupplier(task)
+            .subscribeOn(hashingScheduler)
+            .timeout(maxWait)
+            .onErrorMap(RejectedExecutionException.class, e -> overloaded("密碼雜湊佇列已滿"))
+            .onErrorMap(TimeoutException.class, e -> overloaded("密碼雜湊等待逾時"));
+    }
+
+    private HashingOverloadedException overloaded(String reason) {
+        log.warn("{}: scheduler={}", reason, hashingScheduler);
+        return new HashingOverloadedException(reason, retryAfterSeconds);
+    }
+
+    private IllegalArgumentException rejectDuplicate(String message, String username, String loginId, Exception cause) {
+        authEvents.failure("signup", loginId, "duplicate");
+        log.debug("註冊失敗: {} username={}, loginId={}", message, username, loginId);
+        return new IllegalArgumentException(message, cause);
+    }
+
+    /**
+     * 依違反的唯一約束名稱轉換成對應的錯誤訊息，不是用戶名稱或登入 ID 唯一約束時回傳 null
+     */
+    private static String duplicateKeyMessage(DataIntegrityViolationException e) {
+        String detail = e.getMostSpecificCause().getMessage().toLowerCase(Locale.ROOT);
+        if (detail.contains(User.UK_USERNAME)) {
+            return "用戶名稱已存在";
+        }
+        if (detail.contains(User.UK_LOGIN_ID)) {
+            return "登入 ID 已存在";
+        }
+        return null;
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.springboot_mysql_login_ci_sonar.config;
+
+import com.zaxxer.hikari.HikariConfigMXBean;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * AdaptivePoolSizer 調整邏輯單元測試
+ */
+class AdaptivePoolSizerTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private HikariPoolMXBean pool;
+    private HikariConfigMXBean config;
+    private MeterRegistry meterRegistry;
+    private Timer usage;
+    private AdaptivePoolSizer.PoolController controller;
+    private long now;
+    private int maximumPoolSize = 10;
+    private int minimumIdle = 5;
+
+    @BeforeEach
+    void setUp() {
+        pool = mock(HikariPoolMXBean.class);
+        config = mock(HikariConfigMXBean.class);
+        when(config.getMaximumPoolSize()).thenAnswer(invocation -> maximumPoolSize);
+        when(config.getMinimumIdle()).thenAnswer(invocation -> minimumIdle);
+        doAnswer(invocation -> maximumPoolSize = invocation.getArgument(0)).when(config).setMaximumPoolSize(anyInt());
+        doAnswer(invocation -> minimumIdle = invocation.getArgument(0)).when(config).setMinimumIdle(anyInt());
+
+        meterRegistry = new SimpleMeterRegistry();
+        usage = Timer.builder("hikaricp.connections.usage").tag("pool", "test").register(meterRegistry);
+
+        PoolSizingProperties properties = new PoolSizingProperties();
+        properties.setMinSize(2);
+        properties.setMaxSize(30);
+        properties.setMinIdle(1);
+        properties.setHeadroom(1.25);
+        properties.setShrinkAfter(3);
+        properties.setShrinkStep(2);
+        now = System.nanoTime();
+        controller = new AdaptivePoolSizer.PoolController("test", pool, config, properties, meterRegistry, now);
+    }
+
+    @Test
+    void testGrowsImmediatelyUnderLoad() {
+        // Given：5 秒內累計 80 秒連線使用時間（平均 16 條同時使用）且有 4 個執行緒等待
+        usage.record(Duration.ofSeconds(80));
+        when(pool.getActiveConnections()).thenReturn(10);
+        when(pool.getThreadsAwaitingConnection()).thenReturn(4);
+
+        // When
+        tick(5);
+
+        // Then：(16 + 4) × 1.25 = 25
+        assertEquals(25, maximumPoolSize);
+        assertEquals(16, minimumIdle);
+        assertEquals(16.0, meterRegistry.get("auth.pool.demand").gauge().value(), 0.01);
+        assertEquals(1, meterRegistry.get("auth.pool.resize").tag("direction", "up").counter().count());
+        assertEquals(25, meterRegistry.get("auth.pool.target.max").gauge().value());
+    }
+
+    @Test
+    void testGrowthCappedAtMaxSize() {
+        // Given
+        usage.record(Duration.ofSeconds(500));
+        when(pool.getThreadsAwaitingConnection()).thenReturn(50);
+
+        // When
+        tick(5);
+
+        // Then
+        assertEquals(30, maximumPoolSize);
+    }
+
+    @Test
+    void testShrinksGraduallyAfterHysteresis() {
+        // Given：平均 1 條使用中，目標為下限 2
+        when(pool.getActiveConnections()).thenReturn(1);
+
+        // When & Then：前兩個間隔不縮小
+        usage.record(Duration.ofSeconds(5));
+        tick(5);
+        usage.record(Duration.ofSeconds(5));
+        tick(5);
+        assertEquals(10, maximumPoolSize);
+        assertEquals(1, minimumIdle);
+
+        // 第三個間隔縮小 shrinkStep
+        usage.record(Duration.ofSeconds(5));
+        tick(5);
+        assertEquals(8, maximumPoolSize);
+        assertEquals(1, meterRegistry.get("auth.pool.resize").tag("direction", "down").counter().count());
+
+        // 再三個間隔後再縮小
+        for (int i = 0; i < 3; i++) {
+            usage.record(Duration.ofSeconds(5));
+            tick(5);
+        }
+        assertEquals(6, maximumPoolSize);
+    }
+
+    @Test
+    void testSpikeResetsShrinkCounter() {
+        // Given
+        tick(5);
+        tick(5);
+
+        // When：短暫回到目前大小的負載（8 × 1.25 = 10）後再回到低負載
+        usage.record(Duration.ofSeconds(40));
+        tick(5);
+        tick(5);
+        tick(5);
+
+        // Then：負載回升重設遲滯計數，低負載只累積兩個間隔，尚未縮小
+        assertEquals(10, maximumPoolSize);
+    }
+
+    private void tick(int seconds) {
+        now += seconds * SECOND;
+        controller.adjust(now);
+    }
+}
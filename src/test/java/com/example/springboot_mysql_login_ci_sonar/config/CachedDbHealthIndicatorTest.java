@@ -0,0 +1,108 @@
+package com.example.springboot_mysql_login_ci_sonar.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * CachedDbHealthIndicator 單元測試
+ */
+class CachedDbHealthIndicatorTest {
+
+    private static final Instant START = Instant.parse("2024-01-01T00:00:00Z");
+
+    private DataSource dataSource;
+    private Connection connection;
+    private final AtomicReference<Instant> now = new AtomicReference<>(START);
+    private CachedDbHealthIndicator indicator;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        dataSource = mock(DataSource.class);
+        connection = mock(Connection.class);
+        DatabaseMetaData metaData = mock(DatabaseMetaData.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.isValid(anyInt())).thenReturn(true);
+        when(connection.getMetaData()).thenReturn(metaData);
+        when(metaData.getDatabaseProductName()).thenReturn("MySQL");
+
+        Clock clock = mock(Clock.class);
+        when(clock.instant()).thenAnswer(invocation -> now.get());
+        DbHealthProperties properties = new DbHealthProperties();
+        properties.setRefreshInterval(Duration.ofHours(1));
+        properties.setStaleThreshold(Duration.ofSeconds(30));
+        indicator = new CachedDbHealthIndicator(dataSource, properties, clock);
+    }
+
+    @AfterEach
+    void tearDown() {
+        indicator.destroy();
+    }
+
+    @Test
+    void testProbesServeCachedResultWithoutConnection() throws SQLException {
+        // Given
+        now.set(START.plusSeconds(5));
+
+        // When
+        Health health = null;
+        for (int i = 0; i < 100; i++) {
+            health = indicator.health();
+        }
+
+        // Then：只有啟動時的檢查取得過連線
+        assertEquals(Status.UP, health.getStatus());
+        assertEquals("MySQL", health.getDetails().get("database"));
+        assertEquals(5000L, health.getDetails().get("ageMillis"));
+        assertEquals(START.toString(), health.getDetails().get("checkedAt"));
+        verify(dataSource, times(1)).getConnection();
+    }
+
+    @Test
+    void testRefreshReportsConnectionFailure() throws SQLException {
+        // Given
+        when(dataSource.getConnection()).thenThrow(new SQLTransientConnectionException("Connection is not available"));
+
+        // When
+        indicator.refresh();
+
+        // Then
+        Health health = indicator.health();
+        assertEquals(Status.DOWN, health.getStatus());
+        assertEquals("SQLTransientConnectionException: Connection is not available", health.getDetails().get("error"));
+    }
+
+    @Test
+    void testStaleResultReportsDown() {
+        // Given：背景檢查超過門檻未更新
+        now.set(START.plusSeconds(31));
+
+        // When
+        Health health = indicator.health();
+
+        // Then
+        assertEquals(Status.DOWN, health.getStatus());
+        assertEquals("健康檢查結果已過期", health.getDetails().get("error"));
+
+        // When：恢復更新
+        indicator.refresh();
+
+        // Then
+        assertEquals(Status.UP, indicator.health().getStatus());
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.springboot_mysql_login_ci_sonar.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalManagementPort;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 獨立管理埠整合測試（實際啟動 Tomcat 與管理埠）
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "management.server.port=0")
+@AutoConfigureObservability
+@ActiveProfiles("test")
+class ManagementPortIntegrationTest {
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @LocalServerPort
+    private int port;
+
+    @LocalManagementPort
+    private int managementPort;
+
+    @Test
+    void testPrometheusOnlyOpenOnManagementPort() throws Exception {
+        // When & Then：公開埠需要認證，管理埠可直接抓取
+        assertEquals(401, status(port, "/actuator/prometheus"));
+        assertEquals(200, status(managementPort, "/actuator/prometheus"));
+        assertEquals(200, status(managementPort, "/actuator/health/liveness"));
+    }
+
+    private int status(int targetPort, String path) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + targetPort + path)).GET().build();
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}
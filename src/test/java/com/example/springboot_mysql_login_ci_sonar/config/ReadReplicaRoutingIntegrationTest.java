@@ -0,0 +1,85 @@
+package com.example.springboot_mysql_login_ci_sonar.config;
+
+import com.example.springboot_mysql_login_ci_sonar.entity.User;
+import com.example.springboot_mysql_login_ci_sonar.repository.UserRepository;
+import com.example.springboot_mysql_login_ci_sonar.service.UserService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 讀取副本路由整合測試
+ * 以兩個獨立的 H2 記憶體資料庫分別扮演主庫與副本（兩者之間不複寫），由查到的資料判斷查詢走向
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:rr_primary;DB_CLOSE_DELAY=-1",
+        "auth.read-replica.enabled=true",
+        "auth.read-replica.replicas[0].url=" + ReadReplicaRoutingIntegrationTest.REPLICA_URL,
+        "auth.read-replica.replicas[0].username=sa",
+        "auth.read-replica.replicas[0].password=",
+        "auth.bloom-filter.enabled=false",
+        "auth.user-cache.enabled=false",
+        "spring.jpa.show-sql=false"
+})
+@ActiveProfiles("test")
+class ReadReplicaRoutingIntegrationTest {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:rr_replica;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeAll
+    static void createReplica() {
+        JdbcTemplate replica = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", ""));
+        replica.execute("CREATE TABLE IF NOT EXISTS users (id BIGINT PRIMARY KEY, username VARCHAR(50) NOT NULL, "
+            + "login_id VARCHAR(30) NOT NULL, password VARCHAR(255) NOT NULL, created_at TIMESTAMP NOT NULL, "
+            + "updated_at TIMESTAMP, enabled BOOLEAN NOT NULL)");
+        replica.update("MERGE INTO users KEY (id) VALUES (9001, '副本用戶', 'replicaonly', 'x', CURRENT_TIMESTAMP, NULL, TRUE)");
+    }
+
+    @Test
+    void testReadOnlyQueriesUseReplica() {
+        // When & Then：只存在於副本的用戶查得到
+        assertTrue(userService.findByLoginId("replicaonly").isPresent());
+    }
+
+    @Test
+    void testWritesAndReadWriteTransactionsUsePrimary() {
+        // Given：直接寫入主庫（未經註冊流程，不會固定走主庫）
+        User user = new User();
+        user.setUsername("主庫用戶");
+        user.setLoginId("primaryonly");
+        user.setPassword("x".repeat(60));
+        user.setEnabled(true);
+        userRepository.save(user);
+
+        // When & Then
+        assertTrue(userService.findByLoginId("primaryonly").isEmpty());
+        assertTrue(transactionTemplate.execute(status -> userRepository.findByLoginId("primaryonly")).isPresent());
+        assertTrue(transactionTemplate.execute(status -> userRepository.findByLoginId("replicaonly")).isEmpty());
+    }
+
+    @Test
+    void testReadAfterSignupSticksToPrimary() {
+        // Given
+        userService.signup("新用戶", "freshuser", "password123");
+
+        // When & Then：副本沒有這筆資料，但註冊後的讀取固定走主庫
+        assertTrue(userService.findByLoginId("freshuser").isPresent());
+        assertTrue(userService.login("freshuser", "password123").isPresent());
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.springboot_mysql_login_ci_sonar.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * ReplicaRoutingDataSource 單元測試
+ */
+class ReplicaRoutingDataSourceTest {
+
+    private DataSource primary;
+    private DataSource replica0;
+    private DataSource replica1;
+    private Connection primaryConnection;
+    private Connection replicaConnection0;
+    private Connection replicaConnection1;
+    private ReadReplicaProperties properties;
+    private ReplicaRoutingDataSource routing;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        primary = mock(DataSource.class);
+        replica0 = mock(DataSource.class);
+        replica1 = mock(DataSource.class);
+        primaryConnection = mock(Connection.class);
+        replicaConnection0 = mock(Connection.class);
+        replicaConnection1 = mock(Connection.class);
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        when(replica0.getConnection()).thenReturn(replicaConnection0);
+        when(replica1.getConnection()).thenReturn(replicaConnection1);
+
+        properties = new ReadReplicaProperties();
+        properties.setEnabled(true);
+        properties.setCheckInterval(Duration.ofHours(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        if (routing != null) {
+            routing.close();
+        }
+    }
+
+    @Test
+    void testReadOnlyRoutesToReplicasRoundRobin() throws SQLException {
+        // Given
+        routing = new ReplicaRoutingDataSource(primary, List.of(replica0, replica1), properties);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        // When & Then
+        assertSame(replicaConnection0, routing.getConnection());
+        assertSame(replicaConnection1, routing.getConnection());
+        assertSame(replicaConnection0, routing.getConnection());
+    }
+
+    @Test
+    void testWritesAndForcedPrimaryUsePrimary() throws SQLException {
+        // Given
+        routing = new ReplicaRoutingDataSource(primary, List.of(replica0), properties);
+
+        // When & Then
+        assertSame(primaryConnection, routing.getConnection());
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        assertSame(primaryConnection, ReadReplicaRouting.onPrimary(() -> {
+            try {
+                return routing.getConnection();
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        }));
+        assertSame(replicaConnection0, routing.getConnection());
+    }
+
+    @Test
+    void testReplicaFailureFallsBackUntilHealthCheckRecovers() throws SQLException {
+        // Given
+        routing = new ReplicaRoutingDataSource(primary, List.of(replica0), properties);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        when(replica0.getConnection()).thenThrow(new SQLException("connection refused")).thenReturn(replicaConnection0);
+
+        // When & Then：連線失敗時改走主庫並標記不可用
+        assertSame(primaryConnection, routing.getConnection());
+        assertSame(primaryConnection, routing.getConnection());
+        assertFalse(routing.getReplicas().get(0).isHealthy());
+
+        when(replicaConnection0.isValid(anyInt())).thenReturn(true);
+        routing.checkReplicas();
+        assertTrue(routing.getReplicas().get(0).isHealthy());
+        assertSame(replicaConnection0, routing.getConnection());
+    }
+
+    @Test
+    void testLaggingReplicaMarkedDown() throws SQLException {
+        // Given
+        properties.setLagQuery("SHOW REPLICA STATUS");
+        properties.setMaxLag(Duration.ofSeconds(5));
+        routing = new ReplicaRoutingDataSource(primary, List.of(replica0), properties);
+        Statement statement = mock(Statement.class);
+        ResultSet resultSet = mock(ResultSet.class);
+        ResultSetMetaData metaData = mock(ResultSetMetaData.class);
+        when(replicaConnection0.createStatement()).thenReturn(statement);
+        when(statement.executeQuery("SHOW REPLICA STATUS")).thenReturn(resultSet);
+        when(resultSet.next()).thenReturn(true);
+        when(resultSet.getMetaData()).thenReturn(metaData);
+        when(metaData.getColumnCount()).thenReturn(2);
+        when(metaData.getColumnLabel(1)).thenReturn("Replica_IO_State");
+        when(metaData.getColumnLabel(2)).thenReturn("Seconds_Behind_Source");
+        when(resultSet.getLong("Seconds_Behind_Source")).thenReturn(30L, 1L);
+
+        // When & Then
+        routing.checkReplicas();
+        assertFalse(routing.getReplicas().get(0).isHealthy());
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        assertSame(primaryConnection, routing.getConnection());
+
+        routing.checkReplicas();
+        assertTrue(routing.getReplicas().get(0).isHealthy());
+    }
+
+    @Test
+    void testLeastConnectionsSelection() throws SQLException {
+        // Given
+        properties.setSelection(ReadReplicaProperties.Selection.LEAST_CONNECTIONS);
+        HikariDataSource busy = mock(HikariDataSource.class);
+        HikariDataSource idle = mock(HikariDataSource.class);
+        HikariPoolMXBean busyPool = mock(HikariPoolMXBean.class);
+        HikariPoolMXBean idlePool = mock(HikariPoolMXBean.class);
+        when(busy.getHikariPoolMXBean()).thenReturn(busyPool);
+        when(idle.getHikariPoolMXBean()).thenReturn(idlePool);
+        when(busyPool.getActiveConnections()).thenReturn(8);
+        when(idlePool.getActiveConnections()).thenReturn(2);
+        when(idle.getConnection()).thenReturn(replicaConnection1);
+        routing = new ReplicaRoutingDataSource(primary, List.of(busy, idle), properties);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        // When & Then
+        assertSame(replicaConnection1, routing.getConnection());
+    }
+}
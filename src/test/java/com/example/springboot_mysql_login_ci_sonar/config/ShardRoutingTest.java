@@ -0,0 +1,100 @@
+package com.example.springboot_mysql_login_ci_sonar.config;
+
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * ShardRouting 與 ShardRoutingDataSource 單元測試
+ */
+class ShardRoutingTest {
+
+    @Test
+    void testShardForIsStableAndCaseInsensitive() {
+        // When & Then
+        int shard = ShardRouting.shardFor("Alice", 4);
+        assertTrue(shard >= 0 && shard < 4);
+        assertEquals(shard, ShardRouting.shardFor("alice", 4));
+        assertEquals(shard, ShardRouting.shardFor("ALICE", 4));
+        assertEquals(0, ShardRouting.shardFor("alice", 1));
+        assertThrows(IllegalArgumentException.class, () -> ShardRouting.shardFor("alice", 0));
+    }
+
+    @Test
+    void testLoginIdsSpreadEvenly() {
+        // Given
+        int[] counts = new int[4];
+
+        // When
+        for (int i = 0; i < 20000; i++) {
+            counts[ShardRouting.shardFor("user" + i, 4)]++;
+        }
+
+        // Then：每個分片約 5000 筆
+        for (int count : counts) {
+            assertTrue(count > 4500 && count < 5500, "分片筆數不平均: " + count);
+        }
+    }
+
+    @Test
+    void testAddingShardMovesOnlyToNewShard() {
+        // Given
+        int keys = 20000;
+        int moved = 0;
+
+        // When：4 個分片增為 5 個
+        for (int i = 0; i < keys; i++) {
+            int before = ShardRouting.shardFor("user" + i, 4);
+            int after = ShardRouting.shardFor("user" + i, 5);
+            if (before != after) {
+                assertEquals(4, after, "只能搬到新增的分片");
+                moved++;
+            }
+        }
+
+        // Then：約 1/5 的用戶需要搬移
+        double fraction = (double) moved / keys;
+        assertTrue(fraction > 0.17 && fraction < 0.23, "搬移比例: " + fraction);
+    }
+
+    @Test
+    void testOnShardRejectsNestedDifferentShard() {
+        // When & Then
+        assertEquals(1, ShardRouting.onShard(1, () -> ShardRouting.onShard(1, ShardRouting::currentShard)));
+        assertThrows(IllegalStateException.class, () -> ShardRouting.onShard(1, () -> ShardRouting.onShard(2, () -> null)));
+        assertNull(ShardRouting.currentShard());
+    }
+
+    @Test
+    void testRoutingDataSourceUsesCurrentShard() throws SQLException {
+        // Given
+        DataSource shard0 = mock(DataSource.class);
+        DataSource shard1 = mock(DataSource.class);
+        Connection connection0 = mock(Connection.class);
+        Connection connection1 = mock(Connection.class);
+        when(shard0.getConnection()).thenReturn(connection0);
+        when(shard1.getConnection()).thenReturn(connection1);
+        ShardRoutingDataSource routing = new ShardRoutingDataSource(List.of(shard0, shard1));
+
+        // When & Then：未指定分片時使用第 0 個
+        assertSame(connection0, routing.getConnection());
+        assertSame(connection1, connectOnShard(routing, 1));
+        assertThrows(IllegalStateException.class, () -> connectOnShard(routing, 2));
+    }
+
+    private static Connection connectOnShard(ShardRoutingDataSource routing, int shard) {
+        return ShardRouting.onShard(shard, () -> {
+            try {
+                return routing.getConnection();
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+}
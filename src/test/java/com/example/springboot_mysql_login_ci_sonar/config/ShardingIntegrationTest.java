@@ -0,0 +1,316 @@
+package com.example.springboot_mysql_login_ci_sonar.config;
+
+import com.example.springboot_mysql_login_ci_sonar.dto.BatchSignupResult;
+import com.example.springboot_mysql_login_ci_sonar.dto.SignupRequest;
+import com.example.springboot_mysql_login_ci_sonar.entity.User;
+import com.example.springboot_mysql_login_ci_sonar.repository.UsernameDirectory;
+import com.example.springboot_mysql_login_ci_sonar.service.UserService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 分片整合測試
+ * 以四個獨立的 H2 記憶體資料庫分別扮演用戶名稱目錄與三個分片，直接查詢各分片確認資料位置；
+ * previous-shard-count=2 模擬由兩個分片擴充為三個、尚未完成重新平衡的狀態
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=" + ShardingIntegrationTest.DIRECTORY_URL,
+        "auth.sharding.enabled=true",
+        "auth.sharding.previous-shard-count=2",
+        "auth.sharding.shards[0].url=jdbc:h2:mem:shard_0;DB_CLOSE_DELAY=-1",
+        "auth.sharding.shards[0].username=sa",
+        "auth.sharding.shards[1].url=jdbc:h2:mem:shard_1;DB_CLOSE_DELAY=-1",
+        "auth.sharding.shards[1].username=sa",
+        "auth.sharding.shards[2].url=jdbc:h2:mem:shard_2;DB_CLOSE_DELAY=-1",
+        "auth.sharding.shards[2].username=sa",
+        "auth.bloom-filter.enabled=false",
+        "auth.user-cache.enabled=false",
+        "auth.health.db.refresh-interval=1h",
+        "spring.jpa.show-sql=false"
+})
+@ActiveProfiles("test")
+class ShardingIntegrationTest {
+
+    static final String DIRECTORY_URL = "jdbc:h2:mem:shard_directory;DB_CLOSE_DELAY=-1";
+    private static final int SHARDS = 3;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ShardRebalancer rebalancer;
+
+    @Autowired
+    private UsernameDirectory usernameDirectory;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void testSignupStoresUserOnItsShardOnly() {
+        // When
+        for (int i = 0; i < 12; i++) {
+            userService.signup("分片用戶" + i, "placed" + i, "password123");
+        }
+
+        // Then：每筆只存在於所屬分片，ID 落在該分片的範圍內
+        for (int i = 0; i < 12; i++) {
+            String loginId = "placed" + i;
+            int expected = ShardRouting.shardFor(loginId, SHARDS);
+            for (int shard = 0; shard < SHARDS; shard++) {
+                assertEquals(shard == expected ? 1 : 0, countOnShard(shard, loginId), loginId + " @ shard-" + shard);
+            }
+            long id = shard(expected).queryForObject("SELECT id FROM users WHERE login_id = ?", Long.class, loginId);
+            assertEquals(expected, id / ShardSchema.ID_RANGE, "ID 範圍: " + id);
+        }
+    }
+
+    @Test
+    void testUsernameIsUniqueAcrossShards() {
+        // Given：兩個位於不同分片的登入 ID
+        String first = loginIdOnShard("dupname", 0);
+        String second = loginIdOnShard("dupname", 1);
+        userService.signup("同名用戶", first, "password123");
+
+        // When
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+            () -> userService.signup("同名用戶", second, "password123"));
+
+        // Then
+        assertEquals("用戶名稱已存在", exception.getMessage());
+        assertEquals(0, countOnShard(1, second));
+        assertEquals(first, directory().queryForObject(
+            "SELECT login_id FROM username_directory WHERE username = ?", String.class, "同名用戶"));
+        assertEquals(first, userService.findByUsername("同名用戶").orElseThrow().getLoginId());
+    }
+
+    @Test
+    void testDuplicateLoginIdReleasesUsernameReservation() {
+        // Given
+        userService.signup("原本用戶", "takenlogin", "password123");
+
+        // When
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+            () -> userService.signup("新的用戶", "takenlogin", "password123"));
+
+        // Then：預留的用戶名稱已釋放，可由其他登入 ID 使用
+        assertEquals("登入 ID 已存在", exception.getMessage());
+        assertDoesNotThrow(() -> userService.signup("新的用戶", "otherlogin", "password123"));
+    }
+
+    @Test
+    void testLoginTouchesOnlyOwnShard() {
+        // Given：等待其他測試的登入活動寫完
+        String loginId = loginIdOnShard("single", 2);
+        userService.signup("單一分片", loginId, "password123");
+        awaitLoginActivityWritten();
+        long[] before = acquiredConnections();
+
+        // When
+        assertTrue(userService.login(loginId, "password123").isPresent());
+        assertTrue(userService.findByLoginId(loginId).isPresent());
+
+        // Then：查詢兩次，登入活動也寫入同一分片
+        awaitLoginActivityWritten();
+        long[] after = acquiredConnections();
+        assertEquals(before[0], after[0]);
+        assertEquals(before[1], after[1]);
+        assertEquals(before[2] + 3, after[2]);
+        assertEquals(1, shard(2).queryForObject(
+            "SELECT COUNT(*) FROM login_history h JOIN users u ON u.id = h.user_id WHERE u.login_id = ?", Long.class, loginId));
+        assertNotNull(shard(2).queryForObject(
+            "SELECT a.last_login_at FROM user_login_activity a JOIN users u ON u.id = a.user_id WHERE u.login_id = ?",
+            Object.class, loginId));
+    }
+
+    @Test
+    void testSignupBatchWritesEachShard() {
+        // Given
+        List<SignupRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            requests.add(signupRequest("批次分片" + i, "batchshard" + i));
+        }
+        requests.add(signupRequest("批次分片0", "batchshard6"));
+
+        // When
+        List<BatchSignupResult> results = userService.signupBatch(requests);
+
+        // Then
+        for (int i = 0; i < 6; i++) {
+            assertTrue(results.get(i).isSuccess());
+            assertEquals(1, countOnShard(ShardRouting.shardFor("batchshard" + i, SHARDS), "batchshard" + i));
+        }
+        assertFalse(results.get(6).isSuccess());
+        assertEquals("用戶名稱已存在", results.get(6).getMessage());
+    }
+
+    @Test
+    void testRebalanceMovesUsersPlacedBeforeShardWasAdded() {
+        // Given：依兩個分片配置寫入、擴充為三個分片後位置不同的用戶
+        List<String> misplaced = new ArrayList<>();
+        for (int i = 0; misplaced.size() < 3; i++) {
+            String loginId = "legacy" + i;
+            int oldShard = ShardRouting.shardFor(loginId, 2);
+            if (oldShard != ShardRouting.shardFor(loginId, SHARDS)) {
+                shard(oldShard).update("INSERT INTO users (id, username, login_id, password, created_at, updated_at, enabled) "
+                    + "VALUES (?, ?, ?, ?, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, TRUE)",
+                    9_000_000L + i, "舊用戶" + i, loginId, passwordEncoder.encode("password123"));
+                misplaced.add(loginId);
+            }
+        }
+
+        // When & Then：搬移前由舊分片查到
+        for (String loginId : misplaced) {
+            assertTrue(userService.login(loginId, "password123").isPresent());
+        }
+        ShardRebalancer.Result result = rebalancer.rebalance();
+
+        // Then
+        assertEquals(misplaced.size(), result.moved());
+        assertEquals(0, result.conflicts());
+        for (String loginId : misplaced) {
+            assertEquals(1, countOnShard(ShardRouting.shardFor(loginId, SHARDS), loginId));
+            assertEquals(0, countOnShard(ShardRouting.shardFor(loginId, 2), loginId));
+            assertEquals(loginId, userService.login(loginId, "password123").map(User::getLoginId).orElseThrow());
+        }
+        assertEquals(0, rebalancer.rebalance().moved());
+    }
+
+    @Test
+    void testRebalanceMovesLoginActivityAndHistory() {
+        // Given：舊分片上的用戶有登入活動與歷史，目標分片在搬移期間已寫入較新的失敗紀錄
+        String loginId = null;
+        for (int i = 0; loginId == null; i++) {
+            String candidate = "activity" + i;
+            if (ShardRouting.shardFor(candidate, 2) != ShardRouting.shardFor(candidate, SHARDS)) {
+                loginId = candidate;
+            }
+        }
+        int oldShard = ShardRouting.shardFor(loginId, 2);
+        int newShard = ShardRouting.shardFor(loginId, SHARDS);
+        long id = 9_100_000L;
+        insertUser(oldShard, id, "活動用戶", loginId);
+        shard(oldShard).update("INSERT INTO user_login_activity (user_id, last_login_at, last_failed_at, failed_attempts) "
+            + "VALUES (?, TIMESTAMP '2026-01-01 10:00:00', TIMESTAMP '2026-01-01 09:00:00', 0)", id);
+        for (String occurredAt : List.of("2026-01-01 09:00:00", "2026-01-01 10:00:00")) {
+            shard(oldShard).update("INSERT INTO login_history (user_id, success, reason, occurred_at) VALUES (?, ?, ?, ?)",
+                id, occurredAt.endsWith("10:00:00"), null, Timestamp.valueOf(occurredAt));
+        }
+        shard(newShard).update("INSERT INTO user_login_activity (user_id, last_login_at, last_failed_at, failed_attempts) "
+            + "VALUES (?, NULL, TIMESTAMP '2026-01-01 11:00:00', 2)", id);
+        shard(newShard).update("INSERT INTO login_history (user_id, success, reason, occurred_at) "
+            + "VALUES (?, FALSE, 'bad_password', TIMESTAMP '2026-01-01 11:00:00')", id);
+
+        // When
+        rebalancer.rebalance();
+
+        // Then：歷史全部在目標分片，活動列合併為最後成功 10:00、其後失敗 2 次
+        assertEquals(0, shard(oldShard).queryForObject("SELECT COUNT(*) FROM login_history WHERE user_id = ?", Long.class, id));
+        assertEquals(0, shard(oldShard).queryForObject("SELECT COUNT(*) FROM user_login_activity WHERE user_id = ?", Long.class, id));
+        assertEquals(3, shard(newShard).queryForObject("SELECT COUNT(*) FROM login_history WHERE user_id = ?", Long.class, id));
+        Map<String, Object> activity = shard(newShard).queryForMap(
+            "SELECT last_login_at, last_failed_at, failed_attempts FROM user_login_activity WHERE user_id = ?", id);
+        assertEquals(Timestamp.valueOf("2026-01-01 10:00:00"), activity.get("last_login_at"));
+        assertEquals(Timestamp.valueOf("2026-01-01 11:00:00"), activity.get("last_failed_at"));
+        assertEquals(2, ((Number) activity.get("failed_attempts")).intValue());
+    }
+
+    @Test
+    void testBackfillDirectoryWithExistingUsers() {
+        // Given：啟用分片前已存在、不在目錄中的用戶；另一個用戶名稱在目錄中已屬於其他登入 ID
+        String existing = loginIdOnShard("preexisting", 1);
+        insertUser(1, ShardSchema.ID_RANGE + 8_000_000L, "既有用戶", existing);
+        String clashing = loginIdOnShard("clashing", 2);
+        insertUser(2, 2 * ShardSchema.ID_RANGE + 8_000_000L, "衝突用戶", clashing);
+        directory().update("INSERT INTO username_directory (username, login_id) VALUES (?, ?)", "衝突用戶", "someoneelse");
+        assertTrue(userService.findByUsername("既有用戶").isEmpty());
+
+        // When
+        ShardRebalancer.BackfillResult result = rebalancer.backfillDirectory(usernameDirectory);
+
+        // Then：既有用戶可依用戶名稱查到，其他分片也不能再註冊相同名稱
+        assertEquals(1, result.conflicts());
+        assertEquals(existing, userService.findByUsername("既有用戶").orElseThrow().getLoginId());
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+            () -> userService.signup("既有用戶", loginIdOnShard("newcomer", 0), "password123"));
+        assertEquals("用戶名稱已存在", exception.getMessage());
+        assertEquals("someoneelse", directory().queryForObject(
+            "SELECT login_id FROM username_directory WHERE username = ?", String.class, "衝突用戶"));
+        assertEquals(0, rebalancer.backfillDirectory(usernameDirectory).added());
+    }
+
+    private void insertUser(int shard, long id, String username, String loginId) {
+        shard(shard).update("INSERT INTO users (id, username, login_id, password, created_at, updated_at, enabled) "
+            + "VALUES (?, ?, ?, ?, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP, TRUE)",
+            id, username, loginId, passwordEncoder.encode("password123"));
+    }
+
+    private void awaitLoginActivityWritten() {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (meterRegistry.get("auth.login.activity.buffer.size").gauge().value() > 0
+                || meterRegistry.get("auth.login.activity.lag").timeGauge().value() > 0) {
+            assertTrue(System.nanoTime() < deadline, "等待登入活動寫入逾時");
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    private long[] acquiredConnections() {
+        long[] counts = new long[SHARDS];
+        for (int shard = 0; shard < SHARDS; shard++) {
+            Timer timer = meterRegistry.find("hikaricp.connections.acquire").tag("pool", "shard-" + shard).timer();
+            counts[shard] = timer == null ? 0 : timer.count();
+        }
+        return counts;
+    }
+
+    private static SignupRequest signupRequest(String username, String loginId) {
+        SignupRequest request = new SignupRequest();
+        request.setUsername(username);
+        request.setLoginId(loginId);
+        request.setPassword("password123");
+        return request;
+    }
+
+    private static String loginIdOnShard(String prefix, int shard) {
+        for (int i = 0; ; i++) {
+            if (ShardRouting.shardFor(prefix + i, SHARDS) == shard) {
+                return prefix + i;
+            }
+        }
+    }
+
+    private static long countOnShard(int shard, String loginId) {
+        return shard(shard).queryForObject("SELECT COUNT(*) FROM users WHERE login_id = ?", Long.class, loginId);
+    }
+
+    private static JdbcTemplate shard(int shard) {
+        return new JdbcTemplate(new DriverManagerDataSource("jdbc:h2:mem:shard_" + shard + ";DB_CLOSE_DELAY=-1", "sa", ""));
+    }
+
+    private static JdbcTemplate directory() {
+        return new JdbcTemplate(new DriverManagerDataSource(DIRECTORY_URL, "sa", ""));
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.springboot_mysql_login_ci_sonar.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * UserIdSequenceMigration 測試（H2 記憶體資料庫，以單列表模擬 MySQL 的 users_seq）
+ */
+class UserIdSequenceMigrationTest {
+
+    private JdbcTemplate jdbc;
+
+    @BeforeEach
+    void setUp() {
+        jdbc = new JdbcTemplate(new DriverManagerDataSource(
+            "jdbc:h2:mem:sequence_" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", ""));
+        jdbc.execute("CREATE TABLE users (id BIGINT PRIMARY KEY)");
+    }
+
+    @Test
+    void testRaisesFreshSequenceAboveExistingIds() {
+        // Given：既有 AUTO_INCREMENT 資料，ddl-auto=update 新建的序列從 1 開始
+        jdbc.update("INSERT INTO users (id) VALUES (1), (2), (730)");
+        jdbc.execute("CREATE TABLE users_seq (next_val BIGINT)");
+        jdbc.update("INSERT INTO users_seq (next_val) VALUES (1)");
+
+        // When
+        new UserIdSequenceMigration(jdbc);
+
+        // Then：整個配置區段都大於現有最大 ID
+        assertEquals(781L, nextVal());
+    }
+
+    @Test
+    void testNeverLowersAndIsRepeatable() {
+        // Given：序列已超前
+        jdbc.update("INSERT INTO users (id) VALUES (10)");
+        jdbc.execute("CREATE TABLE users_seq (next_val BIGINT)");
+        jdbc.update("INSERT INTO users_seq (next_val) VALUES (5000)");
+
+        // When
+        new UserIdSequenceMigration(jdbc);
+        new UserIdSequenceMigration(jdbc);
+
+        // Then
+        assertEquals(5000L, nextVal());
+        assertEquals(1, jdbc.queryForObject("SELECT COUNT(*) FROM users_seq", Integer.class));
+    }
+
+    @Test
+    void testSeedsEmptySequenceTable() {
+        // Given
+        jdbc.update("INSERT INTO users (id) VALUES (42)");
+        jdbc.execute("CREATE TABLE users_seq (next_val BIGINT)");
+
+        // When
+        new UserIdSequenceMigration(jdbc);
+
+        // Then
+        assertEquals(93L, nextVal());
+    }
+
+    @Test
+    void testShardRangeIgnoresIdsMovedFromOtherShards() {
+        // Given：分片 1 的範圍內有自己的 ID，另有從分片 0 搬來的較小 ID
+        long start = ShardSchema.ID_RANGE + 1;
+        jdbc.update("INSERT INTO users (id) VALUES (7), (?)", start + 100);
+        jdbc.execute("CREATE TABLE users_seq (next_val BIGINT)");
+
+        // When
+        UserIdSequenceMigration.seed(jdbc, start, start + ShardSchema.ID_RANGE);
+
+        // Then
+        assertEquals(start + 151, nextVal());
+    }
+
+    @Test
+    void testNativeSequenceUntouched() {
+        // Given：H2 原生序列（非資料表）
+        jdbc.execute("CREATE SEQUENCE users_seq START WITH 1 INCREMENT BY 50");
+        jdbc.update("INSERT INTO users (id) VALUES (1)");
+
+        // When
+        new UserIdSequenceMigration(jdbc);
+
+        // Then
+        assertEquals(1L, jdbc.queryForObject("SELECT NEXT VALUE FOR users_seq", Long.class));
+    }
+
+    private long nextVal() {
+        return jdbc.queryForObject("SELECT next_val FROM users_seq", Long.class);
+    }
+}
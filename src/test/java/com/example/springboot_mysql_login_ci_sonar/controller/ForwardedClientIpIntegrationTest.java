@@ -0,0 +1,53 @@
+package com.example.springboot_mysql_login_ci_sonar.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 經由反向代理轉送的來源 IP 整合測試（實際啟動 Tomcat，RemoteIpValve 才會生效）
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+    "auth.rate-limit.ip.capacity=2",
+    "auth.rate-limit.ip.refill-period=1h"
+})
+@ActiveProfiles("test")
+class ForwardedClientIpIntegrationTest {
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @LocalServerPort
+    private int port;
+
+    @Test
+    void testForwardedClientsGetSeparateBuckets() throws Exception {
+        // Given：同一個代理（127.0.0.1）轉送的用戶端 A 用完自己的額度
+        assertEquals(HttpStatus.UNAUTHORIZED, login("198.51.100.1", "client_a1"));
+        assertEquals(HttpStatus.UNAUTHORIZED, login("198.51.100.1", "client_a2"));
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, login("198.51.100.1", "client_a3"));
+
+        // When & Then：經同一代理的用戶端 B 有獨立的權杖桶
+        assertEquals(HttpStatus.UNAUTHORIZED, login("198.51.100.2", "client_b1"));
+        assertEquals(HttpStatus.UNAUTHORIZED, login("203.0.113.9, 198.51.100.2", "client_b2"));
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, login("198.51.100.2", "client_b3"));
+    }
+
+    private HttpStatus login(String forwardedFor, String loginId) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/auth/login"))
+            .header("Content-Type", "application/json")
+            .header("X-Forwarded-For", forwardedFor)
+            .POST(HttpRequest.BodyPublishers.ofString(
+                "{\"loginId\":\"" + loginId + "\",\"password\":\"password123\"}"))
+            .build();
+        return HttpStatus.valueOf(client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode());
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.springboot_mysql_login_ci_sonar.controller;
+
+import com.example.springboot_mysql_login_ci_sonar.service.AccessTokenClaims;
+import com.example.springboot_mysql_login_ci_sonar.service.AccessTokenService;
+import com.example.springboot_mysql_login_ci_sonar.service.UserExportService;
+import com.example.springboot_mysql_login_ci_sonar.service.UserFileFormat;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.Writer;
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * UserExportController 單元測試
+ */
+@WebMvcTest(UserExportController.class)
+@Import(com.example.springboot_mysql_login_ci_sonar.config.SecurityConfig.class)
+@TestPropertySource(properties = "auth.token.admin-login-ids=admin")
+class UserExportControllerTest {
+
+    private static final String TOKEN = "k1.admin.signature";
+    private static final String USER_TOKEN = "k1.user.signature";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private UserExportService userExportService;
+
+    @MockBean
+    private AccessTokenService accessTokenService;
+
+    @BeforeEach
+    void setUp() {
+        Instant expiresAt = Instant.parse("2030-01-01T00:00:00Z");
+        when(accessTokenService.verify(TOKEN)).thenReturn(Optional.of(new AccessTokenClaims(1L, "admin", "tid1", expiresAt)));
+        when(accessTokenService.verify(USER_TOKEN)).thenReturn(Optional.of(new AccessTokenClaims(2L, "testuser", "tid2", expiresAt)));
+    }
+
+    @Test
+    void testExportCsv() throws Exception {
+        // Given
+        doAnswer(invocation -> {
+            Writer writer = invocation.getArgument(1);
+            writer.write("id,username,loginId,createdAt,updatedAt,enabled\n");
+            return 0L;
+        }).when(userExportService).export(eq(UserFileFormat.CSV), any());
+
+        // When & Then
+        mockMvc.perform(get("/api/users/export")
+                .param("format", "csv")
+                .header("Authorization", "Bearer " + TOKEN))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("text/csv;charset=UTF-8"))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"users.csv\""))
+                .andExpect(content().string("id,username,loginId,createdAt,updatedAt,enabled\n"));
+    }
+
+    @Test
+    void testExportUnsupportedFormat() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/api/users/export")
+                .param("format", "xml")
+                .header("Authorization", "Bearer " + TOKEN))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.success").value(false))
+                .andExpect(jsonPath("$.message").value("不支援的匯出格式: xml"));
+        verify(userExportService, never()).export(any(), any());
+    }
+
+    @Test
+    void testExportRequiresToken() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/api/users/export"))
+                .andExpect(status().isUnauthorized());
+        verify(userExportService, never()).export(any(), any());
+    }
+
+    @Test
+    void testExportForbiddenForNonAdmin() throws Exception {
+        // When & Then：一般用戶的權杖有效但沒有管理員角色
+        mockMvc.perform(get("/api/users/export")
+                .header("Authorization", "Bearer " + USER_TOKEN))
+                .andExpect(status().isForbidden());
+        verify(userExportService, never()).export(any(), any());
+    }
+}
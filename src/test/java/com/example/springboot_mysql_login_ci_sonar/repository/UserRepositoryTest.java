@@ -1,14 +1,19 @@
 package com.example.springboot_mysql_login_ci_sonar.repository;
 
+import com.example.springboot_mysql_login_ci_sonar.dto.UserCredentials;
+import com.example.springboot_mysql_login_ci_sonar.dto.UserExportRow;
 import com.example.springboot_mysql_login_ci_sonar.entity.User;
+import org.hibernate.engine.spi.SessionImplementor;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -69,6 +74,49 @@ class UserRepositoryTest {
         assertEquals("testuser", foundUser.get().getLoginId());
     }
 
+    @Test
+    void testFindCredentialsByLoginId() {
+        // Given
+        User savedUser = entityManager.persistAndFlush(testUser);
+        entityManager.clear();
+
+        // When
+        Optional<UserCredentials> credentials = userRepository.findCredentialsByLoginId("testuser");
+
+        // Then：投影結果可轉為與實體相同內容的 User，且不會載入受管理的實體
+        assertTrue(credentials.isPresent());
+        assertEquals("encodedPassword", credentials.get().password());
+        assertTrue(credentials.get().enabled());
+        User user = credentials.get().toUser();
+        assertEquals(savedUser.getId(), user.getId());
+        assertEquals("測試用戶", user.getUsername());
+        assertEquals(0, entityManager.getEntityManager().unwrap(SessionImplementor.class)
+            .getPersistenceContextInternal().getNumberOfManagedEntities());
+        assertTrue(userRepository.findCredentialsByLoginId("nonexistent").isEmpty());
+    }
+
+    @Test
+    void testFindExportRowsAfter() {
+        // Given
+        User first = entityManager.persistAndFlush(testUser);
+        User second = new User();
+        second.setUsername("第二用戶");
+        second.setLoginId("seconduser");
+        second.setPassword("encodedPassword");
+        second.setEnabled(true);
+        second = entityManager.persistAndFlush(second);
+
+        // When
+        List<UserExportRow> firstPage = userRepository.findExportRowsAfter(0L, PageRequest.ofSize(1));
+        List<UserExportRow> secondPage = userRepository.findExportRowsAfter(firstPage.get(0).id(), PageRequest.ofSize(1));
+
+        // Then
+        assertEquals(first.getId(), firstPage.get(0).id());
+        assertEquals("testuser", firstPage.get(0).loginId());
+        assertEquals(second.getId(), secondPage.get(0).id());
+        assertTrue(userRepository.findExportRowsAfter(second.getId(), PageRequest.ofSize(1)).isEmpty());
+    }
+
     @Test
     void testFindByLoginId_NotFound() {
         // When
@@ -143,6 +191,39 @@ class UserRepositoryTest {
         assertFalse(exists);
     }
 
+    @Test
+    void testFindExistingUsernamesAndLoginIds() {
+        // Given
+        entityManager.persistAndFlush(testUser);
+
+        // When
+        List<String> usernames = userRepository.findExistingUsernames(List.of("測試用戶", "不存在的用戶"));
+        List<String> loginIds = userRepository.findExistingLoginIds(List.of("testuser", "nonexistent"));
+
+        // Then
+        assertEquals(List.of("測試用戶"), usernames);
+        assertEquals(List.of("testuser"), loginIds);
+    }
+
+    @Test
+    void testSaveAll_AssignsSequenceIds() {
+        // Given
+        User another = new User();
+        another.setUsername("另一個用戶");
+        another.setLoginId("another");
+        another.setPassword("encodedPassword");
+        another.setEnabled(true);
+
+        // When
+        List<User> saved = userRepository.saveAll(List.of(testUser, another));
+        userRepository.flush();
+
+        // Then
+        assertNotNull(saved.get(0).getId());
+        assertNotNull(saved.get(1).getId());
+        assertNotEquals(saved.get(0).getId(), saved.get(1).getId());
+    }
+
     @Test
     void testFindByLoginIdAndPassword() {
         // Given
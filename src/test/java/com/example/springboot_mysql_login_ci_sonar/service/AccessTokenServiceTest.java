@@ -0,0 +1,250 @@
+package com.example.springboot_mysql_login_ci_sonar.service;
+
+import com.example.springboot_mysql_login_ci_sonar.config.TokenProperties;
+import com.example.springboot_mysql_login_ci_sonar.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * AccessTokenService 單元測試
+ */
+class AccessTokenServiceTest {
+
+    private static final String KEY_1 = Base64.getEncoder().encodeToString("0123456789abcdef0123456789abcdef".getBytes());
+    private static final String KEY_2 = Base64.getEncoder().encodeToString("fedcba9876543210fedcba9876543210".getBytes());
+    private static final Instant NOW = Instant.parse("2026-01-01T00:00:00Z");
+
+    private TokenProperties properties;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        properties = new TokenProperties();
+        properties.getKeys().put("k1", KEY_1);
+        properties.setActiveKeyId("k1");
+
+        user = new User();
+        user.setId(42L);
+        user.setLoginId("testuser");
+    }
+
+    private AccessTokenService serviceAt(Instant instant) {
+        return new AccessTokenService(properties, Clock.fixed(instant, ZoneOffset.UTC));
+    }
+
+    @Test
+    void testIssueAndVerify() {
+        // Given
+        AccessTokenService service = serviceAt(NOW);
+
+        // When
+        AccessToken token = service.issue(user);
+        Optional<AccessTokenClaims> claims = service.verify(token.value());
+
+        // Then
+        assertTrue(token.value().startsWith("k1."));
+        assertEquals(NOW.plus(Duration.ofMinutes(15)), token.expiresAt());
+        assertTrue(claims.isPresent());
+        assertEquals(42L, claims.get().userId());
+        assertEquals("testuser", claims.get().loginId());
+        assertEquals(token.expiresAt(), claims.get().expiresAt());
+    }
+
+    @Test
+    void testVerify_TamperedPayload() {
+        // Given
+        AccessTokenService service = serviceAt(NOW);
+        String token = service.issue(user).value();
+        String[] parts = token.split("\\.");
+        char[] payload = parts[1].toCharArray();
+        payload[0] = payload[0] == 'A' ? 'B' : 'A';
+
+        // When & Then
+        assertTrue(service.verify(parts[0] + "." + new String(payload) + "." + parts[2]).isEmpty());
+        assertTrue(service.verify("garbage").isEmpty());
+        assertTrue(service.verify("k1.%%%.%%%").isEmpty());
+        assertTrue(service.verify("unknown." + parts[1] + "." + parts[2]).isEmpty());
+    }
+
+    @Test
+    void testVerify_Expired() {
+        // Given
+        String token = serviceAt(NOW).issue(user).value();
+
+        // When & Then
+        assertTrue(serviceAt(NOW.plus(Duration.ofMinutes(15)).plusSeconds(29)).verify(token).isPresent());
+        assertTrue(serviceAt(NOW.plus(Duration.ofMinutes(15)).plusSeconds(31)).verify(token).isEmpty());
+    }
+
+    @Test
+    void testKeyRotation() {
+        // Given：以 k1 簽發後新增 k2 並切換為簽發金鑰
+        String oldToken = serviceAt(NOW).issue(user).value();
+        properties.getKeys().put("k2", KEY_2);
+        properties.setActiveKeyId("k2");
+        AccessTokenService rotated = serviceAt(NOW);
+
+        // When
+        String newToken = rotated.issue(user).value();
+
+        // Then
+        assertTrue(newToken.startsWith("k2."));
+        assertTrue(rotated.verify(oldToken).isPresent());
+        assertTrue(rotated.verify(newToken).isPresent());
+
+        // 移除 k1 後舊權杖失效
+        properties.getKeys().remove("k1");
+        assertTrue(serviceAt(NOW).verify(oldToken).isEmpty());
+    }
+
+    @Test
+    void testRevoke() {
+        // Given
+        AccessTokenService service = new AccessTokenService(properties);
+        String token = service.issue(user).value();
+        String other = service.issue(user).value();
+        AccessTokenClaims claims = service.verify(token).orElseThrow();
+
+        // When
+        service.revoke(claims);
+
+        // Then
+        assertTrue(service.verify(token).isEmpty());
+        assertTrue(service.verify(other).isPresent());
+    }
+
+    @Test
+    void testRevoke_NotEvictedBeforeExpiry() {
+        // Given
+        properties.setRevocationMaximumSize(1_000);
+        AccessTokenService service = serviceAt(NOW);
+        String first = service.issue(user).value();
+        service.revoke(service.verify(first).orElseThrow());
+
+        // When：之後其他用戶大量撤銷
+        for (int i = 0; i < 999; i++) {
+            service.revoke(service.verify(service.issue(userWithId(1_000L + i)).value()).orElseThrow());
+        }
+
+        // Then：最早撤銷的權杖仍然無效
+        assertTrue(service.verify(first).isEmpty());
+    }
+
+    @Test
+    void testRevoke_FullListRevokesAllIssuedTokens() {
+        // Given：撤銷清單上限 2 筆
+        properties.setRevocationMaximumSize(2);
+        MutableClock clock = new MutableClock(NOW);
+        AccessTokenService service = new AccessTokenService(properties, clock);
+        String first = service.issue(user).value();
+        String second = service.issue(user).value();
+        String third = service.issue(user).value();
+        String untouched = service.issue(user).value();
+        service.revoke(service.verify(first).orElseThrow());
+        service.revoke(service.verify(second).orElseThrow());
+
+        // When：清單已滿時再撤銷
+        service.revoke(service.verify(third).orElseThrow());
+
+        // Then：已簽發的權杖全部失效（含未撤銷的），之後簽發的權杖正常
+        assertTrue(service.verify(first).isEmpty());
+        assertTrue(service.verify(second).isEmpty());
+        assertTrue(service.verify(third).isEmpty());
+        assertTrue(service.verify(untouched).isEmpty());
+        clock.instant = NOW.plusSeconds(1);
+        assertTrue(service.verify(service.issue(user).value()).isPresent());
+    }
+
+    @Test
+    void testRevoke_UserOverLimitRevokesOnlyOwnTokens() {
+        // Given：撤銷清單上限 5 筆、每位用戶上限 2 筆
+        properties.setRevocationMaximumSize(5);
+        properties.setMaxRevocationsPerUser(2);
+        MutableClock clock = new MutableClock(NOW);
+        AccessTokenService service = new AccessTokenService(properties, clock);
+        String otherUser = service.issue(userWithId(7L)).value();
+        String untouched = service.issue(user).value();
+
+        // When：同一用戶反覆登入登出，遠超過撤銷清單上限
+        for (int i = 0; i < 20; i++) {
+            clock.instant = NOW.plusSeconds(i);
+            service.revoke(service.verify(service.issue(user).value()).orElseThrow());
+        }
+
+        // Then：該用戶已簽發的權杖全部失效，其他用戶不受影響，之後簽發的權杖正常
+        assertTrue(service.verify(untouched).isEmpty());
+        assertTrue(service.verify(otherUser).isPresent());
+        clock.instant = NOW.plusSeconds(20);
+        assertTrue(service.verify(service.issue(user).value()).isPresent());
+    }
+
+    @Test
+    void testInvalidConfiguration() {
+        // Given
+        properties.setActiveKeyId("missing");
+
+        // When & Then
+        assertThrows(IllegalStateException.class, () -> serviceAt(NOW));
+
+        properties.setActiveKeyId("short");
+        properties.getKeys().put("short", Base64.getEncoder().encodeToString(new byte[16]));
+        assertThrows(IllegalStateException.class, () -> serviceAt(NOW));
+    }
+
+    @Test
+    void testEphemeralKeyWhenNotConfigured() {
+        // Given
+        AccessTokenService service = serviceAt(NOW);
+        properties.getKeys().clear();
+        properties.setActiveKeyId(null);
+        AccessTokenService ephemeral = serviceAt(NOW);
+
+        // When
+        String token = ephemeral.issue(user).value();
+
+        // Then
+        assertTrue(ephemeral.verify(token).isPresent());
+        assertTrue(service.verify(token).isEmpty());
+    }
+
+    private static User userWithId(long id) {
+        User other = new User();
+        other.setId(id);
+        other.setLoginId("user" + id);
+        return other;
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant instant;
+
+        MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
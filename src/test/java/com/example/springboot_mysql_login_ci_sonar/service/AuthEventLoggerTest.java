@@ -0,0 +1,122 @@
+package com.example.springboot_mysql_login_ci_sonar.service;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import com.example.springboot_mysql_login_ci_sonar.config.AuthLogProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * AuthEventLogger 單元測試
+ */
+class AuthEventLoggerTest {
+
+    private final Logger eventLogger = (Logger) LoggerFactory.getLogger(AuthEventLogger.LOGGER_NAME);
+    private ListAppender<ILoggingEvent> appender;
+    private AuthLogProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private AuthEventLogger authEvents;
+
+    @BeforeEach
+    void setUp() {
+        appender = new ListAppender<>();
+        appender.start();
+        eventLogger.addAppender(appender);
+        properties = new AuthLogProperties();
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (authEvents != null) {
+            authEvents.destroy();
+        }
+        eventLogger.detachAppender(appender);
+    }
+
+    @Test
+    void testSynchronousStructuredEvents() {
+        // Given
+        properties.setAsync(false);
+        authEvents = new AuthEventLogger(properties, meterRegistry);
+
+        // When
+        authEvents.success("login", "testuser", 1L);
+        authEvents.failure("login", "testuser", "bad_password");
+
+        // Then
+        assertEquals(2, appender.list.size());
+        assertTrue(appender.list.get(0).getFormattedMessage().matches("ts=\\d+ event=login outcome=success loginId=testuser userId=1"));
+        assertTrue(appender.list.get(1).getFormattedMessage().endsWith("event=login outcome=failure loginId=testuser reason=bad_password"));
+    }
+
+    @Test
+    void testSuccessSampledFailuresKept() {
+        // Given
+        properties.setAsync(false);
+        properties.setSuccessSampleRate(0.0);
+        authEvents = new AuthEventLogger(properties, meterRegistry);
+
+        // When
+        for (int i = 0; i < 10; i++) {
+            authEvents.success("login", "testuser", 1L);
+        }
+        authEvents.failure("login", "testuser", "user_not_found");
+
+        // Then
+        assertEquals(1, appender.list.size());
+        assertEquals(10, meterRegistry.get("auth.log.sampled.out").counter().count());
+    }
+
+    @Test
+    void testDisabled() {
+        // Given
+        properties.setEnabled(false);
+        authEvents = new AuthEventLogger(properties, meterRegistry);
+
+        // When
+        authEvents.failure("login", "testuser", "bad_password");
+
+        // Then
+        assertTrue(appender.list.isEmpty());
+    }
+
+    @Test
+    void testAsyncWritesAndCountsDrops() throws InterruptedException {
+        // Given：以同步的 appender 佔住背景執行緒，使佇列塞滿
+        properties.setQueueCapacity(2);
+        Object gate = new Object();
+        ListAppender<ILoggingEvent> blocking = new ListAppender<>() {
+            @Override
+            protected void append(ILoggingEvent event) {
+                synchronized (gate) {
+                    super.append(event);
+                }
+            }
+        };
+        blocking.start();
+        eventLogger.addAppender(blocking);
+        authEvents = new AuthEventLogger(properties, meterRegistry);
+
+        // When
+        synchronized (gate) {
+            for (int i = 0; i < 20; i++) {
+                authEvents.failure("login", "user" + i, "bad_password");
+            }
+        }
+        authEvents.destroy();
+        authEvents = null;
+        eventLogger.detachAppender(blocking);
+
+        // Then：寫出與丟棄的總數等於送出的事件數
+        double dropped = meterRegistry.get("auth.log.dropped").counter().count();
+        assertTrue(dropped >= 17, "dropped=" + dropped);
+        assertEquals(20, appender.list.size() + (int) dropped);
+    }
+}
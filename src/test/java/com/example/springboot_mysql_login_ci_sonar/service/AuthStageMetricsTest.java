@@ -0,0 +1,93 @@
+package com.example.springboot_mysql_login_ci_sonar.service;
+
+import com.example.springboot_mysql_login_ci_sonar.config.AuthMetricsProperties;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * AuthStageMetrics 單元測試
+ */
+class AuthStageMetricsTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private AuthMetricsProperties properties;
+    private AuthStageMetrics stageMetrics;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        properties = new AuthMetricsProperties();
+        stageMetrics = new AuthStageMetrics(meterRegistry, properties);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void testRecord_TimerWithTags() {
+        // When
+        String result = stageMetrics.record("login", "lookup", () -> "user");
+        stageMetrics.record("login", "lookup", () -> "user");
+
+        // Then
+        assertEquals("user", result);
+        Timer timer = meterRegistry.get(AuthStageMetrics.TIMER_NAME)
+            .tag("operation", "login").tag("stage", "lookup").timer();
+        assertEquals(2, timer.count());
+        assertNull(ServerTiming.current());
+    }
+
+    @Test
+    void testRecord_RecordsWhenBodyThrows() {
+        // When
+        assertThrows(IllegalStateException.class, () -> stageMetrics.record("signup", "insert", () -> {
+            throw new IllegalStateException("boom");
+        }));
+
+        // Then
+        assertEquals(1, meterRegistry.get(AuthStageMetrics.TIMER_NAME)
+            .tag("operation", "signup").tag("stage", "insert").timer().count());
+    }
+
+    @Test
+    void testRecord_ServerTimingAccumulatesPerStage() {
+        // Given
+        properties.setServerTiming(true);
+
+        // When
+        stageMetrics.record("login", "lookup", () -> { });
+        stageMetrics.record("login", "verify", () -> { });
+        stageMetrics.record("login", "lookup", () -> { });
+
+        // Then
+        ServerTiming timing = ServerTiming.current();
+        assertNotNull(timing);
+        assertTrue(timing.toHeaderValue().matches("lookup;dur=\\d+\\.\\d{3}, verify;dur=\\d+\\.\\d{3}"),
+            timing.toHeaderValue());
+    }
+
+    @Test
+    void testRecord_ServerTimingOutsideRequest() {
+        // Given
+        properties.setServerTiming(true);
+        RequestContextHolder.resetRequestAttributes();
+
+        // When
+        stageMetrics.record("login", "verify", () -> { });
+
+        // Then
+        assertNull(ServerTiming.current());
+        assertEquals(1, meterRegistry.get(AuthStageMetrics.TIMER_NAME).timer().count());
+    }
+}
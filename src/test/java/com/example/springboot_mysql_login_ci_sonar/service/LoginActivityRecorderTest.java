@@ -0,0 +1,281 @@
+package com.example.springboot_mysql_login_ci_sonar.service;
+
+import com.example.springboot_mysql_login_ci_sonar.config.LoginActivityProperties;
+import com.example.springboot_mysql_login_ci_sonar.config.ShardingProperties;
+import com.example.springboot_mysql_login_ci_sonar.entity.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.TransactionDefinition;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * LoginActivityRecorder 測試（H2 記憶體資料庫）
+ */
+class LoginActivityRecorderTest {
+
+    @TempDir
+    Path tempDir;
+
+    private JdbcTemplate jdbc;
+    private DataSourceTransactionManager transactionManager;
+    private LoginActivityProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private LoginActivityRecorder recorder;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+            "jdbc:h2:mem:activity_" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        jdbc = new JdbcTemplate(dataSource);
+        transactionManager = new DataSourceTransactionManager(dataSource);
+        properties = new LoginActivityProperties();
+        properties.setFlushInterval(Duration.ofMillis(20));
+        properties.setOverflowFile(tempDir.resolve("overflow.csv"));
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (recorder != null) {
+            recorder.destroy();
+        }
+    }
+
+    @Test
+    void testCoalescesPerUserAndWritesHistory() {
+        // Given
+        createTables();
+        recorder = newRecorder();
+
+        // When
+        recorder.failure(user(1L, "user1"), "bad_password");
+        recorder.failure(user(1L, "user1"), "bad_password");
+        recorder.failure(user(2L, "user2"), "disabled");
+        recorder.success(user(3L, "user3"));
+
+        // Then
+        awaitUntil(() -> count("login_history") == 4);
+        Map<String, Object> user1 = activity(1L);
+        assertEquals(2, ((Number) user1.get("failed_attempts")).intValue());
+        assertNull(user1.get("last_login_at"));
+        assertNotNull(user1.get("last_failed_at"));
+        assertEquals(1, ((Number) activity(2L).get("failed_attempts")).intValue());
+        assertNotNull(activity(3L).get("last_login_at"));
+        awaitUntil(() -> meterRegistry.get("auth.login.activity.written").counter().count() == 4);
+    }
+
+    @Test
+    void testSuccessResetsFailedAttempts() {
+        // Given：先累積兩次失敗
+        createTables();
+        recorder = newRecorder();
+        recorder.failure(user(1L, "user1"), "bad_password");
+        recorder.failure(user(1L, "user1"), "bad_password");
+        awaitUntil(() -> count("login_history") == 2);
+
+        // When
+        recorder.success(user(1L, "user1"));
+        recorder.failure(user(1L, "user1"), "bad_password");
+
+        // Then：成功之後只剩一次失敗
+        awaitUntil(() -> count("login_history") == 4);
+        Map<String, Object> user1 = activity(1L);
+        assertEquals(1, ((Number) user1.get("failed_attempts")).intValue());
+        assertNotNull(user1.get("last_login_at"));
+    }
+
+    @Test
+    void testReplayedOlderEventsDoNotOverwriteNewerActivity() throws Exception {
+        // Given：已記錄兩次較新的失敗
+        createTables();
+        recorder = newRecorder();
+        recorder.failure(user(1L, "user1"), "bad_password");
+        recorder.failure(user(1L, "user1"), "bad_password");
+        awaitUntil(() -> count("login_history") == 2);
+        Object lastFailedAt = activity(1L).get("last_failed_at");
+
+        // When：溢出檔中較舊的成功事件之後才重新寫入
+        long hourAgo = System.currentTimeMillis() - TimeUnit.HOURS.toMillis(1);
+        spill(hourAgo + ",1,user1,true,\n");
+        awaitUntil(() -> count("login_history") == 3);
+
+        // Then：舊的成功不會把較新的失敗歸零
+        Map<String, Object> user1 = activity(1L);
+        assertEquals(2, ((Number) user1.get("failed_attempts")).intValue());
+        assertEquals(lastFailedAt, user1.get("last_failed_at"));
+        assertNotNull(user1.get("last_login_at"));
+
+        // When：較新的成功之後，重新寫入較舊的失敗
+        recorder.success(user(1L, "user1"));
+        awaitUntil(() -> count("login_history") == 4);
+        Object lastLoginAt = activity(1L).get("last_login_at");
+        spill((hourAgo + 1) + ",1,user1,false,bad_password\n");
+        awaitUntil(() -> count("login_history") == 5);
+
+        // Then：時間不倒退，舊的失敗也不計入
+        user1 = activity(1L);
+        assertEquals(0, ((Number) user1.get("failed_attempts")).intValue());
+        assertEquals(lastLoginAt, user1.get("last_login_at"));
+        assertEquals(lastFailedAt, user1.get("last_failed_at"));
+    }
+
+    @Test
+    void testSpillsWhenDatabaseUnavailableAndReplays() {
+        // Given：資料表尚未建立，寫入失敗
+        recorder = newRecorder();
+        recorder.success(user(1L, "user1"));
+        recorder.failure(user(2L, "user,2"), "bad_password");
+        awaitUntil(() -> meterRegistry.get("auth.login.activity.spilled").counter().count() == 2);
+
+        // When：資料表恢復
+        createTables();
+
+        // Then：背景執行緒空閒時重新寫入溢出檔
+        awaitUntil(() -> count("login_history") == 2);
+        Path overflowFile = properties.getOverflowFile();
+        awaitUntil(() -> !Files.exists(overflowFile) && !Files.exists(overflowFile.resolveSibling("overflow.csv.replaying")));
+        assertEquals(1, ((Number) activity(2L).get("failed_attempts")).intValue());
+        assertEquals(0, meterRegistry.get("auth.login.activity.dropped").counter().count());
+    }
+
+    @Test
+    void testDropPolicy() {
+        // Given
+        properties.setOverflowPolicy(LoginActivityProperties.OverflowPolicy.DROP);
+        recorder = newRecorder();
+
+        // When
+        recorder.success(user(1L, "user1"));
+
+        // Then
+        awaitUntil(() -> meterRegistry.get("auth.login.activity.dropped").counter().count() == 1);
+        assertFalse(Files.exists(properties.getOverflowFile()));
+    }
+
+    @Test
+    void testFullBufferDropsWithoutTouchingOverflowFile() throws Exception {
+        // Given：背景執行緒卡在第一批寫入，緩衝區容量 2
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        transactionManager = new DataSourceTransactionManager(transactionManager.getDataSource()) {
+            @Override
+            protected void doBegin(Object transaction, TransactionDefinition definition) {
+                writing.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                super.doBegin(transaction, definition);
+            }
+        };
+        properties.setBufferSize(2);
+        recorder = newRecorder();
+        recorder.success(user(1L, "user1"));
+        assertTrue(writing.await(5, TimeUnit.SECONDS));
+
+        // When
+        recorder.success(user(2L, "user2"));
+        recorder.success(user(3L, "user3"));
+        recorder.success(user(4L, "user4"));
+
+        // Then：超出的事件在呼叫端直接計為丟棄，不寫溢出檔
+        assertEquals(1, meterRegistry.get("auth.login.activity.dropped").counter().count());
+        assertFalse(Files.exists(properties.getOverflowFile()));
+        release.countDown();
+    }
+
+    @Test
+    void testUnusableOverflowDirectoryFailsAtStartup() throws Exception {
+        // Given：溢出檔的上層路徑是一般檔案
+        Path notDirectory = Files.writeString(tempDir.resolve("not-a-directory"), "");
+        properties.setOverflowFile(notDirectory.resolve("overflow.csv"));
+
+        // When & Then
+        assertThrows(IllegalStateException.class, this::newRecorder);
+    }
+
+    @Test
+    void testDisabled() {
+        // Given
+        properties.setEnabled(false);
+        createTables();
+        recorder = newRecorder();
+
+        // When
+        recorder.success(user(1L, "user1"));
+
+        // Then
+        assertEquals(0, meterRegistry.get("auth.login.activity.buffer.size").gauge().value());
+        assertEquals(0, count("login_history"));
+    }
+
+    private LoginActivityRecorder newRecorder() {
+        return new LoginActivityRecorder(properties, jdbc, transactionManager,
+            new UserShards(new ShardingProperties()), meterRegistry);
+    }
+
+    private void createTables() {
+        jdbc.execute("CREATE TABLE user_login_activity (user_id BIGINT PRIMARY KEY, last_login_at TIMESTAMP, "
+            + "last_failed_at TIMESTAMP, failed_attempts INT NOT NULL)");
+        jdbc.execute("CREATE TABLE login_history (id BIGINT AUTO_INCREMENT PRIMARY KEY, user_id BIGINT NOT NULL, "
+            + "success BOOLEAN NOT NULL, reason VARCHAR(32), occurred_at TIMESTAMP NOT NULL)");
+    }
+
+    /**
+     * 以原子改名放入溢出檔，避免背景執行緒讀到寫一半的檔案
+     */
+    private void spill(String lines) throws Exception {
+        Path staged = Files.writeString(tempDir.resolve("staged.csv"), lines);
+        Files.move(staged, properties.getOverflowFile(), StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private int count(String table) {
+        try {
+            return jdbc.queryForObject("SELECT COUNT(*) FROM " + table, Integer.class);
+        } catch (RuntimeException e) {
+            return -1;
+        }
+    }
+
+    private Map<String, Object> activity(long userId) {
+        return jdbc.queryForMap("SELECT * FROM user_login_activity WHERE user_id = ?", userId);
+    }
+
+    private static User user(long id, String loginId) {
+        User user = new User();
+        user.setId(id);
+        user.setLoginId(loginId);
+        return user;
+    }
+
+    private static void awaitUntil(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "等待寫入逾時");
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package com.example.springboot_mysql_login_ci_sonar.service;
+
+import com.example.springboot_mysql_login_ci_sonar.config.LoginCoalescingProperties;
+import com.example.springboot_mysql_login_ci_sonar.entity.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * LoginCoalescer 單元測試
+ */
+class LoginCoalescerTest {
+
+    private LoginCoalescingProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private LoginCoalescer coalescer;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        properties = new LoginCoalescingProperties();
+        meterRegistry = new SimpleMeterRegistry();
+        coalescer = new LoginCoalescer(properties, new CredentialDigest(), meterRegistry);
+        executor = Executors.newFixedThreadPool(8);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void testConcurrentIdenticalAttemptsShareOneExecution() throws Exception {
+        // Given：第一個請求的驗證卡住，其餘相同憑證的請求陸續到達
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger executions = new AtomicInteger();
+        LoginCoalescer.Attempt success = LoginCoalescer.Attempt.success(new User());
+        Supplier<LoginCoalescer.Attempt> task = () -> {
+            executions.incrementAndGet();
+            await(release);
+            return success;
+        };
+
+        // When
+        List<Future<LoginCoalescer.Attempt>> results = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            results.add(executor.submit(() -> coalescer.execute("testuser", "password123", task)));
+        }
+        awaitCoalesced(4);
+        release.countDown();
+
+        // Then
+        for (Future<LoginCoalescer.Attempt> result : results) {
+            assertSame(success, result.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, executions.get());
+        assertEquals(0, coalescer.inFlightCount());
+    }
+
+    @Test
+    void testCompletedAttemptNotRetained() {
+        // Given
+        AtomicInteger executions = new AtomicInteger();
+        Supplier<LoginCoalescer.Attempt> task = () -> {
+            executions.incrementAndGet();
+            return LoginCoalescer.Attempt.failure("bad_password");
+        };
+
+        // When
+        coalescer.execute("testuser", "password123", task);
+        coalescer.execute("testuser", "password123", task);
+
+        // Then
+        assertEquals(2, executions.get());
+        assertEquals(0, coalescer.inFlightCount());
+    }
+
+    @Test
+    void testDifferentPasswordNotCoalesced() throws Exception {
+        // Given：正確密碼的驗證進行中
+        CountDownLatch release = new CountDownLatch(1);
+        LoginCoalescer.Attempt success = LoginCoalescer.Attempt.success(new User());
+        Future<LoginCoalescer.Attempt> pending = executor.submit(() -> coalescer.execute("testuser", "password123", () -> {
+            await(release);
+            return success;
+        }));
+        awaitInFlight(1);
+
+        // When：錯誤密碼不會共用進行中的成功結果
+        LoginCoalescer.Attempt wrong = coalescer.execute("testuser", "wrongpassword",
+            () -> LoginCoalescer.Attempt.failure("bad_password"));
+        release.countDown();
+
+        // Then
+        assertEquals("bad_password", wrong.failureReason());
+        assertSame(success, pending.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testExceptionSharedWithWaiters() throws Exception {
+        // Given
+        CountDownLatch release = new CountDownLatch(1);
+        HashingOverloadedException overloaded = new HashingOverloadedException("密碼雜湊佇列已滿", 1);
+        Supplier<LoginCoalescer.Attempt> task = () -> {
+            await(release);
+            throw overloaded;
+        };
+
+        // When
+        Future<LoginCoalescer.Attempt> leader = executor.submit(() -> coalescer.execute("testuser", "password123", task));
+        Future<LoginCoalescer.Attempt> follower = executor.submit(() -> coalescer.execute("testuser", "password123", task));
+        awaitCoalesced(1);
+        release.countDown();
+
+        // Then
+        for (Future<LoginCoalescer.Attempt> result : List.of(leader, follower)) {
+            Exception e = assertThrows(Exception.class, () -> result.get(5, TimeUnit.SECONDS));
+            assertSame(overloaded, e.getCause());
+        }
+        assertEquals(0, coalescer.inFlightCount());
+    }
+
+    @Test
+    void testBypassedWhenInFlightLimitReached() throws Exception {
+        // Given
+        properties.setMaxInFlight(1);
+        coalescer = new LoginCoalescer(properties, new CredentialDigest(), meterRegistry);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<LoginCoalescer.Attempt> pending = executor.submit(() -> coalescer.execute("user1", "password123", () -> {
+            await(release);
+            return LoginCoalescer.Attempt.failure("bad_password");
+        }));
+        awaitInFlight(1);
+
+        // When
+        LoginCoalescer.Attempt attempt = coalescer.execute("user2", "password123",
+            () -> LoginCoalescer.Attempt.failure("user_not_found"));
+        release.countDown();
+
+        // Then
+        assertEquals("user_not_found", attempt.failureReason());
+        assertEquals(1, meterRegistry.get("auth.login.coalescing.bypassed").counter().count());
+        assertEquals("bad_password", pending.get(5, TimeUnit.SECONDS).failureReason());
+        assertEquals(0, coalescer.inFlightCount());
+    }
+
+    @Test
+    void testDisabled() {
+        // Given
+        properties.setEnabled(false);
+        coalescer = new LoginCoalescer(properties, new CredentialDigest(), meterRegistry);
+
+        // When
+        coalescer.execute("testuser", "password123", () -> LoginCoalescer.Attempt.failure("bad_password"));
+
+        // Then
+        assertEquals(0, coalescer.inFlightCount());
+        assertEquals(0, meterRegistry.get("auth.login.coalesced").counter().count());
+    }
+
+    private void awaitCoalesced(int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.get("auth.login.coalesced").counter().count() < count) {
+            assertTrue(System.nanoTime() < deadline, "等待合併逾時");
+            Thread.sleep(5);
+        }
+    }
+
+    private void awaitInFlight(int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (coalescer.inFlightCount() < count) {
+            assertTrue(System.nanoTime() < deadline, "等待驗證開始逾時");
+            Thread.sleep(5);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
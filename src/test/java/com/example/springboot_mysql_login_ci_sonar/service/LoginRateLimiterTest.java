@@ -0,0 +1,129 @@
+package com.example.springboot_mysql_login_ci_sonar.service;
+
+import com.example.springboot_mysql_login_ci_sonar.config.RateLimitProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * LoginRateLimiter 單元測試
+ */
+class LoginRateLimiterTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+    private RateLimitProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        properties = new RateLimitProperties();
+        properties.setLoginId(new RateLimitProperties.Limit(3, Duration.ofSeconds(10)));
+        properties.setIp(new RateLimitProperties.Limit(5, Duration.ofSeconds(1)));
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    private LoginRateLimiter limiter() {
+        return new LoginRateLimiter(properties, meterRegistry, nanos::get);
+    }
+
+    @Test
+    void testCheck_LoginIdBurstThenRefill() {
+        // Given
+        LoginRateLimiter limiter = limiter();
+        for (int i = 0; i < 3; i++) {
+            limiter.check("testuser", "10.0.0." + i);
+        }
+
+        // When
+        RateLimitExceededException e = assertThrows(RateLimitExceededException.class,
+            () -> limiter.check("TestUser", "10.0.0.9"));
+
+        // Then：不分大小寫，需等 10 秒補回一次
+        assertEquals(10, e.getRetryAfterSeconds());
+        assertEquals(1, meterRegistry.get("auth.rate.limited").tag("key", "loginId").counter().count());
+        limiter.check("otheruser", "10.0.0.9");
+
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(10));
+        limiter.check("testuser", "10.0.0.10");
+        assertThrows(RateLimitExceededException.class, () -> limiter.check("testuser", "10.0.0.11"));
+    }
+
+    @Test
+    void testCheck_IpLimitedBeforeLoginId() {
+        // Given
+        LoginRateLimiter limiter = limiter();
+        for (int i = 0; i < 5; i++) {
+            limiter.check("user" + i, "10.0.0.1");
+        }
+
+        // When
+        RateLimitExceededException e = assertThrows(RateLimitExceededException.class,
+            () -> limiter.check("fresh", "10.0.0.1"));
+
+        // Then：被 IP 擋下時不消耗登入 ID 的次數
+        assertEquals(1, e.getRetryAfterSeconds());
+        assertEquals(1, meterRegistry.get("auth.rate.limited").tag("key", "ip").counter().count());
+        for (int i = 0; i < 3; i++) {
+            limiter.check("fresh", "10.0.1." + i);
+        }
+    }
+
+    @Test
+    void testCheck_Disabled() {
+        // Given
+        properties.setEnabled(false);
+        LoginRateLimiter limiter = limiter();
+
+        // When & Then
+        for (int i = 0; i < 100; i++) {
+            limiter.check("testuser", "10.0.0.1");
+        }
+    }
+
+    @Test
+    void testTokenBucket_ConcurrentAcquireNeverExceedsCapacity() throws InterruptedException {
+        // Given
+        TokenBucketLimiter bucket = new TokenBucketLimiter(50, Duration.ofHours(1), 1000, nanos::get);
+        AtomicInteger allowed = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        // When
+        for (int i = 0; i < 1000; i++) {
+            executor.execute(() -> {
+                if (bucket.tryAcquire("key") == 0) {
+                    allowed.incrementAndGet();
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        // Then
+        assertEquals(50, allowed.get());
+    }
+
+    @Test
+    void testTokenBucket_IdleKeysEvicted() {
+        // Given
+        TokenBucketLimiter bucket = new TokenBucketLimiter(2, Duration.ofSeconds(1), 1000, nanos::get);
+        bucket.tryAcquire("a");
+        bucket.tryAcquire("b");
+
+        // When：超過整桶補滿時間
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(3));
+        bucket.tryAcquire("c");
+
+        // Then
+        assertEquals(0, bucket.tryAcquire("a"));
+        assertTrue(bucket.estimatedSize() <= 3);
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.springboot_mysql_login_ci_sonar.service;
+
+import com.example.springboot_mysql_login_ci_sonar.config.HashingProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * PasswordHashingExecutor 單元測試
+ */
+class PasswordHashingExecutorTest {
+
+    private PasswordHashingExecutor executor;
+
+    @AfterEach
+    void tearDown() {
+        if (executor != null) {
+            executor.destroy();
+        }
+    }
+
+    @Test
+    void testExecute_ReturnsResult() {
+        // Given
+        executor = new PasswordHashingExecutor(properties(1, 1, Duration.ofSeconds(1)));
+
+        // When & Then
+        assertTrue(executor.execute(() -> true));
+    }
+
+    @Test
+    void testExecute_QueueFull() throws Exception {
+        // Given
+        executor = new PasswordHashingExecutor(properties(1, 1, Duration.ofSeconds(5)));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread busy = new Thread(() -> executor.execute(() -> {
+            started.countDown();
+            return await(release);
+        }));
+        Thread queued = new Thread(() -> executor.execute(() -> true));
+        busy.start();
+        assertTrue(started.await(1, TimeUnit.SECONDS));
+        queued.start();
+        waitForQueue(1);
+
+        // When & Then
+        HashingOverloadedException exception = assertThrows(HashingOverloadedException.class,
+                () -> executor.execute(() -> true));
+        assertEquals(2, exception.getRetryAfterSeconds());
+
+        release.countDown();
+        busy.join();
+        queued.join();
+    }
+
+    @Test
+    void testExecute_Timeout() {
+        // Given
+        executor = new PasswordHashingExecutor(properties(1, 1, Duration.ofMillis(50)));
+        CountDownLatch release = new CountDownLatch(1);
+
+        // When & Then
+        assertThrows(HashingOverloadedException.class, () -> executor.execute(() -> await(release)));
+        release.countDown();
+    }
+
+    @Test
+    void testExecute_PropagatesRuntimeException() {
+        // Given
+        executor = new PasswordHashingExecutor(properties(1, 1, Duration.ofSeconds(1)));
+
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> executor.execute(() -> {
+            throw new IllegalArgumentException("bad hash");
+        }));
+    }
+
+    private HashingProperties properties(int poolSize, int queueCapacity, Duration maxWait) {
+        HashingProperties properties = new HashingProperties();
+        properties.setPoolSize(poolSize);
+        properties.setQueueCapacity(queueCapacity);
+        properties.setMaxWait(maxWait);
+        properties.setRetryAfter(Duration.ofSeconds(2));
+        return properties;
+    }
+
+    private void waitForQueue(int size) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+        while (executor.getQueueSize() < size && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+
+    private static boolean await(CountDownLatch latch) {
+        try {
+            return latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
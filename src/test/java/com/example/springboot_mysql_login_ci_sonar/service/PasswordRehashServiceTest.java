@@ -0,0 +1,113 @@
+package com.example.springboot_mysql_login_ci_sonar.service;
+
+import com.example.springboot_mysql_login_ci_sonar.config.PasswordProperties;
+import com.example.springboot_mysql_login_ci_sonar.config.SecurityConfig;
+import com.example.springboot_mysql_login_ci_sonar.config.ShardingProperties;
+import com.example.springboot_mysql_login_ci_sonar.entity.User;
+import com.example.springboot_mysql_login_ci_sonar.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * PasswordRehashService 單元測試
+ */
+@ExtendWith(MockitoExtension.class)
+class PasswordRehashServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private UserCache userCache;
+
+    private PasswordProperties properties;
+    private PasswordEncoder passwordEncoder;
+    private PasswordRehashService rehashService;
+    private User testUser;
+
+    @BeforeEach
+    void setUp() {
+        properties = new PasswordProperties();
+        properties.setStrength(5);
+        passwordEncoder = new SecurityConfig().passwordEncoder(properties);
+        rehashService = new PasswordRehashService(userRepository, passwordEncoder, userCache,
+            new UserShards(new ShardingProperties()), properties);
+
+        testUser = new User();
+        testUser.setId(1L);
+        testUser.setLoginId("testuser");
+    }
+
+    @AfterEach
+    void tearDown() {
+        rehashService.destroy();
+    }
+
+    @Test
+    void testPasswordEncoder_MatchesLegacyHash() {
+        // Given: 舊版無前綴、成本 4 的雜湊
+        String legacy = new BCryptPasswordEncoder(4).encode("password123");
+
+        // When & Then
+        assertTrue(passwordEncoder.matches("password123", legacy));
+        assertTrue(passwordEncoder.upgradeEncoding(legacy));
+        assertTrue(passwordEncoder.encode("password123").startsWith("{bcrypt}$2a$05$"));
+    }
+
+    @Test
+    void testRehash_LegacyHashUpgraded() {
+        // Given
+        String legacy = new BCryptPasswordEncoder(4).encode("password123");
+        testUser.setPassword(legacy);
+        when(userRepository.updatePasswordIfUnchanged(eq(1L), eq(legacy), anyString())).thenReturn(1);
+
+        // When
+        rehashService.rehashIfNeeded(testUser, "password123");
+
+        // Then
+        verify(userRepository, timeout(2000)).updatePasswordIfUnchanged(eq(1L), eq(legacy),
+                argThat(hash -> hash.startsWith("{bcrypt}") && passwordEncoder.matches("password123", hash)));
+        verify(userCache, timeout(2000)).evict(testUser);
+    }
+
+    @Test
+    void testRehash_CurrentHashSkipped() {
+        // Given
+        testUser.setPassword(passwordEncoder.encode("password123"));
+
+        // When
+        rehashService.rehashIfNeeded(testUser, "password123");
+
+        // Then
+        verify(userRepository, after(200).never()).updatePasswordIfUnchanged(anyLong(), anyString(), anyString());
+    }
+
+    @Test
+    void testRehash_Disabled() {
+        // Given
+        properties.setRehashOnLogin(false);
+        rehashService.destroy();
+        rehashService = new PasswordRehashService(userRepository, passwordEncoder, userCache,
+            new UserShards(new ShardingProperties()), properties);
+        testUser.setPassword(new BCryptPasswordEncoder(4).encode("password123"));
+
+        // When
+        rehashService.rehashIfNeeded(testUser, "password123");
+
+        // Then
+        verify(userRepository, after(200).never()).updatePasswordIfUnchanged(anyLong(), anyString(), anyString());
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.springboot_mysql_login_ci_sonar.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * RingBuffer 單元測試
+ */
+class RingBufferTest {
+
+    @Test
+    void testCapacityRoundedUpToPowerOfTwo() {
+        // When & Then
+        assertEquals(8, new RingBuffer<Integer>(5).capacity());
+        assertEquals(16_384, new RingBuffer<Integer>(16_384).capacity());
+        assertThrows(IllegalStateException.class, () -> new RingBuffer<Integer>(1));
+    }
+
+    @Test
+    void testFifoAndFull() {
+        // Given
+        RingBuffer<Integer> buffer = new RingBuffer<>(4);
+
+        // When
+        for (int i = 0; i < 4; i++) {
+            assertTrue(buffer.offer(i));
+        }
+
+        // Then：已滿時拒絕，取出後可再放入
+        assertFalse(buffer.offer(4));
+        assertEquals(4, buffer.size());
+        assertEquals(0, buffer.poll());
+        assertTrue(buffer.offer(4));
+        for (int i = 1; i <= 4; i++) {
+            assertEquals(i, buffer.poll());
+        }
+        assertNull(buffer.poll());
+        assertEquals(0, buffer.size());
+    }
+
+    @Test
+    void testConcurrentProducers() throws Exception {
+        // Given
+        int producers = 4;
+        int perProducer = 10_000;
+        RingBuffer<Integer> buffer = new RingBuffer<>(1024);
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        CountDownLatch done = new CountDownLatch(producers);
+
+        // When：多個生產者同時放入，單一消費者取出
+        for (int p = 0; p < producers; p++) {
+            int base = p * perProducer;
+            executor.execute(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    while (!buffer.offer(base + i)) {
+                        Thread.onSpinWait();
+                    }
+                }
+                done.countDown();
+            });
+        }
+        Set<Integer> received = new HashSet<>();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (received.size() < producers * perProducer) {
+            assertTrue(System.nanoTime() < deadline, "等待取出逾時");
+            Integer value = buffer.poll();
+            if (value != null) {
+                assertTrue(received.add(value), "重複取出 " + value);
+            }
+        }
+        executor.shutdown();
+
+        // Then
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertNull(buffer.poll());
+    }
+}
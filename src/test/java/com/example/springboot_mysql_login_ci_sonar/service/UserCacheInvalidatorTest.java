@@ -0,0 +1,61 @@
+package com.example.springboot_mysql_login_ci_sonar.service;
+
+import com.example.springboot_mysql_login_ci_sonar.entity.User;
+import com.example.springboot_mysql_login_ci_sonar.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * UserCacheInvalidator 整合測試
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class UserCacheInvalidatorTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void testDisableUser_RejectedImmediately() {
+        // Given
+        User created = userService.signup("快取用戶", "cacheduser", "password123");
+        assertTrue(userService.login("cacheduser", "password123").isPresent());
+
+        // When
+        transactionTemplate.executeWithoutResult(status -> {
+            User user = userRepository.findById(created.getId()).orElseThrow();
+            user.setEnabled(false);
+        });
+
+        // Then
+        assertFalse(userService.login("cacheduser", "password123").isPresent());
+    }
+
+    @Test
+    void testRenameUser_OldUsernameEvicted() {
+        // Given
+        User created = userService.signup("舊名稱", "renameduser", "password123");
+        assertTrue(userService.findByUsername("舊名稱").isPresent());
+
+        // When
+        transactionTemplate.executeWithoutResult(status -> {
+            User user = userRepository.findById(created.getId()).orElseThrow();
+            user.setUsername("新名稱");
+        });
+
+        // Then
+        assertFalse(userService.findByUsername("舊名稱").isPresent());
+        assertEquals("新名稱", userService.findByLoginId("renameduser").get().getUsername());
+    }
+}
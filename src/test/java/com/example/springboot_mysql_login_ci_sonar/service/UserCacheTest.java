@@ -0,0 +1,148 @@
+package com.example.springboot_mysql_login_ci_sonar.service;
+
+import com.example.springboot_mysql_login_ci_sonar.config.UserCacheProperties;
+import com.example.springboot_mysql_login_ci_sonar.entity.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * UserCache 單元測試
+ */
+class UserCacheTest {
+
+    private UserCacheProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private UserCache userCache;
+    private User testUser;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        properties = new UserCacheProperties();
+        meterRegistry = new SimpleMeterRegistry();
+        userCache = new UserCache(properties, meterRegistry);
+        loads = new AtomicInteger();
+
+        testUser = new User();
+        testUser.setId(1L);
+        testUser.setUsername("測試用戶");
+        testUser.setLoginId("testuser");
+        testUser.setPassword("encodedPassword");
+        testUser.setCreatedAt(LocalDateTime.now());
+        testUser.setUpdatedAt(LocalDateTime.now());
+        testUser.setEnabled(true);
+    }
+
+    @Test
+    void testGetByLoginId_LoadsOnce() {
+        // When
+        Optional<User> first = userCache.getByLoginId("testuser", this::load);
+        Optional<User> second = userCache.getByLoginId("testuser", this::load);
+
+        // Then
+        assertTrue(first.isPresent());
+        assertEquals(testUser, second.get());
+        assertEquals(1, loads.get());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "users.byLoginId").tag("result", "hit")
+                .functionCounter().count());
+    }
+
+    @Test
+    void testGetByLoginId_PopulatesUsernameIndex() {
+        // Given
+        userCache.getByLoginId("testuser", this::load);
+
+        // When
+        Optional<User> byUsername = userCache.getByUsername("測試用戶", () -> {
+            throw new AssertionError("不應查詢資料庫");
+        });
+
+        // Then
+        assertEquals("testuser", byUsername.get().getLoginId());
+    }
+
+    @Test
+    void testGet_ReturnsCopy() {
+        // Given
+        userCache.getByLoginId("testuser", this::load).get().setEnabled(false);
+
+        // When
+        Optional<User> cached = userCache.getByLoginId("testuser", this::load);
+
+        // Then
+        assertTrue(cached.get().getEnabled());
+    }
+
+    @Test
+    void testGet_MissNotCached() {
+        // When
+        userCache.getByLoginId("nobody", Optional::empty);
+        Optional<User> result = userCache.getByLoginId("nobody", this::load);
+
+        // Then
+        assertTrue(result.isPresent());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void testEvict_AfterUsernameChange() {
+        // Given
+        userCache.getByLoginId("testuser", this::load);
+        User updated = new User();
+        updated.setId(1L);
+        updated.setUsername("新名稱");
+        updated.setLoginId("testuser");
+
+        // When
+        userCache.evict(updated);
+        userCache.getByUsername("測試用戶", Optional::empty);
+        userCache.getByLoginId("testuser", this::load);
+
+        // Then
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void testEvict_ByPreviousUsername() {
+        // Given：以舊名稱讀取過
+        userCache.getByUsername("測試用戶", this::load);
+        User updated = new User();
+        updated.setId(1L);
+        updated.setUsername("新名稱");
+        updated.setLoginId("testuser");
+
+        // When
+        userCache.evict(updated, "testuser", "測試用戶");
+
+        // Then
+        assertTrue(userCache.getByUsername("測試用戶", Optional::empty).isEmpty());
+        userCache.getByLoginId("testuser", this::load);
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void testDisabled_AlwaysLoads() {
+        // Given
+        properties.setEnabled(false);
+        userCache = new UserCache(properties, new SimpleMeterRegistry());
+
+        // When
+        userCache.getByLoginId("testuser", this::load);
+        userCache.getByLoginId("testuser", this::load);
+
+        // Then
+        assertEquals(2, loads.get());
+    }
+
+    private Optional<User> load() {
+        loads.incrementAndGet();
+        return Optional.of(testUser);
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.springboot_mysql_login_ci_sonar.service;
+
+import com.example.springboot_mysql_login_ci_sonar.config.BloomFilterProperties;
+import com.example.springboot_mysql_login_ci_sonar.config.ShardingProperties;
+import com.example.springboot_mysql_login_ci_sonar.dto.UserKeys;
+import com.example.springboot_mysql_login_ci_sonar.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+/**
+ * UserExistenceFilter 單元測試
+ */
+@ExtendWith(MockitoExtension.class)
+class UserExistenceFilterTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private BloomFilterProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private UserExistenceFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        properties = new BloomFilterProperties();
+        properties.setEnabled(true);
+        properties.setExpectedInsertions(1000);
+        properties.setLoadPageSize(2);
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new UserExistenceFilter(userRepository, new UserShards(new ShardingProperties()),
+            properties, meterRegistry);
+    }
+
+    @Test
+    void testNotReady_AllowsEverything() {
+        // When & Then
+        assertFalse(filter.isReady());
+        assertTrue(filter.mightContainLoginId("anything"));
+        assertTrue(filter.mightContainUsername("anything"));
+    }
+
+    @Test
+    void testRebuild_LoadsAllPages() {
+        // Given
+        when(userRepository.count()).thenReturn(3L);
+        when(userRepository.findKeysAfter(eq(0L), any())).thenReturn(List.of(
+                new UserKeys(1L, "user1", "用戶一"), new UserKeys(2L, "user2", "用戶二")));
+        when(userRepository.findKeysAfter(eq(2L), any())).thenReturn(List.of(
+                new UserKeys(5L, "user5", "用戶五")));
+
+        // When
+        filter.rebuild();
+
+        // Then
+        assertTrue(filter.isReady());
+        assertTrue(filter.mightContainLoginId("user1"));
+        assertTrue(filter.mightContainLoginId("user5"));
+        assertTrue(filter.mightContainUsername("用戶二"));
+        assertFalse(filter.mightContainLoginId("nobody"));
+        assertEquals(1.0, meterRegistry.get("auth.bloom.skipped").tag("key", "loginId").counter().count());
+        assertEquals(3.0, meterRegistry.get("auth.bloom.keys").gauge().value());
+        assertTrue(meterRegistry.get("auth.bloom.memory").gauge().value() > 0);
+    }
+
+    @Test
+    void testAdd_AfterRebuild() {
+        // Given
+        when(userRepository.findKeysAfter(eq(0L), any())).thenReturn(List.of());
+        filter.rebuild();
+        assertFalse(filter.mightContainLoginId("newuser"));
+
+        // When
+        filter.add("newuser", "新用戶");
+
+        // Then
+        assertTrue(filter.mightContainLoginId("newuser"));
+        assertTrue(filter.mightContainUsername("新用戶"));
+    }
+
+    @Test
+    void testAdd_DuringRebuildKeptAfterSwap() {
+        // Given：讀取期間有 ID 已被游標略過的用戶才提交（註冊後呼叫 add）
+        when(userRepository.findKeysAfter(eq(0L), any())).thenAnswer(invocation -> {
+            filter.add("late", "晚提交");
+            return List.of(new UserKeys(7L, "user7", "用戶七"));
+        });
+
+        // When
+        filter.rebuild();
+
+        // Then：替換後的 filter 仍包含讀取期間加入的用戶
+        assertTrue(filter.mightContainLoginId("late"));
+        assertTrue(filter.mightContainUsername("晚提交"));
+        assertTrue(filter.mightContainLoginId("user7"));
+    }
+
+    @Test
+    void testDisabled_NeverBuilds() {
+        // Given
+        properties.setEnabled(false);
+
+        // When
+        filter.rebuild();
+
+        // Then
+        assertFalse(filter.isReady());
+        assertTrue(filter.mightContainLoginId("anything"));
+    }
+
+    @Test
+    void testBloomFilter_FalsePositiveRateWithinBound() {
+        // Given
+        BloomFilter bloomFilter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            bloomFilter.put("member" + i);
+        }
+
+        // When
+        int falsePositives = 0;
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(bloomFilter.mightContain("member" + i));
+            if (bloomFilter.mightContain("absent" + i)) {
+                falsePositives++;
+            }
+        }
+
+        // Then
+        assertTrue(falsePositives < 200, "falsePositives=" + falsePositives);
+        assertTrue(bloomFilter.estimatedFalsePositiveRate() < 0.02);
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.springboot_mysql_login_ci_sonar.service;
+
+import com.example.springboot_mysql_login_ci_sonar.config.ExportProperties;
+import com.example.springboot_mysql_login_ci_sonar.config.ShardingProperties;
+import com.example.springboot_mysql_login_ci_sonar.dto.UserExportRow;
+import com.example.springboot_mysql_login_ci_sonar.repository.UserRepository;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * UserExportService 單元測試
+ */
+class UserExportServiceTest {
+
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2024, 1, 2, 3, 4, 5);
+
+    private UserRepository userRepository;
+    private UserExportService exportService;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        ExportProperties properties = new ExportProperties();
+        properties.setPageSize(2);
+        // 與 Spring Boot 預設相同：日期輸出為 ISO-8601 字串
+        exportService = new UserExportService(userRepository, new UserShards(new ShardingProperties()),
+            Jackson2ObjectMapperBuilder.json().featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build(),
+            properties);
+    }
+
+    @Test
+    void testExportNdjsonPagesByKeyset() throws IOException {
+        // Given：兩頁滿頁加一頁不足，依上一頁最後 ID 續查
+        when(userRepository.findExportRowsAfter(0L, PageRequest.ofSize(2))).thenReturn(List.of(row(1L, "user1"), row(5L, "user5")));
+        when(userRepository.findExportRowsAfter(5L, PageRequest.ofSize(2))).thenReturn(List.of(row(8L, "user8"), row(9L, "user9")));
+        when(userRepository.findExportRowsAfter(9L, PageRequest.ofSize(2))).thenReturn(List.of(row(12L, "user12")));
+        StringWriter writer = new StringWriter();
+
+        // When
+        long count = exportService.export(UserFileFormat.NDJSON, writer);
+
+        // Then
+        assertEquals(5, count);
+        String[] lines = writer.toString().split("\n");
+        assertEquals(5, lines.length);
+        assertEquals("{\"id\":1,\"username\":\"user1\",\"loginId\":\"user1\",\"createdAt\":\"2024-01-02T03:04:05\","
+            + "\"updatedAt\":null,\"enabled\":true}", lines[0]);
+        assertTrue(lines[4].contains("\"id\":12"));
+        assertFalse(writer.toString().contains("password"));
+        verify(userRepository, times(3)).findExportRowsAfter(any(), any());
+    }
+
+    @Test
+    void testExportCsvEscapesFields() throws IOException {
+        // Given
+        when(userRepository.findExportRowsAfter(0L, PageRequest.ofSize(2)))
+            .thenReturn(List.of(row(1L, "王, \"小明\""), row(2L, "user2")));
+        when(userRepository.findExportRowsAfter(2L, PageRequest.ofSize(2))).thenReturn(List.of());
+        StringWriter writer = new StringWriter();
+
+        // When
+        long count = exportService.export(UserFileFormat.CSV, writer);
+
+        // Then
+        assertEquals(2, count);
+        assertEquals("id,username,loginId,createdAt,updatedAt,enabled\n"
+            + "1,\"王, \"\"小明\"\"\",user1,2024-01-02T03:04:05,,true\n"
+            + "2,user2,user2,2024-01-02T03:04:05,,true\n", writer.toString());
+    }
+
+    @Test
+    void testParseFormat() {
+        assertEquals(UserFileFormat.CSV, UserFileFormat.parse("csv"));
+        assertThrows(IllegalArgumentException.class, () -> UserFileFormat.parse("xml"));
+    }
+
+    private static UserExportRow row(Long id, String username) {
+        return new UserExportRow(id, username, "user" + id, CREATED_AT, null, true);
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.springboot_mysql_login_ci_sonar.service;
+
+import com.example.springboot_mysql_login_ci_sonar.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * UserImportRunner 整合測試（import profile，H2）
+ */
+@SpringBootTest(properties = "auth.import.exit-on-completion=false")
+@ActiveProfiles({"test", "import"})
+class UserImportRunnerTest {
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @DynamicPropertySource
+    static void importFile(DynamicPropertyRegistry registry) {
+        try {
+            Path file = Files.createTempDirectory("user-import").resolve("users.csv");
+            Files.write(file, List.of("username,loginId,password", "匯入執行用戶,imprunner,password123"), StandardCharsets.UTF_8);
+            registry.add("auth.import.file", file::toString);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Test
+    void testImportsWithoutWebServer() {
+        // Then：啟動時已匯入，且不是 Web 應用程式
+        assertFalse(context instanceof WebApplicationContext);
+        assertTrue(userRepository.findByLoginId("imprunner").isPresent());
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.springboot_mysql_login_ci_sonar.service;
+
+import com.example.springboot_mysql_login_ci_sonar.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * UserImportService 整合測試（H2）
+ */
+@SpringBootTest(properties = {
+        "auth.import.batch-size=2",
+        "auth.import.parallelism=2",
+        "auth.import.max-pending-batches=1",
+        "spring.jpa.show-sql=false",
+        "logging.level.com.example.springboot_mysql_login_ci_sonar=INFO"
+})
+@ActiveProfiles("test")
+class UserImportServiceTest {
+
+    @Autowired
+    private UserImportService importService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @TempDir
+    private Path tempDir;
+
+    @Test
+    void testImportCsv() throws IOException {
+        // Given：含引號欄位、格式錯誤、同批次內重複、驗證失敗及資料庫已存在的資料（每批 2 筆）
+        userService.signup("既有用戶", "impexisting", "password123");
+        Path file = write("users.csv",
+            "﻿username,loginId,password",
+            "\"王, 小明\",impwang,password123",
+            "\"未結束,impbroken,password123",
+            "匯入用戶三,impuser3,password123",
+            "重複用戶,impuser3,password123",
+            "匯入用戶二,impuser2,123",
+            "",
+            "既有用戶,impexisting,password123");
+
+        // When
+        ImportResult result = importService.importUsers(file, UserFileFormat.CSV,
+            tempDir.resolve("users.checkpoint"), tempDir.resolve("users.errors.csv"));
+
+        // Then
+        assertEquals(2, result.imported());
+        assertEquals(0, result.skipped());
+        assertEquals(4, result.failed());
+        assertEquals("王, 小明", userRepository.findByLoginId("impwang").orElseThrow().getUsername());
+        assertTrue(passwordEncoder.matches("password123", userRepository.findByLoginId("impuser3").orElseThrow().getPassword()));
+        assertEquals(List.of(
+            "line,loginId,reason",
+            "3,,格式錯誤",
+            "5,impuser3,檔案中登入 ID 重複",
+            "6,impuser2,密碼長度至少 6 字元",
+            "8,impexisting,登入 ID 已存在"), Files.readAllLines(tempDir.resolve("users.errors.csv")));
+        assertTrue(Files.readAllLines(tempDir.resolve("users.checkpoint")).contains("line=8"));
+        assertTrue(userService.login("impwang", "password123").isPresent());
+    }
+
+    @Test
+    void testResumeFromCheckpoint() throws IOException {
+        // Given：斷點記錄前 2 行已處理
+        Path file = write("resume.ndjson",
+            "{\"username\":\"已處理用戶\",\"loginId\":\"impdone\",\"password\":\"password123\"}",
+            "{\"username\":\"已處理用戶二\",\"loginId\":\"impdone2\",\"password\":\"password123\"}",
+            "{\"username\":\"續傳用戶\",\"loginId\":\"impresume\",\"password\":\"password123\"}",
+            "not json");
+        Path checkpoint = tempDir.resolve("resume.checkpoint");
+        Files.writeString(checkpoint, "line=2\nimported=2\nskipped=0\nfailed=0\n");
+
+        // When
+        ImportResult result = importService.importUsers(file, UserFileFormat.NDJSON, checkpoint, tempDir.resolve("resume.errors.csv"));
+
+        // Then
+        assertEquals(1, result.imported());
+        assertEquals(1, result.failed());
+        assertEquals(2, result.resumedAfterLine());
+        assertTrue(userRepository.findByLoginId("impresume").isPresent());
+        assertTrue(userRepository.findByLoginId("impdone").isEmpty());
+        List<String> saved = Files.readAllLines(checkpoint);
+        assertTrue(saved.contains("line=4"));
+        assertTrue(saved.contains("imported=3"));
+
+        // When：再次執行時已全部處理完畢
+        ImportResult again = importService.importUsers(file, UserFileFormat.NDJSON, checkpoint, tempDir.resolve("resume.errors.csv"));
+
+        // Then
+        assertEquals(0, again.imported() + again.skipped() + again.failed());
+    }
+
+    @Test
+    void testResumeSkipsBatchWrittenBeforeInterruption() throws IOException {
+        // Given：上次執行已寫入第 1–2 行的批次，但在更新斷點前中斷；第 3 行的登入 ID 由其他來源建立
+        userService.signup("中斷用戶一", "impcrash1", "password123");
+        userService.signup("中斷用戶二", "impcrash2", "password123");
+        userService.signup("其他來源", "impother", "password123");
+        Path file = write("crash.ndjson",
+            "{\"username\":\"中斷用戶一\",\"loginId\":\"impcrash1\",\"password\":\"password123\"}",
+            "{\"username\":\"中斷用戶二\",\"loginId\":\"impcrash2\",\"password\":\"password123\"}",
+            "{\"username\":\"檔案用戶\",\"loginId\":\"impother\",\"password\":\"password123\"}");
+        Path checkpoint = tempDir.resolve("crash.checkpoint");
+        Files.writeString(checkpoint, "line=0\nwriting=2\nimported=0\nskipped=0\nfailed=0\n");
+
+        // When
+        ImportResult result = importService.importUsers(file, UserFileFormat.NDJSON, checkpoint, tempDir.resolve("crash.errors.csv"));
+
+        // Then：只有寫入中範圍內的資料靜默略過
+        assertEquals(0, result.imported());
+        assertEquals(2, result.skipped());
+        assertEquals(1, result.failed());
+        assertEquals(List.of("line,loginId,reason", "3,impother,登入 ID 已存在"),
+            Files.readAllLines(tempDir.resolve("crash.errors.csv")));
+    }
+
+    @Test
+    void testCsvMissingColumn() throws IOException {
+        // Given
+        Path file = write("missing.csv", "username,password", "用戶,password123");
+
+        // When & Then
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+            () -> importService.importUsers(file, UserFileFormat.CSV, tempDir.resolve("missing.checkpoint"), tempDir.resolve("missing.errors.csv")));
+        assertEquals("CSV 缺少欄位: loginid", exception.getMessage());
+        assertFalse(Files.exists(tempDir.resolve("missing.errors.csv")));
+        assertFalse(Files.exists(tempDir.resolve("missing.checkpoint")));
+    }
+
+    private Path write(String name, String... lines) throws IOException {
+        return Files.write(tempDir.resolve(name), List.of(lines), StandardCharsets.UTF_8);
+    }
+}
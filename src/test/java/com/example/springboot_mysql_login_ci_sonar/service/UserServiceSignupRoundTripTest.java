@@ -0,0 +1,71 @@
+package com.example.springboot_mysql_login_ci_sonar.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 註冊往返次數測試（H2）
+ * 以 Hibernate 統計計算每次註冊送出的 SQL 數量，確認成功註冊只需一次 INSERT
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.show-sql=false",
+        "auth.bloom-filter.enabled=false",
+        "logging.level.com.example.springboot_mysql_login_ci_sonar=INFO"
+})
+@ActiveProfiles("test")
+class UserServiceSignupRoundTripTest {
+
+    private static final int SIGNUPS = 100;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void testSignup_OneStatementPerSuccess() {
+        // When
+        for (int i = 0; i < SIGNUPS; i++) {
+            userService.signup("往返用戶" + i, "roundtrip" + i, "password123");
+        }
+
+        // Then: 每筆一次 INSERT，其餘只有每 50 筆一次的序列取號（起點不一定對齊配置區段，最多多一次）
+        long statements = statistics.getPrepareStatementCount();
+        assertEquals(SIGNUPS, statistics.getEntityInsertCount());
+        long sequenceCalls = statements - SIGNUPS;
+        assertTrue(sequenceCalls >= SIGNUPS / 50 && sequenceCalls <= SIGNUPS / 50 + 1,
+                "statements=" + statements + ", sequenceCalls=" + sequenceCalls);
+    }
+
+    @Test
+    void testSignup_DuplicatesDetectedByConstraint() {
+        // Given
+        userService.signup("重複用戶", "duplicate", "password123");
+
+        // When & Then
+        IllegalArgumentException username = assertThrows(IllegalArgumentException.class,
+                () -> userService.signup("重複用戶", "another", "password123"));
+        IllegalArgumentException loginId = assertThrows(IllegalArgumentException.class,
+                () -> userService.signup("另一個用戶", "duplicate", "password123"));
+        assertEquals("用戶名稱已存在", username.getMessage());
+        assertEquals("登入 ID 已存在", loginId.getMessage());
+    }
+}
@@ -1,23 +1,44 @@
 package com.example.springboot_mysql_login_ci_sonar.service;
 
+import com.example.springboot_mysql_login_ci_sonar.config.AuthMetricsProperties;
+import com.example.springboot_mysql_login_ci_sonar.config.ReadReplicaProperties;
+import com.example.springboot_mysql_login_ci_sonar.config.ShardingProperties;
+import com.example.springboot_mysql_login_ci_sonar.config.SignupProperties;
+import com.example.springboot_mysql_login_ci_sonar.dto.BatchSignupResult;
+import com.example.springboot_mysql_login_ci_sonar.dto.SignupRequest;
+import com.example.springboot_mysql_login_ci_sonar.dto.UserCredentials;
 import com.example.springboot_mysql_login_ci_sonar.entity.User;
 import com.example.springboot_mysql_login_ci_sonar.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.sql.SQLException;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anySet;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 /**
@@ -32,6 +53,47 @@ class UserServiceTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Mock
+    private PasswordHashingExecutor hashingExecutor;
+
+    @Mock
+    private UserExistenceFilter existenceFilter;
+
+    @Mock
+    private UserCache userCache;
+
+    @Mock
+    private VerifiedCredentialCache credentialCache;
+
+    @Mock
+    private LoginCoalescer loginCoalescer;
+
+    @Mock
+    private PasswordRehashService rehashService;
+
+    @Mock
+    private AuthEventLogger authEvents;
+
+    @Mock
+    private LoginActivityRecorder loginActivity;
+
+    @Spy
+    private Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+    @Spy
+    private SignupProperties signupProperties = new SignupProperties();
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private ReadYourWritesTracker readYourWrites = new ReadYourWritesTracker(new ReadReplicaProperties());
+
+    @Spy
+    private UserShards userShards = new UserShards(new ShardingProperties());
+
+    @Spy
+    private AuthStageMetrics stageMetrics = new AuthStageMetrics(meterRegistry, new AuthMetricsProperties());
+
     @InjectMocks
     private UserService userService;
 
@@ -47,15 +109,32 @@ class UserServiceTest {
         testUser.setCreatedAt(LocalDateTime.now());
         testUser.setUpdatedAt(LocalDateTime.now());
         testUser.setEnabled(true);
+
+        lenient().when(existenceFilter.mightContainLoginId(anyString())).thenReturn(true);
+        lenient().when(existenceFilter.mightContainUsername(anyString())).thenReturn(true);
+
+        // 快取一律未命中，直接呼叫 loader
+        lenient().when(userCache.getByLoginId(anyString(), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(1).get());
+        lenient().when(userCache.getByUsername(anyString(), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(1).get());
+
+        // 登入不合併，直接執行驗證
+        lenient().when(loginCoalescer.execute(anyString(), anyString(), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(2).get());
+
+        // 雜湊執行緒池直接在呼叫端執行工作
+        lenient().when(hashingExecutor.execute(any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(0).get());
+        lenient().when(hashingExecutor.executeAll(anyList()))
+                .thenAnswer(invocation -> invocation.<List<Supplier<?>>>getArgument(0).stream().map(Supplier::get).toList());
     }
 
     @Test
     void testSignup_Success() {
         // Given
-        when(userRepository.existsByUsername("測試用戶")).thenReturn(false);
-        when(userRepository.existsByLoginId("testuser")).thenReturn(false);
         when(passwordEncoder.encode("password123")).thenReturn("encodedPassword");
-        when(userRepository.save(any(User.class))).thenReturn(testUser);
+        when(userRepository.saveAndFlush(any(User.class))).thenReturn(testUser);
 
         // When
         User result = userService.signup("測試用戶", "testuser", "password123");
@@ -67,16 +146,19 @@ class UserServiceTest {
         assertEquals("encodedPassword", result.getPassword());
         assertTrue(result.getEnabled());
 
-        verify(userRepository).existsByUsername("測試用戶");
-        verify(userRepository).existsByLoginId("testuser");
         verify(passwordEncoder).encode("password123");
-        verify(userRepository).save(any(User.class));
+        verify(userRepository).saveAndFlush(any(User.class));
+        verify(userRepository, never()).existsByUsername(anyString());
+        verify(userRepository, never()).existsByLoginId(anyString());
+        verify(existenceFilter).add("testuser", "測試用戶");
+        verify(authEvents).success("signup", "testuser", 1L);
     }
 
     @Test
     void testSignup_UsernameAlreadyExists() {
         // Given
-        when(userRepository.existsByUsername("測試用戶")).thenReturn(true);
+        when(passwordEncoder.encode("password123")).thenReturn("encodedPassword");
+        when(userRepository.saveAndFlush(any(User.class))).thenThrow(duplicateKey("PUBLIC.UK_USERS_USERNAME_INDEX_4"));
 
         // When & Then
         IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> {
@@ -84,16 +166,14 @@ class UserServiceTest {
         });
 
         assertEquals("用戶名稱已存在", exception.getMessage());
-        verify(userRepository).existsByUsername("測試用戶");
-        verify(userRepository, never()).existsByLoginId(anyString());
-        verify(userRepository, never()).save(any(User.class));
+        verify(userRepository, never()).existsByUsername(anyString());
     }
 
     @Test
     void testSignup_LoginIdAlreadyExists() {
         // Given
-        when(userRepository.existsByUsername("測試用戶")).thenReturn(false);
-        when(userRepository.existsByLoginId("testuser")).thenReturn(true);
+        when(passwordEncoder.encode("password123")).thenReturn("encodedPassword");
+        when(userRepository.saveAndFlush(any(User.class))).thenThrow(duplicateKey("users.uk_users_login_id"));
 
         // When & Then
         IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> {
@@ -101,15 +181,107 @@ class UserServiceTest {
         });
 
         assertEquals("登入 ID 已存在", exception.getMessage());
-        verify(userRepository).existsByUsername("測試用戶");
-        verify(userRepository).existsByLoginId("testuser");
-        verify(userRepository, never()).save(any(User.class));
+        verify(userRepository, never()).existsByLoginId(anyString());
+    }
+
+    @Test
+    void testSignup_UnknownConstraint() {
+        // Given
+        when(passwordEncoder.encode("password123")).thenReturn("encodedPassword");
+        DataIntegrityViolationException violation = duplicateKey("pk_users");
+        when(userRepository.saveAndFlush(any(User.class))).thenThrow(violation);
+
+        // When & Then
+        assertSame(violation, assertThrows(DataIntegrityViolationException.class,
+                () -> userService.signup("測試用戶", "testuser", "password123")));
+    }
+
+    private DataIntegrityViolationException duplicateKey(String constraintName) {
+        return new DataIntegrityViolationException("duplicate",
+                new ConstraintViolationException("duplicate", new SQLException("duplicate"), constraintName));
+    }
+
+    @Test
+    void testSignupBatch_MixedResults() {
+        // Given
+        List<SignupRequest> requests = List.of(
+                signupRequest("新用戶一", "newuser1"),
+                signupRequest("測試用戶", "newuser2"),      // 資料庫已有用戶名稱
+                signupRequest("新用戶三", "testuser"),      // 資料庫已有登入 ID
+                signupRequest("新用戶四", "newuser1"),      // 批次內重複登入 ID
+                signupRequest("", "ab"));                  // 格式錯誤
+        when(userRepository.findExistingUsernames(anySet())).thenReturn(List.of("測試用戶"));
+        when(userRepository.findExistingLoginIds(anySet())).thenReturn(List.of("testuser"));
+        when(passwordEncoder.encode("password123")).thenReturn("encodedPassword");
+        when(userRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<User> saved = new ArrayList<>(invocation.<List<User>>getArgument(0));
+            for (int i = 0; i < saved.size(); i++) {
+                saved.get(i).setId(100L + i);
+            }
+            return saved;
+        });
+
+        // When
+        List<BatchSignupResult> results = userService.signupBatch(requests);
+
+        // Then
+        assertEquals(5, results.size());
+        assertTrue(results.get(0).isSuccess());
+        assertEquals(100L, results.get(0).getUserId());
+        assertEquals("用戶名稱已存在", results.get(1).getMessage());
+        assertEquals("登入 ID 已存在", results.get(2).getMessage());
+        assertEquals("登入 ID 已存在", results.get(3).getMessage());
+        assertFalse(results.get(4).isSuccess());
+        verify(userRepository, times(1)).findExistingUsernames(anySet());
+        verify(userRepository, times(1)).findExistingLoginIds(anySet());
+        verify(userRepository).saveAll(argThat(users -> ((List<User>) users).size() == 1));
+        verify(userRepository, never()).existsByUsername(anyString());
+    }
+
+    @Test
+    void testSignupBatch_ConflictReportedPerItem() {
+        // Given：查詢後才被其他請求註冊的登入 ID，整批寫入因唯一約束失敗
+        List<SignupRequest> requests = List.of(signupRequest("新用戶一", "newuser1"), signupRequest("新用戶二", "racer"));
+        when(passwordEncoder.encode("password123")).thenReturn("encodedPassword");
+        when(userRepository.saveAll(anyList())).thenThrow(duplicateKey("users.uk_users_login_id"));
+        when(userRepository.saveAndFlush(argThat(user -> user != null && "newuser1".equals(user.getLoginId()))))
+                .thenAnswer(invocation -> {
+                    User saved = invocation.getArgument(0);
+                    saved.setId(100L);
+                    return saved;
+                });
+        when(userRepository.saveAndFlush(argThat(user -> user != null && "racer".equals(user.getLoginId()))))
+                .thenThrow(duplicateKey("users.uk_users_login_id"));
+
+        // When
+        List<BatchSignupResult> results = userService.signupBatch(requests);
+
+        // Then：改為逐筆寫入，只有衝突的資料列為失敗
+        assertTrue(results.get(0).isSuccess());
+        assertEquals(100L, results.get(0).getUserId());
+        assertFalse(results.get(1).isSuccess());
+        assertEquals("登入 ID 已存在", results.get(1).getMessage());
+        verify(existenceFilter).add("newuser1", "新用戶一");
+        verify(existenceFilter, never()).add(eq("racer"), anyString());
+    }
+
+    @Test
+    void testSignupBatch_TooLarge() {
+        // Given
+        signupProperties.setBatchMaxSize(1);
+        List<SignupRequest> requests = List.of(signupRequest("用戶一", "user1"), signupRequest("用戶二", "user2"));
+
+        // When & Then
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> userService.signupBatch(requests));
+        assertEquals("批次註冊筆數不能超過 1", exception.getMessage());
+        verify(userRepository, never()).saveAll(anyList());
     }
 
     @Test
     void testLogin_Success() {
         // Given
-        when(userRepository.findByLoginId("testuser")).thenReturn(Optional.of(testUser));
+        when(userRepository.findCredentialsByLoginId("testuser")).thenReturn(Optional.of(credentials(testUser)));
         when(passwordEncoder.matches("password123", "encodedPassword")).thenReturn(true);
 
         // When
@@ -118,28 +290,63 @@ class UserServiceTest {
         // Then
         assertTrue(result.isPresent());
         assertEquals(testUser, result.get());
-        verify(userRepository).findByLoginId("testuser");
+        verify(userRepository).findCredentialsByLoginId("testuser");
         verify(passwordEncoder).matches("password123", "encodedPassword");
+        verify(credentialCache).put(any(), eq("encodedPassword"));
+        verify(rehashService).rehashIfNeeded(testUser, "password123");
+        verify(loginActivity).success(testUser);
+    }
+
+    @Test
+    void testLogin_RecordsStageTimers() {
+        // Given
+        when(userRepository.findCredentialsByLoginId("testuser")).thenReturn(Optional.of(credentials(testUser)));
+        when(passwordEncoder.matches("password123", "encodedPassword")).thenReturn(false);
+
+        // When
+        userService.login("testuser", "password123");
+
+        // Then
+        for (String stage : List.of("filter", "lookup", "verify")) {
+            assertEquals(1, meterRegistry.get(AuthStageMetrics.TIMER_NAME)
+                .tag("operation", "login").tag("stage", stage).timer().count(), stage);
+        }
+    }
+
+    @Test
+    void testLogin_CredentialAlreadyVerified() {
+        // Given
+        when(userRepository.findCredentialsByLoginId("testuser")).thenReturn(Optional.of(credentials(testUser)));
+        when(credentialCache.key("testuser", "password123")).thenReturn("hmac");
+        when(credentialCache.isVerified("hmac", "encodedPassword")).thenReturn(true);
+
+        // When
+        Optional<User> result = userService.login("testuser", "password123");
+
+        // Then
+        assertTrue(result.isPresent());
+        verify(passwordEncoder, never()).matches(anyString(), anyString());
+        verify(credentialCache, never()).put(anyString(), anyString());
     }
 
     @Test
     void testLogin_UserNotFound() {
         // Given
-        when(userRepository.findByLoginId("testuser")).thenReturn(Optional.empty());
+        when(userRepository.findCredentialsByLoginId("testuser")).thenReturn(Optional.empty());
 
         // When
         Optional<User> result = userService.login("testuser", "password123");
 
         // Then
         assertFalse(result.isPresent());
-        verify(userRepository).findByLoginId("testuser");
+        verify(userRepository).findCredentialsByLoginId("testuser");
         verify(passwordEncoder, never()).matches(anyString(), anyString());
     }
 
     @Test
     void testLogin_WrongPassword() {
         // Given
-        when(userRepository.findByLoginId("testuser")).thenReturn(Optional.of(testUser));
+        when(userRepository.findCredentialsByLoginId("testuser")).thenReturn(Optional.of(credentials(testUser)));
         when(passwordEncoder.matches("wrongpassword", "encodedPassword")).thenReturn(false);
 
         // When
@@ -147,25 +354,83 @@ class UserServiceTest {
 
         // Then
         assertFalse(result.isPresent());
-        verify(userRepository).findByLoginId("testuser");
+        verify(userRepository).findCredentialsByLoginId("testuser");
         verify(passwordEncoder).matches("wrongpassword", "encodedPassword");
+        verify(rehashService, never()).rehashIfNeeded(any(), anyString());
+        verify(authEvents).failure("login", "testuser", "bad_password");
+        verify(authEvents, never()).success(anyString(), anyString(), any());
+        verify(loginActivity).failure(argThat(user -> user.getId().equals(1L)), eq("bad_password"));
+    }
+
+    @Test
+    void testLogin_CoalescedAttemptLogsOwnEvent() {
+        // Given：相同憑證的進行中驗證已有結果
+        when(loginCoalescer.execute(eq("testuser"), eq("password123"), any()))
+                .thenReturn(LoginCoalescer.Attempt.success(testUser));
+
+        // When
+        Optional<User> result = userService.login("testuser", "password123");
+
+        // Then
+        assertEquals(Optional.of(testUser), result);
+        verify(userRepository, never()).findCredentialsByLoginId(anyString());
+        verify(passwordEncoder, never()).matches(anyString(), anyString());
+        verify(authEvents).success("login", "testuser", 1L);
+    }
+
+    @Test
+    void testLogin_SkippedByExistenceFilter() {
+        // Given
+        when(existenceFilter.mightContainLoginId("nobody")).thenReturn(false);
+
+        // When
+        Optional<User> result = userService.login("nobody", "password123");
+
+        // Then
+        assertFalse(result.isPresent());
+        verify(userRepository, never()).findCredentialsByLoginId(anyString());
+        verify(passwordEncoder, never()).matches(anyString(), anyString());
     }
 
     @Test
     void testLogin_UserDisabled() {
         // Given
         testUser.setEnabled(false);
-        when(userRepository.findByLoginId("testuser")).thenReturn(Optional.of(testUser));
+        when(userRepository.findCredentialsByLoginId("testuser")).thenReturn(Optional.of(credentials(testUser)));
 
         // When
         Optional<User> result = userService.login("testuser", "password123");
 
         // Then
         assertFalse(result.isPresent());
-        verify(userRepository).findByLoginId("testuser");
+        verify(userRepository).findCredentialsByLoginId("testuser");
+        verify(passwordEncoder, never()).matches(anyString(), anyString());
+    }
+
+    @Test
+    void testLogin_HashingOverloaded() {
+        // Given
+        when(userRepository.findCredentialsByLoginId("testuser")).thenReturn(Optional.of(credentials(testUser)));
+        doThrow(new HashingOverloadedException("密碼雜湊佇列已滿", 1)).when(hashingExecutor).execute(any());
+
+        // When & Then
+        assertThrows(HashingOverloadedException.class, () -> userService.login("testuser", "password123"));
         verify(passwordEncoder, never()).matches(anyString(), anyString());
     }
 
+    private static UserCredentials credentials(User user) {
+        return new UserCredentials(user.getId(), user.getUsername(), user.getLoginId(), user.getPassword(),
+            user.getCreatedAt(), user.getUpdatedAt(), user.getEnabled());
+    }
+
+    private SignupRequest signupRequest(String username, String loginId) {
+        SignupRequest request = new SignupRequest();
+        request.setUsername(username);
+        request.setLoginId(loginId);
+        request.setPassword("password123");
+        return request;
+    }
+
     @Test
     void testFindByLoginId() {
         // Given
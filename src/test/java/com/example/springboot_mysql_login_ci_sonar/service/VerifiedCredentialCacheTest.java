@@ -0,0 +1,75 @@
+package com.example.springboot_mysql_login_ci_sonar.service;
+
+import com.example.springboot_mysql_login_ci_sonar.config.CredentialCacheProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * VerifiedCredentialCache 單元測試
+ */
+class VerifiedCredentialCacheTest {
+
+    private CredentialCacheProperties properties;
+    private VerifiedCredentialCache cache;
+
+    @BeforeEach
+    void setUp() {
+        properties = new CredentialCacheProperties();
+        properties.setEnabled(true);
+        cache = new VerifiedCredentialCache(properties, new CredentialDigest(), new SimpleMeterRegistry());
+    }
+
+    @Test
+    void testIsVerified_SameHash() {
+        // Given
+        String key = cache.key("testuser", "password123");
+        cache.put(key, "hash-v1");
+
+        // When & Then
+        assertTrue(cache.isVerified(cache.key("testuser", "password123"), "hash-v1"));
+        assertFalse(cache.isVerified(cache.key("testuser", "wrongpassword"), "hash-v1"));
+    }
+
+    @Test
+    void testIsVerified_HashChanged() {
+        // Given
+        String key = cache.key("testuser", "password123");
+        cache.put(key, "hash-v1");
+
+        // When & Then
+        assertFalse(cache.isVerified(key, "hash-v2"));
+    }
+
+    @Test
+    void testKey_NoConcatenationCollision() {
+        // When & Then
+        assertNotEquals(cache.key("ab", "c"), cache.key("a", "bc"));
+    }
+
+    @Test
+    void testKey_NotPlainPassword() {
+        // When
+        String key = cache.key("testuser", "password123");
+
+        // Then
+        assertFalse(key.contains("password123"));
+    }
+
+    @Test
+    void testDisabled() {
+        // Given
+        properties.setEnabled(false);
+        cache = new VerifiedCredentialCache(properties, new CredentialDigest(), new SimpleMeterRegistry());
+
+        // When
+        String key = cache.key("testuser", "password123");
+        cache.put(key, "hash-v1");
+
+        // Then
+        assertNull(key);
+        assertFalse(cache.isVerified(key, "hash-v1"));
+    }
+}